@@ -0,0 +1,249 @@
+package org.json.benchmark;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Deterministic datasets shared by the benchmarks. Every shape is a JSON
+ * object text so that it can be parsed with <code>new JSONObject(String)</code>.
+ * <ul>
+ * <li><code>small</code>: one record of about 1 KB.</li>
+ * <li><code>medium</code>: 500 records, about 250 KB.</li>
+ * <li><code>huge</code>: 20,000 records, about 10 MB.</li>
+ * <li><code>deep</code>: objects and arrays nested 150 levels deep.</li>
+ * <li><code>wide</code>: one object with 10,000 members.</li>
+ * </ul>
+ */
+public final class Datasets {
+
+    /** The shapes accepted by {@link #json(String)}. */
+    public static final String SHAPES = "small,medium,huge,deep,wide";
+
+    private Datasets() {
+    }
+
+    /**
+     * Make the JSON text of a dataset.
+     *
+     * @param shape
+     *            One of the {@link #SHAPES}.
+     * @return A JSON object text.
+     */
+    public static String json(String shape) {
+        return document(shape).toString();
+    }
+
+    /**
+     * Make a dataset as a JSONObject.
+     *
+     * @param shape
+     *            One of the {@link #SHAPES}.
+     * @return A JSONObject.
+     */
+    public static JSONObject document(String shape) {
+        Random random = new Random(42);
+        if ("small".equals(shape)) {
+            return record(random, 0);
+        }
+        if ("medium".equals(shape)) {
+            return records(random, 500);
+        }
+        if ("huge".equals(shape)) {
+            return records(random, 20000);
+        }
+        if ("deep".equals(shape)) {
+            JSONObject jo = record(random, 0);
+            for (int i = 0; i < 150; i++) {
+                jo = new JSONObject().put("level", i).put("child",
+                        i % 2 == 0 ? jo : new JSONArray().put(jo));
+            }
+            return jo;
+        }
+        if ("wide".equals(shape)) {
+            JSONObject jo = new JSONObject();
+            for (int i = 0; i < 10000; i++) {
+                jo.put("member" + i, i % 3 == 0 ? (Object) word(random) : (Object) Double.valueOf(random.nextDouble()));
+            }
+            return jo;
+        }
+        throw new IllegalArgumentException("Unknown shape: " + shape);
+    }
+
+    /**
+     * Make a CSV text with a header line and the given number of rows.
+     *
+     * @param rows
+     *            The number of rows.
+     * @return A CSV text.
+     */
+    public static String csv(int rows) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("id,name,city,score,comment\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append(i).append(',').append(word(random)).append(',').append(word(random))
+                    .append(',').append(random.nextInt(1000)).append(",\"")
+                    .append(word(random)).append(", ").append(word(random)).append("\"\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Make a list of beans.
+     *
+     * @param count
+     *            The number of beans.
+     * @return A list of beans.
+     */
+    public static List<Person> people(int count) {
+        Random random = new Random(42);
+        List<Person> people = new ArrayList<Person>(count);
+        for (int i = 0; i < count; i++) {
+            people.add(new Person(i, word(random), word(random), random.nextDouble(),
+                    random.nextBoolean(), new Address(word(random), word(random), random.nextInt(99999))));
+        }
+        return people;
+    }
+
+    private static JSONObject records(Random random, int count) {
+        JSONArray ja = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            ja.put(record(random, i));
+        }
+        return new JSONObject().put("count", count).put("records", ja);
+    }
+
+    private static JSONObject record(Random random, int id) {
+        JSONArray tags = new JSONArray();
+        for (int i = 0; i < 5; i++) {
+            tags.put(word(random));
+        }
+        JSONArray scores = new JSONArray();
+        for (int i = 0; i < 10; i++) {
+            scores.put(random.nextInt(100000) / 100.0);
+        }
+        return new JSONObject()
+                .put("id", id)
+                .put("uuid", Long.toHexString(random.nextLong()))
+                .put("name", word(random) + " " + word(random))
+                .put("active", random.nextBoolean())
+                .put("balance", random.nextDouble() * 10000)
+                .put("created", 1500000000000L + random.nextInt(Integer.MAX_VALUE))
+                .put("note", "line one\nline \"two\"\twith \\ escapes é")
+                .put("tags", tags)
+                .put("scores", scores)
+                .put("address", new JSONObject()
+                        .put("street", word(random) + " street")
+                        .put("city", word(random))
+                        .put("zip", random.nextInt(99999)))
+                .put("parent", JSONObject.NULL);
+    }
+
+    private static String word(Random random) {
+        int length = 3 + random.nextInt(8);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A bean used to measure <code>new JSONObject(Object bean)</code>.
+     */
+    public static class Person {
+        private final int id;
+        private final String firstName;
+        private final String lastName;
+        private final double rating;
+        private final boolean active;
+        private final Address address;
+
+        Person(int id, String firstName, String lastName, double rating, boolean active, Address address) {
+            this.id = id;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.rating = rating;
+            this.active = active;
+            this.address = address;
+        }
+
+        public int getId() {
+            return this.id;
+        }
+
+        public String getFirstName() {
+            return this.firstName;
+        }
+
+        public String getLastName() {
+            return this.lastName;
+        }
+
+        public double getRating() {
+            return this.rating;
+        }
+
+        public boolean isActive() {
+            return this.active;
+        }
+
+        public Address getAddress() {
+            return this.address;
+        }
+    }
+
+    /**
+     * A nested bean.
+     */
+    public static class Address {
+        private final String street;
+        private final String city;
+        private final int zip;
+
+        Address(String street, String city, int zip) {
+            this.street = street;
+            this.city = city;
+            this.zip = zip;
+        }
+
+        public String getStreet() {
+            return this.street;
+        }
+
+        public String getCity() {
+            return this.city;
+        }
+
+        public int getZip() {
+            return this.zip;
+        }
+    }
+}
@@ -24,6 +24,17 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
  */
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * This provides static methods to convert comma delimited text into a
  * JSONArray, and to convert a JSONArray into comma delimited text. Comma
@@ -45,6 +56,12 @@ SOFTWARE.
  */
 public class CDL {
 
+    /**
+     * The smallest number of characters given to one task when comma
+     * delimited text is parsed in parallel.
+     */
+    static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
     /**
      * Get the next value. The value can be wrapped in quotes. The value can
      * be empty.
@@ -151,32 +168,84 @@ public class CDL {
      */
     public static String rowToString(JSONArray ja) {
         StringBuilder sb = new StringBuilder();
+        try {
+            appendRow(ja, sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new JSONException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append a comma delimited text row, ending in NEWLINE, made from a
+     * JSONArray.
+     * @param ja A JSONArray of strings.
+     * @param out The sink to receive the row.
+     * @throws IOException if the sink fails
+     */
+    private static void appendRow(JSONArray ja, Appendable out) throws IOException {
         for (int i = 0; i < ja.length(); i += 1) {
             if (i > 0) {
-                sb.append(',');
+                out.append(',');
             }
-            Object object = ja.opt(i);
-            if (object != null) {
-                String string = object.toString();
-                if (string.length() > 0 && (string.indexOf(',') >= 0 ||
-                        string.indexOf('\n') >= 0 || string.indexOf('\r') >= 0 ||
-                        string.indexOf(0) >= 0 || string.charAt(0) == '"')) {
-                    sb.append('"');
-                    int length = string.length();
-                    for (int j = 0; j < length; j += 1) {
-                        char c = string.charAt(j);
-                        if (c >= ' ' && c != '"') {
-                            sb.append(c);
-                        }
-                    }
-                    sb.append('"');
-                } else {
-                    sb.append(string);
+            appendValue(ja.opt(i), out);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Append a comma delimited text row, ending in NEWLINE, made from the
+     * values of a JSONObject in the order of a list of names. This is the
+     * row that {@link #rowToString(JSONArray)} makes from
+     * {@link JSONObject#toJSONArray(JSONArray)}, without building the
+     * intermediate JSONArray.
+     * @param names A JSONArray of strings.
+     * @param jo A JSONObject.
+     * @param out The sink to receive the row.
+     * @throws IOException if the sink fails
+     */
+    private static void appendRow(JSONArray names, JSONObject jo, Appendable out)
+            throws IOException {
+        for (int i = 0; i < names.length(); i += 1) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendValue(jo.opt(names.getString(i)), out);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Append one value of a comma delimited text row. Values containing the
+     * comma character will be quoted. Troublesome characters may be removed.
+     * @param object The value, or null for an empty value.
+     * @param out The sink to receive the value.
+     * @throws IOException if the sink fails
+     */
+    private static void appendValue(Object object, Appendable out) throws IOException {
+        if (object == null) {
+            return;
+        }
+        String string = object.toString();
+        if (string.length() > 0 && (string.indexOf(',') >= 0 ||
+                string.indexOf('\n') >= 0 || string.indexOf('\r') >= 0 ||
+                string.indexOf(0) >= 0 || string.charAt(0) == '"')) {
+            out.append('"');
+            int length = string.length();
+            int start = 0;
+            for (int j = 0; j < length; j += 1) {
+                char c = string.charAt(j);
+                if (c < ' ' || c == '"') {
+                    out.append(string, start, j);
+                    start = j + 1;
                 }
             }
+            out.append(string, start, length);
+            out.append('"');
+        } else {
+            out.append(string);
         }
-        sb.append('\n');
-        return sb.toString();
     }
 
     /**
@@ -242,6 +311,257 @@ public class CDL {
     }
 
 
+    /**
+     * Produce an iterator over the rows of comma delimited text. Each row is
+     * read from the reader as it is requested, so only one row is held in
+     * memory at a time. The rows end at the end of the text or at the first
+     * empty row, as they do for {@link #toJSONArray(JSONArray, JSONTokener)}.
+     * @param reader The source of the comma delimited text.
+     * @return An iterator of JSONArrays of strings.
+     */
+    public static Iterator<JSONArray> toJSONArrays(Reader reader) {
+        return new RowIterator<JSONArray>(null, new JSONTokener(reader));
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text as
+     * JSONObjects, using the first row as a source of names. Each row is
+     * read from the reader as it is requested, so only one row is held in
+     * memory at a time.
+     * @param reader The source of the comma delimited text.
+     * @return An iterator of JSONObjects.
+     * @throws JSONException if the first row cannot be read
+     */
+    public static Iterator<JSONObject> toJSONObjects(Reader reader) throws JSONException {
+        JSONTokener x = new JSONTokener(reader);
+        return toJSONObjects(rowToJSONArray(x), x);
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text as
+     * JSONObjects, using a supplied JSONArray as the source of element names.
+     * Each row is read from the reader as it is requested, so only one row is
+     * held in memory at a time.
+     * @param names A JSONArray of strings.
+     * @param reader The source of the comma delimited text.
+     * @return An iterator of JSONObjects.
+     */
+    public static Iterator<JSONObject> toJSONObjects(JSONArray names, Reader reader) {
+        return toJSONObjects(names, new JSONTokener(reader));
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text as
+     * JSONObjects, using a supplied JSONArray as the source of element names.
+     * @param names A JSONArray of strings.
+     * @param x A JSONTokener of the source text.
+     * @return An iterator of JSONObjects, which is empty if there are no
+     *  names.
+     */
+    private static Iterator<JSONObject> toJSONObjects(JSONArray names, JSONTokener x) {
+        if (names == null || names.length() == 0) {
+            names = null;
+            x = null;
+        }
+        return new RowIterator<JSONObject>(names, x);
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text, parsing
+     * chunks of the rows on a pool. The text is read on the calling thread
+     * in chunks that end at a '\n' as the rows are requested, and only a
+     * few chunks are parsed ahead of them, so the memory used does not
+     * depend on the length of the text. The rows are returned in order and
+     * are the same as those of {@link #toJSONArrays(Reader)}. A syntax error
+     * is thrown when the iterator reaches the row that holds it, and names
+     * the line of that row.
+     * @param reader The source of the comma delimited text. The caller must
+     *  close the reader.
+     * @param pool The pool to parse the chunks on.
+     * @return An iterator of JSONArrays of strings.
+     */
+    public static Iterator<JSONArray> toJSONArrays(Reader reader, ForkJoinPool pool) {
+        return toIterator(null, reader, pool);
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text as
+     * JSONObjects, using a supplied JSONArray as the source of element names
+     * and parsing chunks of the rows on a pool, as
+     * {@link #toJSONArrays(Reader, ForkJoinPool)} does.
+     * @param names A JSONArray of strings.
+     * @param reader The source of the comma delimited text. The caller must
+     *  close the reader.
+     * @param pool The pool to parse the chunks on.
+     * @return An iterator of JSONObjects, which is empty if there are no
+     *  names.
+     */
+    public static Iterator<JSONObject> toJSONObjects(JSONArray names, Reader reader,
+            ForkJoinPool pool) {
+        if (names == null || names.length() == 0) {
+            return new RowIterator<JSONObject>(null, null);
+        }
+        return toIterator(names, reader, pool);
+    }
+
+    /**
+     * Produce an iterator over the rows of comma delimited text that parses
+     * chunks of the rows on a pool.
+     * @param <T> JSONArray for rows of strings, or JSONObject for rows
+     *  combined with names.
+     * @param names The names of the elements, or null for rows of strings.
+     * @param reader The source of the comma delimited text.
+     * @param pool The pool to parse the chunks on.
+     * @return An iterator of the rows.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Iterator<T> toIterator(JSONArray names, Reader reader,
+            ForkJoinPool pool) {
+        if (pool == null) {
+            throw new NullPointerException("Null pool.");
+        }
+        return (Iterator<T>) (Iterator<?>) new JSONLinesIterator(reader,
+                new LineParser(names), pool, true);
+    }
+
+    /**
+     * Produce a JSONArray of JSONObjects from a comma delimited text string,
+     * using the first row as a source of names. The rest of the text is
+     * split into chunks at line breaks and the chunks are parsed on the
+     * pool. The result is the same as {@link #toJSONArray(String)}.
+     * @param string The comma delimited text.
+     * @param pool The pool to parse the chunks on.
+     * @return A JSONArray of JSONObjects.
+     * @throws JSONException if a called function fails
+     */
+    public static JSONArray toJSONArray(String string, ForkJoinPool pool)
+            throws JSONException {
+        int header = nextLineBreak(string, 0);
+        if (header < 0 || string.indexOf(0) >= 0) {
+            return toJSONArray(string);
+        }
+        // without NUL characters, a row never reads past its line break
+        JSONArray names = rowToJSONArray(new JSONTokener(string.substring(0, header + 1)));
+        return toJSONArray(names, string, header + 1, pool);
+    }
+
+    /**
+     * Produce a JSONArray of JSONObjects from a comma delimited text string
+     * using a supplied JSONArray as the source of element names. The text is
+     * split into chunks at line breaks and the chunks are parsed on the pool.
+     * A row never continues past a line break, so every line break is a
+     * record boundary. The result is the same as
+     * {@link #toJSONArray(JSONArray, String)}, and so are the errors: if a
+     * chunk fails, the text is parsed again in order to report the error at
+     * its position in the whole text. The whole text and result are held in
+     * memory; {@link #toJSONObjects(JSONArray, Reader, ForkJoinPool)} parses
+     * text from a reader a few chunks at a time.
+     * @param names A JSONArray of strings.
+     * @param string The comma delimited text.
+     * @param pool The pool to parse the chunks on.
+     * @return A JSONArray of JSONObjects.
+     * @throws JSONException if a called function fails
+     */
+    public static JSONArray toJSONArray(JSONArray names, String string, ForkJoinPool pool)
+            throws JSONException {
+        if (string.indexOf(0) >= 0) {
+            return toJSONArray(names, string);
+        }
+        return toJSONArray(names, string, 0, pool);
+    }
+
+    /**
+     * Produce a JSONArray of JSONObjects from the rows of comma delimited
+     * text that follow its first row, or from all of its rows, parsing
+     * chunks of the text on a pool.
+     * @param names A JSONArray of strings.
+     * @param string The comma delimited text, which has no NUL characters.
+     * @param from The index of the first row, which is either 0 or the index
+     *  after the line break that ends the first row of names.
+     * @param pool The pool to parse the chunks on.
+     * @return A JSONArray of JSONObjects.
+     * @throws JSONException if a called function fails
+     */
+    private static JSONArray toJSONArray(JSONArray names, String string, int from,
+            ForkJoinPool pool) throws JSONException {
+        if (names == null || names.length() == 0) {
+            return null;
+        }
+        int length = string.length();
+        int chunks = Math.min((length - from) / PARALLEL_CHUNK_SIZE, pool.getParallelism() * 4);
+        if (chunks < 2) {
+            return from == 0 ? toJSONArray(names, string) : toJSONArray(string);
+        }
+        List<ChunkTask> tasks = new ArrayList<ChunkTask>(chunks);
+        int start = from;
+        for (int i = 1; i < chunks && start < length; i += 1) {
+            int lineBreak = nextLineBreak(string,
+                    Math.max(start, from + (int) ((long) (length - from) * i / chunks)));
+            if (lineBreak < 0) {
+                break;
+            }
+            tasks.add(new ChunkTask(names, string.substring(start, lineBreak + 1)));
+            start = lineBreak + 1;
+        }
+        if (start < length) {
+            tasks.add(new ChunkTask(names, string.substring(start)));
+        }
+        for (ChunkTask task : tasks) {
+            pool.execute(task);
+        }
+        JSONArray ja = new JSONArray();
+        for (int i = 0; i < tasks.size(); i += 1) {
+            ChunkTask task = tasks.get(i);
+            JSONArray rows;
+            try {
+                rows = task.join();
+            } catch (RuntimeException e) {
+                cancel(tasks, i + 1);
+                return from == 0 ? toJSONArray(names, string) : toJSONArray(string);
+            }
+            ja.putAll(rows);
+            if (task.stopped) {
+                // an empty row ends the text
+                cancel(tasks, i + 1);
+                break;
+            }
+        }
+        if (ja.length() == 0) {
+            return null;
+        }
+        return ja;
+    }
+
+    /**
+     * Find the next line break in a string.
+     * @param string The string to search.
+     * @param from The index to start the search at.
+     * @return The index of the next '\n' or '\r', or -1 if there is none.
+     */
+    private static int nextLineBreak(String string, int from) {
+        int length = string.length();
+        for (int i = from; i < length; i += 1) {
+            char c = string.charAt(i);
+            if (c == '\n' || c == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Cancel the tasks that have not been joined.
+     * @param tasks The tasks.
+     * @param from The index of the first task to cancel.
+     */
+    private static void cancel(List<? extends ForkJoinTask<?>> tasks, int from) {
+        for (int i = from; i < tasks.size(); i += 1) {
+            tasks.get(i).cancel(false);
+        }
+    }
+
+
+
     /**
      * Produce a comma delimited text from a JSONArray of JSONObjects. The
      * first row will be a list of names obtained by inspecting the first
@@ -276,12 +596,201 @@ public class CDL {
             return null;
         }
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < ja.length(); i += 1) {
-            JSONObject jo = ja.optJSONObject(i);
-            if (jo != null) {
-                sb.append(rowToString(jo.toJSONArray(names)));
+        try {
+            for (int i = 0; i < ja.length(); i += 1) {
+                JSONObject jo = ja.optJSONObject(i);
+                if (jo != null) {
+                    appendRow(names, jo, sb);
+                }
             }
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new JSONException(e);
         }
         return sb.toString();
     }
+
+    /**
+     * Write comma delimited text from a JSONArray of JSONObjects to a
+     * writer. The first row will be a list of names obtained by inspecting
+     * the first JSONObject. Each row is written as it is made, so the text
+     * is never held in memory. The text written is the same as that
+     * returned by {@link #toString(JSONArray)}; nothing is written when that
+     * would return null.
+     * @param ja A JSONArray of JSONObjects.
+     * @param writer The writer to receive the comma delimited text.
+     * @return The writer.
+     * @throws JSONException if a called function fails or the writer fails
+     */
+    public static Writer write(JSONArray ja, Writer writer) throws JSONException {
+        JSONObject jo = ja.optJSONObject(0);
+        if (jo != null) {
+            JSONArray names = jo.names();
+            if (names != null) {
+                try {
+                    appendRow(names, writer);
+                } catch (IOException e) {
+                    throw new JSONException(e);
+                }
+                return write(names, ja, writer);
+            }
+        }
+        return writer;
+    }
+
+    /**
+     * Write comma delimited text from rows of JSONObjects to a writer using
+     * a provided list of names. The list of names is not included in the
+     * output, and rows that are not JSONObjects are skipped. Each row is
+     * written as it is made, so only one row is held in memory at a time.
+     * Writing a JSONArray writes the same text as that returned by
+     * {@link #toString(JSONArray, JSONArray)}; nothing is written when that
+     * would return null.
+     * @param names A JSONArray of strings.
+     * @param rows The rows, such as a JSONArray of JSONObjects.
+     * @param writer The writer to receive the comma delimited text.
+     * @return The writer.
+     * @throws JSONException if a called function fails or the writer fails
+     */
+    public static Writer write(JSONArray names, Iterable<?> rows, Writer writer)
+            throws JSONException {
+        if (names == null || names.length() == 0) {
+            return writer;
+        }
+        try {
+            for (Object row : rows) {
+                if (row instanceof JSONObject) {
+                    appendRow(names, (JSONObject) row, writer);
+                }
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return writer;
+    }
+
+    /**
+     * Parses the rows of one chunk of comma delimited text.
+     */
+    private static final class ChunkTask extends RecursiveTask<JSONArray> {
+        private static final long serialVersionUID = 1L;
+
+        /** The names of the elements. */
+        private final JSONArray names;
+
+        /** The text of the chunk, which ends after a line break. */
+        private final String text;
+
+        /** Whether the chunk holds an empty row, which ends the text. */
+        boolean stopped;
+
+        ChunkTask(JSONArray names, String text) {
+            this.names = names;
+            this.text = text;
+        }
+
+        @Override
+        protected JSONArray compute() {
+            JSONTokener x = new JSONTokener(this.text);
+            JSONArray rows = new JSONArray();
+            for (;;) {
+                JSONObject jo = rowToJSONObject(this.names, x);
+                if (jo == null) {
+                    this.stopped = !x.end();
+                    return rows;
+                }
+                rows.put(jo);
+            }
+        }
+    }
+
+    /**
+     * Parses the rows of a line of comma delimited text for
+     * {@link JSONLinesIterator}. A row never continues past a line break, so
+     * each line can be parsed on its own.
+     */
+    private static final class LineParser implements JSONLinesIterator.LineParser {
+
+        /** The names of the elements, or null to return JSONArrays. */
+        private final JSONArray names;
+
+        LineParser(JSONArray names) {
+            this.names = names;
+        }
+
+        @Override
+        public boolean parse(char[] b, int start, int end, boolean lineBreak, long line,
+                List<Object> values) {
+            try {
+                // the tokener sees the line break too, as it does in the whole text
+                JSONTokener x = new JSONTokener(b, start, lineBreak ? end + 1 : end,
+                        JSONParserConfiguration.ORIGINAL);
+                while (!x.endOfInput()) {
+                    JSONArray row = rowToJSONArray(x);
+                    if (row == null) {
+                        // an empty row, or a '\0' at the start of a value,
+                        // ends the text
+                        return false;
+                    }
+                    values.add(this.names == null ? row : row.toJSONObject(this.names));
+                }
+                return true;
+            } catch (JSONException e) {
+                throw new JSONException("Invalid row on line " + line + ": "
+                        + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Iterates the rows of comma delimited text, reading each row when it is
+     * requested.
+     * @param <T> JSONArray for rows of strings, or JSONObject for rows
+     *  combined with names.
+     */
+    private static final class RowIterator<T> implements Iterator<T> {
+
+        /** The names of the elements, or null to return JSONArrays. */
+        private final JSONArray names;
+
+        /** The source, or null once the rows have ended. */
+        private JSONTokener x;
+
+        /** The next row, or null if it has not been read. */
+        private Object next;
+
+        RowIterator(JSONArray names, JSONTokener x) {
+            this.names = names;
+            this.x = x;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null && this.x != null) {
+                JSONArray row = rowToJSONArray(this.x);
+                if (row == null) {
+                    this.x = null;
+                } else {
+                    this.next = this.names == null ? row : row.toJSONObject(this.names);
+                }
+            }
+            return this.next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object row = this.next;
+            this.next = null;
+            return (T) row;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
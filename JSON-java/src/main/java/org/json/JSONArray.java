@@ -25,7 +25,8 @@ package org.json;
  */
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
@@ -35,6 +36,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -84,15 +86,16 @@ import java.util.Map;
 public class JSONArray implements Iterable<Object> {
 
     /**
-     * The arrayList where the JSONArray's properties are kept.
+     * The list where the JSONArray's properties are kept. It keeps arrays of
+     * Integers, Longs or Doubles in primitive arrays.
      */
-    private final ArrayList<Object> myArrayList;
+    private final JSONArrayList myArrayList;
 
     /**
      * Construct an empty JSONArray.
      */
     public JSONArray() {
-        this.myArrayList = new ArrayList<Object>();
+        this.myArrayList = new JSONArrayList();
     }
 
     /**
@@ -108,34 +111,7 @@ public class JSONArray implements Iterable<Object> {
         if (x.nextClean() != '[') {
             throw x.syntaxError("A JSONArray text must start with '['");
         }
-
-        if (x.nextClean() != ']') {
-            x.back();
-            for (;;) {
-                if (x.nextClean() == ',') {
-                    x.back();
-                    this.myArrayList.add(JSONObject.NULL);
-                } else {
-                    x.back();
-                    this.myArrayList.add(x.nextValue());
-                }
-                switch (x.nextClean()) {
-                case 0:
-                    // array is unclosed. No ']' found, instead EOF
-                    throw x.syntaxError("Expected a ',' or ']'");
-                case ',':
-                    if (x.nextClean() == ']') {
-                        return;
-                    }
-                    x.back();
-                    break;
-                case ']':
-                    return;
-                default:
-                    throw x.syntaxError("Expected a ',' or ']'");
-                }
-            }
-        }
+        new JSONReader(x, false).readInto(this);
     }
 
     /**
@@ -152,6 +128,43 @@ public class JSONArray implements Iterable<Object> {
         this(new JSONTokener(source));
     }
 
+    /**
+     * Construct a JSONArray from a large JSON array text, parsing runs of its
+     * elements concurrently on a pool. The elements are the same as those
+     * read by {@link #JSONArray(JSONTokener)}. The reader is read up to the
+     * closing bracket and is not closed.
+     *
+     * @param reader
+     *            A reader of a text that begins with <code>[</code>.
+     * @param pool
+     *            The pool to parse on.
+     * @throws JSONException
+     *             If there is a syntax error or the reader cannot be read.
+     */
+    public JSONArray(Reader reader, ForkJoinPool pool) throws JSONException {
+        this(reader, JSONParserConfiguration.ORIGINAL, pool);
+    }
+
+    /**
+     * Construct a JSONArray from a large JSON array text, parsing runs of its
+     * elements concurrently on a pool.
+     *
+     * @param reader
+     *            A reader of a text that begins with <code>[</code>.
+     * @param config
+     *            The parser configuration.
+     * @param pool
+     *            The pool to parse on.
+     * @throws JSONException
+     *             If there is a syntax error or the reader cannot be read.
+     * @see #JSONArray(Reader, ForkJoinPool)
+     */
+    public JSONArray(Reader reader, JSONParserConfiguration config, ForkJoinPool pool)
+            throws JSONException {
+        this();
+        JSONParallelReader.read(this, reader, config, pool);
+    }
+
     /**
      * Construct a JSONArray from a Collection.
      *
@@ -160,9 +173,9 @@ public class JSONArray implements Iterable<Object> {
      */
     public JSONArray(Collection<?> collection) {
         if (collection == null) {
-            this.myArrayList = new ArrayList<Object>();
+            this.myArrayList = new JSONArrayList();
         } else {
-            this.myArrayList = new ArrayList<Object>(collection.size());
+            this.myArrayList = new JSONArrayList(collection.size());
             this.addAll(collection, true);
         }
     }
@@ -189,11 +202,11 @@ public class JSONArray implements Iterable<Object> {
      */
     public JSONArray(JSONArray array) {
         if (array == null) {
-            this.myArrayList = new ArrayList<Object>();
+            this.myArrayList = new JSONArrayList();
         } else {
             // shallow copy directly the internal array lists as any wrapping
             // should have been done already in the original JSONArray
-            this.myArrayList = new ArrayList<Object>(array.myArrayList);
+            this.myArrayList = new JSONArrayList(array.myArrayList);
         }
     }
 
@@ -231,7 +244,7 @@ public class JSONArray implements Iterable<Object> {
             throw new JSONException(
                     "JSONArray initial capacity cannot be negative.");
     	}
-    	this.myArrayList = new ArrayList<Object>(initialCapacity);
+    	this.myArrayList = new JSONArrayList(initialCapacity);
     }
 
     @Override
@@ -292,6 +305,9 @@ public class JSONArray implements Iterable<Object> {
      *             to a number.
      */
     public double getDouble(int index) throws JSONException {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getDouble(index);
+        }
         final Object object = this.get(index);
         if(object instanceof Number) {
             return ((Number)object).doubleValue();
@@ -316,7 +332,7 @@ public class JSONArray implements Iterable<Object> {
     public float getFloat(int index) throws JSONException {
         final Object object = this.get(index);
         if(object instanceof Number) {
-            return ((Float)object).floatValue();
+            return ((Number)object).floatValue();
         }
         try {
             return Float.parseFloat(object.toString());
@@ -424,6 +440,9 @@ public class JSONArray implements Iterable<Object> {
      *             If the key is not found or if the value is not a number.
      */
     public int getInt(int index) throws JSONException {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getInt(index);
+        }
         final Object object = this.get(index);
         if(object instanceof Number) {
             return ((Number)object).intValue();
@@ -482,6 +501,9 @@ public class JSONArray implements Iterable<Object> {
      *             to a number.
      */
     public long getLong(int index) throws JSONException {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getLong(index);
+        }
         final Object object = this.get(index);
         if(object instanceof Number) {
             return ((Number)object).longValue();
@@ -577,6 +599,18 @@ public class JSONArray implements Iterable<Object> {
                 .get(index);
     }
 
+    /**
+     * Get an element as it is stored, which may be a placeholder for a value
+     * that has not been parsed yet.
+     *
+     * @param index
+     *            The index must be between 0 and length() - 1.
+     * @return The element.
+     */
+    Object peek(int index) {
+        return this.myArrayList.peek(index);
+    }
+
     /**
      * Get the optional boolean value associated with an index. It returns false
      * if there is no value at that index, or if the value is not Boolean.TRUE
@@ -634,6 +668,9 @@ public class JSONArray implements Iterable<Object> {
      * @return The value.
      */
     public double optDouble(int index, double defaultValue) {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getDouble(index);
+        }
         final Number val = this.optNumber(index, null);
         if (val == null) {
             return defaultValue;
@@ -706,6 +743,9 @@ public class JSONArray implements Iterable<Object> {
      * @return The value.
      */
     public int optInt(int index, int defaultValue) {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getInt(index);
+        }
         final Number val = this.optNumber(index, null);
         if (val == null) {
             return defaultValue;
@@ -849,6 +889,9 @@ public class JSONArray implements Iterable<Object> {
      * @return The value.
      */
     public long optLong(int index, long defaultValue) {
+        if (this.myArrayList.isNumeric() && index >= 0 && index < this.length()) {
+            return this.myArrayList.getLong(index);
+        }
         final Number val = this.optNumber(index, null);
         if (val == null) {
             return defaultValue;
@@ -1340,6 +1383,31 @@ public class JSONArray implements Iterable<Object> {
             : null;
     }
 
+    /**
+     * Get a hash of the contents of this JSONArray that agrees with
+     * {@link #similar(Object)}: similar JSONArrays have the same similarity
+     * hash, so JSONArrays with different hashes are not similar.
+     * <p>
+     * The hash is kept until this JSONArray, or a JSONObject or JSONArray
+     * nested in it, is changed. While the hash is kept, similar rejects a
+     * JSONArray with a different hash without comparing the contents.
+     *
+     * @return The similarity hash.
+     * @throws JSONException
+     *             If a value that was parsed lazily is not valid JSON.
+     */
+    public int similarityHash() {
+        return JSONFingerprint.of(this.myArrayList).hash;
+    }
+
+    /**
+     * Get the fingerprint behind {@link #similarityHash()}.
+     * @return The fingerprint.
+     */
+    JSONFingerprint fingerprint() {
+        return JSONFingerprint.of(this.myArrayList);
+    }
+
     /**
      * Determine if two JSONArrays are similar.
      * They must contain similar sequences.
@@ -1355,6 +1423,9 @@ public class JSONArray implements Iterable<Object> {
         if (len != ((JSONArray)other).length()) {
             return false;
         }
+        if (JSONFingerprint.differ(this.myArrayList, ((JSONArray)other).myArrayList)) {
+            return false;
+        }
         for (int i = 0; i < len; i += 1) {
             Object valueThis = this.myArrayList.get(i);
             Object valueOther = ((JSONArray)other).myArrayList.get(i);
@@ -1455,12 +1526,53 @@ public class JSONArray implements Iterable<Object> {
      * @throws JSONException if a called function fails
      */
     public String toString(int indentFactor) throws JSONException {
-        StringWriter sw = new StringWriter();
-        synchronized (sw.getBuffer()) {
+        // the buffer of the thread is reused, and only grows for the
+        // largest text written so far
+        StringBuilderWriter sw = StringBuilderWriter.acquire(16 + 8 * this.length());
+        try {
             return this.write(sw, indentFactor, 0).toString();
+        } finally {
+            sw.release();
         }
     }
 
+    /**
+     * Append the JSON text of this JSONArray to a StringBuilder, as made by
+     * {@link #toString()}. For compactness, no whitespace is added. Unlike
+     * toString, the text is not copied into a new String, so a builder can be
+     * reused for many texts.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param sb
+     *            The StringBuilder that receives the text.
+     * @return The StringBuilder.
+     * @throws JSONException if a called function fails
+     */
+    public StringBuilder toString(StringBuilder sb) throws JSONException {
+        return this.toString(sb, 0);
+    }
+
+    /**
+     * Append the pretty-printed JSON text of this JSONArray to a
+     * StringBuilder, as made by {@link #toString(int)}.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param sb
+     *            The StringBuilder that receives the text.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @return The StringBuilder.
+     * @throws JSONException if a called function fails
+     */
+    public StringBuilder toString(StringBuilder sb, int indentFactor) throws JSONException {
+        this.write(new StringBuilderWriter(sb), indentFactor, 0);
+        return sb;
+    }
+
     /**
      * Write the contents of the JSONArray as JSON text to a writer. For
      * compactness, no whitespace is added.
@@ -1512,7 +1624,7 @@ public class JSONArray implements Iterable<Object> {
 
             if (length == 1) {
                 try {
-                    JSONObject.writeValue(writer, this.myArrayList.get(0),
+                    JSONObject.writeValue(writer, this.myArrayList.peek(0),
                             indentFactor, indent);
                 } catch (Exception e) {
                     throw new JSONException("Unable to write JSONArray value at index: 0", e);
@@ -1529,7 +1641,7 @@ public class JSONArray implements Iterable<Object> {
                     }
                     JSONObject.indent(writer, newIndent);
                     try {
-                        JSONObject.writeValue(writer, this.myArrayList.get(i),
+                        JSONObject.writeValue(writer, this.myArrayList.peek(i),
                                 indentFactor, newIndent);
                     } catch (Exception e) {
                         throw new JSONException("Unable to write JSONArray value at index: " + i, e);
@@ -1548,6 +1660,80 @@ public class JSONArray implements Iterable<Object> {
         }
     }
 
+    /**
+     * Write the contents of the JSONArray as JSON text to a writer, as by
+     * {@link #write(Writer, int, int)}, serializing large parts of it
+     * concurrently. The elements of the array, and those of nested objects and arrays that
+     * are large, are split into chunks that are serialized into separate
+     * buffers on the pool, and the buffers are written to the writer in
+     * order, so the text is the same as the sequential one. A small JSONArray
+     * is written sequentially. Only the calling thread or a single pool
+     * thread writes to the writer at any time.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical, and
+     * that it is not changed while it is written.
+     * </b>
+     *
+     * @param writer
+     *            Writes the serialized JSON
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param pool
+     *            The pool that serializes the chunks.
+     * @return The writer.
+     * @throws JSONException if a value cannot be written or a write error
+     * occurs
+     * @throws NullPointerException if the pool is null
+     */
+    public Writer write(Writer writer, int indentFactor, ForkJoinPool pool)
+            throws JSONException {
+        return JSONParallelWriter.write(this, writer, indentFactor, pool);
+    }
+
+    /**
+     * Write the contents of the JSONArray as UTF-8 encoded JSON text to a stream.
+     * For compactness, no whitespace is added. The text is encoded straight
+     * into a byte buffer; the stream is flushed but not closed.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     * @param out the output stream
+     * @return The stream.
+     * @throws JSONException if a called function fails or unable to write
+     */
+    public OutputStream write(OutputStream out) throws JSONException {
+        return this.write(out, 0, 0);
+    }
+
+    /**
+     * Write the contents of the JSONArray as UTF-8 encoded JSON text to a stream,
+     * formatted as by {@link #write(Writer, int, int)}. The text is encoded
+     * straight into a byte buffer; the stream is flushed but not closed.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param out
+     *            Receives the serialized JSON
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the top level.
+     * @return The stream.
+     * @throws JSONException if a called function fails or unable to write
+     */
+    public OutputStream write(OutputStream out, int indentFactor, int indent)
+            throws JSONException {
+        UTF8Writer writer = new UTF8Writer(out);
+        this.write(writer, indentFactor, indent);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return out;
+    }
+
     /**
      * Returns a java.util.List containing all of the elements in this array.
      * If an element in the array is a JSONArray or JSONObject it will also
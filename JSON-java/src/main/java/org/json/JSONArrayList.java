@@ -0,0 +1,479 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The list that backs a {@link JSONArray}. While every element is an Integer,
+ * every element is a Long, or every element is a Double, the values are kept
+ * in an int[], long[] or double[], so a large numeric array holds no boxed
+ * numbers and can be read with {@link #getInt}, {@link #getLong} and
+ * {@link #getDouble} without boxing. The first element of another type moves
+ * the list to an Object[] for good.
+ * <p>
+ * {@link #get} boxes a primitive element again, so it returns an Object equal
+ * to, and of the same class as, the one that was added. It also parses a
+ * {@link JSONLazyValue} placeholder and stores the result; only
+ * {@link #peek} returns placeholders. The list is not thread safe for
+ * changes; replacing a placeholder is safe under concurrent reads, as it is
+ * in {@link JSONObjectMap}.
+ * <p>
+ * Arrays built with put(int), put(long) and put(double) get a primitive
+ * representation. Of parsed text, only arrays of integers benefit: integers
+ * that all fit in an int are kept in an int[], and integers that all need a
+ * long in a long[]. An array that mixes the two is generic. The parser
+ * produces BigDecimals for decimals, so an array of decimals is generic too,
+ * unless the parser is configured with
+ * {@link JSONParserConfiguration#withDecimalsAsDouble(boolean)}; then
+ * decimals are Doubles, and an array of them is kept in a double[].
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONArrayList extends AbstractList<Object> implements RandomAccess {
+
+    /** The kind of an empty list that has not picked a representation yet. */
+    private static final int UNDECIDED = -1;
+
+    /** The elements are in objects. */
+    private static final int GENERIC = 0;
+
+    /** The elements are Integers, kept in ints. */
+    private static final int INT = 1;
+
+    /** The elements are Longs, kept in longs. */
+    private static final int LONG = 2;
+
+    /** The elements are Doubles, kept in doubles. */
+    private static final int DOUBLE = 3;
+
+    /** The capacity used when none was given. */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** The representation of the elements. */
+    private int kind;
+
+    /** The number of elements. */
+    private int size;
+
+    /** The capacity to allocate once the representation is picked. */
+    private int initialCapacity;
+
+    /** The elements if the kind is GENERIC. */
+    private Object[] objects;
+
+    /** The elements if the kind is INT. */
+    private int[] ints;
+
+    /** The elements if the kind is LONG. */
+    private long[] longs;
+
+    /** The elements if the kind is DOUBLE. */
+    private double[] doubles;
+
+    /** The similarity hash of the array, or null if it has none. */
+    volatile JSONFingerprint fingerprint;
+
+    /**
+     * Construct an empty list.
+     */
+    JSONArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Construct an empty list with an initial capacity.
+     * @param initialCapacity The initial capacity.
+     */
+    JSONArrayList(int initialCapacity) {
+        this.kind = UNDECIDED;
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Construct a copy of another list, in the same representation.
+     * @param list The list to copy.
+     */
+    JSONArrayList(JSONArrayList list) {
+        this.kind = list.kind;
+        this.size = list.size;
+        this.initialCapacity = Math.max(list.size, DEFAULT_CAPACITY);
+        int length = this.initialCapacity;
+        switch (list.kind) {
+        case GENERIC:
+            this.objects = Arrays.copyOf(list.objects, length);
+            break;
+        case INT:
+            this.ints = Arrays.copyOf(list.ints, length);
+            break;
+        case LONG:
+            this.longs = Arrays.copyOf(list.longs, length);
+            break;
+        case DOUBLE:
+            this.doubles = Arrays.copyOf(list.doubles, length);
+            break;
+        default:
+        }
+    }
+
+    /**
+     * Get the kind that can hold a value.
+     */
+    private static int kindOf(Object value) {
+        if (value instanceof Integer) {
+            return INT;
+        }
+        if (value instanceof Long) {
+            return LONG;
+        }
+        if (value instanceof Double) {
+            return DOUBLE;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Make sure the current representation can hold a value.
+     */
+    private void accept(Object value) {
+        if (this.kind == GENERIC) {
+            return;
+        }
+        int k = kindOf(value);
+        if (this.kind == UNDECIDED) {
+            this.kind = k;
+            int length = Math.max(this.initialCapacity, 1);
+            switch (k) {
+            case INT:
+                this.ints = new int[length];
+                break;
+            case LONG:
+                this.longs = new long[length];
+                break;
+            case DOUBLE:
+                this.doubles = new double[length];
+                break;
+            default:
+                this.objects = new Object[length];
+            }
+        } else if (k != this.kind) {
+            this.toGeneric();
+        }
+    }
+
+    /**
+     * Move the elements to objects.
+     */
+    private void toGeneric() {
+        Object[] o = new Object[Math.max(this.capacity(), DEFAULT_CAPACITY)];
+        for (int i = 0; i < this.size; i += 1) {
+            o[i] = this.get(i);
+        }
+        this.objects = o;
+        this.ints = null;
+        this.longs = null;
+        this.doubles = null;
+        this.kind = GENERIC;
+    }
+
+    /**
+     * Get the length of the current array.
+     */
+    private int capacity() {
+        switch (this.kind) {
+        case GENERIC:
+            return this.objects.length;
+        case INT:
+            return this.ints.length;
+        case LONG:
+            return this.longs.length;
+        case DOUBLE:
+            return this.doubles.length;
+        default:
+            return this.initialCapacity;
+        }
+    }
+
+    /**
+     * Make sure the list can hold a number of elements without growing.
+     * @param minCapacity The number of elements.
+     */
+    void ensureCapacity(int minCapacity) {
+        int capacity = this.capacity();
+        if (minCapacity <= capacity) {
+            return;
+        }
+        int length = Math.max(minCapacity, capacity + (capacity >> 1) + 1);
+        switch (this.kind) {
+        case GENERIC:
+            this.objects = Arrays.copyOf(this.objects, length);
+            break;
+        case INT:
+            this.ints = Arrays.copyOf(this.ints, length);
+            break;
+        case LONG:
+            this.longs = Arrays.copyOf(this.longs, length);
+            break;
+        case DOUBLE:
+            this.doubles = Arrays.copyOf(this.doubles, length);
+            break;
+        default:
+            this.initialCapacity = minCapacity;
+        }
+    }
+
+    /**
+     * Store a value in a slot. The representation must be able to hold it.
+     */
+    private void store(int index, Object value) {
+        switch (this.kind) {
+        case INT:
+            this.ints[index] = ((Integer) value).intValue();
+            break;
+        case LONG:
+            this.longs[index] = ((Long) value).longValue();
+            break;
+        case DOUBLE:
+            this.doubles[index] = ((Double) value).doubleValue();
+            break;
+        default:
+            this.objects[index] = value;
+        }
+    }
+
+    /**
+     * Move the elements from an index on by a number of slots.
+     */
+    private void shift(int index, int distance) {
+        Object array;
+        switch (this.kind) {
+        case INT:
+            array = this.ints;
+            break;
+        case LONG:
+            array = this.longs;
+            break;
+        case DOUBLE:
+            array = this.doubles;
+            break;
+        default:
+            array = this.objects;
+        }
+        System.arraycopy(array, index, array, index + distance,
+                this.size - index);
+    }
+
+    private void rangeCheck(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Object get(int index) {
+        this.rangeCheck(index);
+        switch (this.kind) {
+        case INT:
+            return Integer.valueOf(this.ints[index]);
+        case LONG:
+            return Long.valueOf(this.longs[index]);
+        case DOUBLE:
+            return Double.valueOf(this.doubles[index]);
+        default:
+            Object value = this.objects[index];
+            if (value instanceof JSONLazyValue) {
+                value = ((JSONLazyValue) value).get();
+                this.objects[index] = value;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Get an element as it is stored, which may be a {@link JSONLazyValue}
+     * placeholder that has not been read.
+     * @param index The index.
+     * @return The element.
+     */
+    Object peek(int index) {
+        if (this.kind == GENERIC) {
+            this.rangeCheck(index);
+            return this.objects[index];
+        }
+        return this.get(index);
+    }
+
+    /**
+     * Determine if the elements are kept in a primitive array, so that
+     * {@link #getInt}, {@link #getLong} and {@link #getDouble} can be used.
+     * @return true if every element is an Integer, every element is a Long,
+     *         or every element is a Double.
+     */
+    boolean isNumeric() {
+        return this.kind == INT || this.kind == LONG || this.kind == DOUBLE;
+    }
+
+    /**
+     * Get an element of a numeric list as an int, as by Number.intValue.
+     * @param index The index, which must be in range.
+     * @return The value.
+     */
+    int getInt(int index) {
+        this.rangeCheck(index);
+        switch (this.kind) {
+        case INT:
+            return this.ints[index];
+        case LONG:
+            return (int) this.longs[index];
+        default:
+            return (int) this.doubles[index];
+        }
+    }
+
+    /**
+     * Get an element of a numeric list as a long, as by Number.longValue.
+     * @param index The index, which must be in range.
+     * @return The value.
+     */
+    long getLong(int index) {
+        this.rangeCheck(index);
+        switch (this.kind) {
+        case INT:
+            return this.ints[index];
+        case LONG:
+            return this.longs[index];
+        default:
+            return (long) this.doubles[index];
+        }
+    }
+
+    /**
+     * Get an element of a numeric list as a double, as by Number.doubleValue.
+     * @param index The index, which must be in range.
+     * @return The value.
+     */
+    double getDouble(int index) {
+        this.rangeCheck(index);
+        switch (this.kind) {
+        case INT:
+            return this.ints[index];
+        case LONG:
+            return this.longs[index];
+        default:
+            return this.doubles[index];
+        }
+    }
+
+    @Override
+    public Object set(int index, Object element) {
+        Object old = this.get(index);
+        this.accept(element);
+        this.store(index, element);
+        this.modified();
+        return old;
+    }
+
+    @Override
+    public boolean add(Object element) {
+        this.accept(element);
+        this.ensureCapacity(this.size + 1);
+        this.store(this.size, element);
+        this.size += 1;
+        this.modCount += 1;
+        this.modified();
+        return true;
+    }
+
+    @Override
+    public void add(int index, Object element) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+        this.accept(element);
+        this.ensureCapacity(this.size + 1);
+        this.shift(index, 1);
+        this.store(index, element);
+        this.size += 1;
+        this.modCount += 1;
+        this.modified();
+    }
+
+    @Override
+    public boolean addAll(Collection<?> c) {
+        // copy first, in case the collection is this list
+        Object[] elements = c.toArray();
+        this.ensureCapacity(this.size + elements.length);
+        for (Object element : elements) {
+            this.add(element);
+        }
+        return elements.length != 0;
+    }
+
+    @Override
+    public Object remove(int index) {
+        Object old = this.get(index);
+        this.shift(index + 1, -1);
+        this.size -= 1;
+        if (this.kind == GENERIC) {
+            this.objects[this.size] = null;
+        }
+        this.modCount += 1;
+        this.modified();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        this.objects = null;
+        this.ints = null;
+        this.longs = null;
+        this.doubles = null;
+        this.kind = UNDECIDED;
+        this.initialCapacity = DEFAULT_CAPACITY;
+        this.size = 0;
+        this.modCount += 1;
+        this.modified();
+    }
+
+    /**
+     * Drop the fingerprint after a change. If the array had one, nested in
+     * the fingerprint of its parents, those are dropped too.
+     */
+    private void modified() {
+        JSONFingerprint f = this.fingerprint;
+        if (f != null) {
+            this.fingerprint = null;
+            f.invalidate();
+        }
+    }
+}
@@ -0,0 +1,743 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The writable properties of a class, as used by
+ * {@link JSONObject#toBean(Class)}: the setters and public fields that receive
+ * the values of the members of a JSONObject, by key name. The class is
+ * examined once and the result is cached, as for {@link JSONBeanInfo}.
+ * <p>
+ * A setter is a public method named <code>setX</code> that takes one
+ * parameter, and its key name follows the same rules as the key name of a
+ * getter, including the {@link JSONPropertyIgnore} and
+ * {@link JSONPropertyName} annotations. A public field that is neither static
+ * nor final is a property too, unless a setter has the same key name. Members
+ * that have no property are ignored.
+ * <p>
+ * A value is converted to the declared type of its property: numbers to the
+ * numeric types, strings to numbers, characters and enum constants, and
+ * JSONObjects and JSONArrays to nested beans, maps, collections, and arrays,
+ * whose element types are taken from the generic declaration. A null value
+ * leaves a primitive property unchanged.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONBeanBinder {
+
+    /** The cached properties, by class. */
+    private static final ClassValue<JSONBeanBinder> CACHE = new ClassValue<JSONBeanBinder>() {
+        @Override
+        protected JSONBeanBinder computeValue(Class<?> klass) {
+            return new JSONBeanBinder(klass);
+        }
+    };
+
+    /** The result of converting a null value for a primitive property. */
+    private static final Object UNCHANGED = new Object();
+
+    /** The class of the beans. */
+    private final Class<?> klass;
+
+    /** The no argument constructor, or null if the class has none. */
+    private final Constructor<?> constructor;
+
+    /** The properties, by key name. */
+    private final Map<String, Property> properties;
+
+    /**
+     * Examine a class for writable properties.
+     *
+     * @param klass
+     *            The class of a bean.
+     */
+    private JSONBeanBinder(Class<?> klass) {
+        this.klass = klass;
+        Constructor<?> c;
+        try {
+            c = klass.getDeclaredConstructor();
+            if (!Modifier.isPublic(c.getModifiers())
+                    || !Modifier.isPublic(klass.getModifiers())) {
+                c.setAccessible(true);
+            }
+        } catch (NoSuchMethodException e) {
+            c = null;
+        } catch (SecurityException e) {
+            c = null;
+        }
+        this.constructor = c;
+        this.properties = new HashMap<String, Property>();
+        for (final Method method : klass.getMethods()) {
+            final int modifiers = method.getModifiers();
+            if (!Modifier.isStatic(modifiers)
+                    && method.getParameterTypes().length == 1
+                    && !method.isBridge()) {
+                final String key = JSONBeanInfo.getKeyName(method, "set");
+                if (key != null && !key.isEmpty()) {
+                    this.properties.put(key, new Property(method));
+                }
+            }
+        }
+        for (final Field field : klass.getFields()) {
+            final int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)
+                    || field.isAnnotationPresent(JSONPropertyIgnore.class)) {
+                continue;
+            }
+            String key = field.getName();
+            JSONPropertyName annotation = field.getAnnotation(JSONPropertyName.class);
+            if (annotation != null && annotation.value() != null && !annotation.value().isEmpty()) {
+                key = annotation.value();
+            }
+            if (!this.properties.containsKey(key)) {
+                this.properties.put(key, new Property(field));
+            }
+        }
+    }
+
+    /**
+     * Get the writable properties of a class, examining the class on first
+     * use.
+     *
+     * @param klass
+     *            The class of a bean.
+     * @return The properties.
+     */
+    static JSONBeanBinder forClass(Class<?> klass) {
+        return CACHE.get(klass);
+    }
+
+    /**
+     * Make a bean from the members of a JSONObject.
+     *
+     * @param jo
+     *            A JSONObject.
+     * @return A new instance of the class.
+     * @throws JSONException
+     *             If the class cannot be instantiated, if a value cannot be
+     *             converted, or if a setter throws.
+     */
+    Object toBean(JSONObject jo) throws JSONException {
+        Object bean = this.newInstance();
+        for (Map.Entry<String, Object> entry : jo.entrySet()) {
+            Property property = this.properties.get(entry.getKey());
+            if (property != null) {
+                property.set(bean, entry.getKey(),
+                        convert(entry.getValue(), property.type, property.genericType, entry.getKey()));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Make a bean from the members of the object whose START_OBJECT event
+     * was just read, up to and including its END_OBJECT event. Nested
+     * objects and arrays are read directly into the values of the properties,
+     * and the values of members that have no property are skipped, so no
+     * JSONObject is made unless a property is declared as one.
+     *
+     * @param reader
+     *            A JSONReader.
+     * @return A new instance of the class.
+     * @throws JSONException
+     *             If there is a syntax error, if the class cannot be
+     *             instantiated, if a value cannot be converted, or if a setter
+     *             throws.
+     */
+    Object read(JSONReader reader) throws JSONException {
+        Object bean = this.newInstance();
+        while (reader.next() == JSONReader.Event.KEY) {
+            String key = reader.getKey();
+            reader.next();
+            Property property = this.properties.get(key);
+            if (property == null) {
+                reader.skipChildren();
+            } else {
+                property.set(bean, key, read(reader, property.type, property.genericType, key));
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Make a new instance of the class.
+     *
+     * @return The instance.
+     * @throws JSONException
+     *             If the class cannot be instantiated.
+     */
+    private Object newInstance() throws JSONException {
+        if (this.constructor == null
+                || Modifier.isAbstract(this.klass.getModifiers())) {
+            throw new JSONException("Unable to instantiate " + this.klass.getName()
+                    + ": a concrete class with a no argument constructor is required.");
+        }
+        try {
+            return this.constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new JSONException("Unable to instantiate " + this.klass.getName(), e.getCause());
+        } catch (Exception e) {
+            throw new JSONException("Unable to instantiate " + this.klass.getName(), e);
+        }
+    }
+
+    /**
+     * Convert a value of a JSONObject or JSONArray to a type.
+     *
+     * @param value
+     *            The value.
+     * @param type
+     *            The class to convert to.
+     * @param genericType
+     *            The generic type to convert to, which gives the element
+     *            types of collections and maps.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return The converted value, or UNCHANGED for a null value of a
+     *         primitive type.
+     * @throws JSONException
+     *             If the value cannot be converted.
+     */
+    static Object convert(Object value, Class<?> type, Type genericType, String key)
+            throws JSONException {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            return type.isPrimitive() ? UNCHANGED : null;
+        }
+        if (value instanceof JSONArray) {
+            JSONArray ja = (JSONArray) value;
+            if (type.isArray()) {
+                Class<?> componentType = type.getComponentType();
+                Type genericComponentType = componentType;
+                if (genericType instanceof GenericArrayType) {
+                    genericComponentType = ((GenericArrayType) genericType).getGenericComponentType();
+                }
+                Object array = Array.newInstance(componentType, ja.length());
+                for (int i = 0; i < ja.length(); i += 1) {
+                    Object element = convert(ja.opt(i), componentType, genericComponentType, key);
+                    if (element != UNCHANGED) {
+                        Array.set(array, i, element);
+                    }
+                }
+                return array;
+            }
+            if (Collection.class.isAssignableFrom(type) && !type.isInstance(ja)) {
+                Type elementType = typeArgument(genericType, 0);
+                Class<?> elementClass = rawType(elementType);
+                Collection<Object> collection = newCollection(type, key);
+                for (int i = 0; i < ja.length(); i += 1) {
+                    collection.add(convert(ja.opt(i), elementClass, elementType, key));
+                }
+                return collection;
+            }
+        } else if (value instanceof JSONObject) {
+            JSONObject jo = (JSONObject) value;
+            if (Map.class.isAssignableFrom(type) && !type.isInstance(jo)) {
+                Type valueType = typeArgument(genericType, 1);
+                Class<?> valueClass = rawType(valueType);
+                Map<String, Object> map = newMap(type, key);
+                for (Map.Entry<String, Object> entry : jo.entrySet()) {
+                    map.put(entry.getKey(), convert(entry.getValue(), valueClass, valueType, key));
+                }
+                return map;
+            }
+            if (!type.isInstance(jo) && isBeanType(type)) {
+                return forClass(type).toBean(jo);
+            }
+        }
+        return convertSimple(value, type, key);
+    }
+
+    /**
+     * Read the value whose first event was just read and convert it to a
+     * type, reading objects and arrays directly into beans, maps,
+     * collections, and arrays.
+     *
+     * @param reader
+     *            A JSONReader.
+     * @param type
+     *            The class to convert to.
+     * @param genericType
+     *            The generic type to convert to.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return The converted value, or UNCHANGED for a null value of a
+     *         primitive type.
+     * @throws JSONException
+     *             If there is a syntax error or the value cannot be converted.
+     */
+    static Object read(JSONReader reader, Class<?> type, Type genericType, String key)
+            throws JSONException {
+        JSONReader.Event event = reader.getEvent();
+        if (event == JSONReader.Event.START_ARRAY
+                && (type.isArray() || Collection.class.isAssignableFrom(type))
+                && !type.isAssignableFrom(JSONArray.class)) {
+            Type elementType = type.isArray() ? type.getComponentType() : typeArgument(genericType, 0);
+            if (genericType instanceof GenericArrayType) {
+                elementType = ((GenericArrayType) genericType).getGenericComponentType();
+            }
+            Class<?> elementClass = type.isArray() ? type.getComponentType() : rawType(elementType);
+            Collection<Object> collection = type.isArray()
+                    ? new ArrayList<Object>() : newCollection(type, key);
+            while (reader.next() != JSONReader.Event.END_ARRAY) {
+                collection.add(read(reader, elementClass, elementType, key));
+            }
+            if (!type.isArray()) {
+                return collection;
+            }
+            Object array = Array.newInstance(elementClass, collection.size());
+            int i = 0;
+            for (Object element : collection) {
+                if (element != UNCHANGED) {
+                    Array.set(array, i, element);
+                }
+                i += 1;
+            }
+            return array;
+        }
+        if (event == JSONReader.Event.START_OBJECT
+                && !type.isAssignableFrom(JSONObject.class)) {
+            if (Map.class.isAssignableFrom(type)) {
+                Type valueType = typeArgument(genericType, 1);
+                Class<?> valueClass = rawType(valueType);
+                Map<String, Object> map = newMap(type, key);
+                while (reader.next() == JSONReader.Event.KEY) {
+                    String name = reader.getKey();
+                    reader.next();
+                    map.put(name, read(reader, valueClass, valueType, key));
+                }
+                return map;
+            }
+            if (isBeanType(type)) {
+                return forClass(type).read(reader);
+            }
+        }
+        return convert(reader.readValue(), type, genericType, key);
+    }
+
+    /**
+     * Convert a value that is not read into a container to a type.
+     *
+     * @param value
+     *            The value, not null.
+     * @param type
+     *            The class to convert to.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return The converted value.
+     * @throws JSONException
+     *             If the value cannot be converted.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object convertSimple(Object value, Class<?> type, String key)
+            throws JSONException {
+        Class<?> boxed = box(type);
+        if (boxed.isInstance(value)) {
+            return value;
+        }
+        try {
+            if (boxed == String.class) {
+                if (value instanceof Number || value instanceof Boolean
+                        || value instanceof Character) {
+                    return value.toString();
+                }
+            } else if (boxed == Boolean.class) {
+                if ("true".equalsIgnoreCase(value.toString())) {
+                    return Boolean.TRUE;
+                }
+                if ("false".equalsIgnoreCase(value.toString())) {
+                    return Boolean.FALSE;
+                }
+            } else if (boxed == Character.class) {
+                if (value instanceof String && ((String) value).length() == 1) {
+                    return Character.valueOf(((String) value).charAt(0));
+                }
+            } else if (boxed.isEnum()) {
+                if (value instanceof String) {
+                    return Enum.valueOf((Class<? extends Enum>) boxed, (String) value);
+                }
+            } else if (Number.class.isAssignableFrom(boxed)) {
+                Number number = null;
+                if (value instanceof Number) {
+                    number = (Number) value;
+                } else if (value instanceof String && !((String) value).isEmpty()) {
+                    number = JSONObject.stringToNumber((String) value);
+                }
+                if (number != null) {
+                    return convertNumber(number, boxed);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // includes NumberFormatException
+            throw wrongValueFormatException(key, type, value, e);
+        }
+        throw wrongValueFormatException(key, type, value, null);
+    }
+
+    /**
+     * Convert a number to a numeric class.
+     *
+     * @param number
+     *            The number.
+     * @param boxed
+     *            The class, a subclass of Number.
+     * @return The converted number.
+     * @throws IllegalArgumentException
+     *             If the class is not supported.
+     */
+    private static Object convertNumber(Number number, Class<?> boxed) {
+        if (boxed == Integer.class) {
+            return Integer.valueOf(number.intValue());
+        }
+        if (boxed == Long.class) {
+            return Long.valueOf(number.longValue());
+        }
+        if (boxed == Double.class) {
+            return Double.valueOf(number.doubleValue());
+        }
+        if (boxed == Float.class) {
+            return Float.valueOf(number.floatValue());
+        }
+        if (boxed == Short.class) {
+            return Short.valueOf(number.shortValue());
+        }
+        if (boxed == Byte.class) {
+            return Byte.valueOf(number.byteValue());
+        }
+        if (boxed == BigDecimal.class || boxed == BigInteger.class) {
+            BigDecimal decimal = JSONObject.objectToBigDecimal(number, null, false);
+            if (decimal != null) {
+                return boxed == BigDecimal.class ? decimal : decimal.toBigInteger();
+            }
+        } else if (boxed == Number.class) {
+            return number;
+        }
+        throw new IllegalArgumentException("Unsupported number class " + boxed.getName());
+    }
+
+    /**
+     * Determine if JSONObjects are converted to a class through its
+     * properties.
+     *
+     * @param type
+     *            The class.
+     * @return true unless the class is primitive, an array, an interface, or
+     *         a class of the Java platform.
+     */
+    private static boolean isBeanType(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isInterface()
+                || type.isEnum() || type.getClassLoader() == null) {
+            return false;
+        }
+        String name = type.getName();
+        return !name.startsWith("java.") && !name.startsWith("javax.");
+    }
+
+    /**
+     * Make a collection for a collection type.
+     *
+     * @param type
+     *            The class of the collection, which may be an interface.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return A new empty collection.
+     * @throws JSONException
+     *             If the class cannot be instantiated.
+     */
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> newCollection(Class<?> type, String key)
+            throws JSONException {
+        if (type.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<Object>();
+        }
+        if (type.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<Object>();
+        }
+        if (type.isAssignableFrom(TreeSet.class)) {
+            return new TreeSet<Object>();
+        }
+        return (Collection<Object>) newContainer(type, key);
+    }
+
+    /**
+     * Make a map for a map type.
+     *
+     * @param type
+     *            The class of the map, which may be an interface.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return A new empty map.
+     * @throws JSONException
+     *             If the class cannot be instantiated.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> newMap(Class<?> type, String key)
+            throws JSONException {
+        if (type.isAssignableFrom(LinkedHashMap.class)) {
+            return new LinkedHashMap<String, Object>();
+        }
+        if (type.isAssignableFrom(TreeMap.class)) {
+            return new TreeMap<String, Object>();
+        }
+        return (Map<String, Object>) newContainer(type, key);
+    }
+
+    /**
+     * Make an instance of a concrete collection or map class.
+     *
+     * @param type
+     *            The class.
+     * @param key
+     *            The key of the member, for error messages.
+     * @return A new instance.
+     * @throws JSONException
+     *             If the class cannot be instantiated.
+     */
+    private static Object newContainer(Class<?> type, String key) throws JSONException {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw wrongValueFormatException(key, type, null, null);
+        }
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            throw wrongValueFormatException(key, type, null, e);
+        }
+    }
+
+    /**
+     * Get the class of a generic type.
+     *
+     * @param type
+     *            A type.
+     * @return The class, or Object if it cannot be determined.
+     */
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawType(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> componentType = rawType(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(componentType, 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawType(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawType(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    /**
+     * Get a type argument of a generic type, such as the element type of a
+     * <code>List&lt;E&gt;</code>.
+     *
+     * @param type
+     *            A type.
+     * @param index
+     *            The index of the type argument.
+     * @return The type argument, or Object if the type is not parameterized.
+     */
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * Get the wrapper class of a primitive class.
+     *
+     * @param type
+     *            A class.
+     * @return The wrapper class, or the class itself if it is not primitive.
+     */
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == Integer.TYPE) {
+            return Integer.class;
+        }
+        if (type == Long.TYPE) {
+            return Long.class;
+        }
+        if (type == Double.TYPE) {
+            return Double.class;
+        }
+        if (type == Boolean.TYPE) {
+            return Boolean.class;
+        }
+        if (type == Float.TYPE) {
+            return Float.class;
+        }
+        if (type == Character.TYPE) {
+            return Character.class;
+        }
+        if (type == Short.TYPE) {
+            return Short.class;
+        }
+        if (type == Byte.TYPE) {
+            return Byte.class;
+        }
+        return Void.class;
+    }
+
+    /**
+     * Create a new JSONException in a common format for incorrect conversions.
+     *
+     * @param key
+     *            The key of the member.
+     * @param type
+     *            The class being converted to.
+     * @param value
+     *            The value, or null if it is not of interest.
+     * @param cause
+     *            The cause of the failure, or null.
+     * @return The JSONException.
+     */
+    private static JSONException wrongValueFormatException(
+            String key, Class<?> type, Object value, Throwable cause) {
+        return new JSONException("JSONObject[" + JSONObject.quote(key) + "] is not convertible to "
+                + type.getName() + (value == null ? "." : " (" + value + ")."), cause);
+    }
+
+    /**
+     * A setter or public field.
+     */
+    private static final class Property {
+
+        /** The setter, or null for a field. */
+        private final Method setter;
+
+        /** The generated mutator of the setter, or null. */
+        private final JSONBeanInfo.Mutator mutator;
+
+        /** The field, or null for a setter. */
+        private final Field field;
+
+        /** The class of the values. */
+        final Class<?> type;
+
+        /** The generic type of the values. */
+        final Type genericType;
+
+        Property(Method setter) {
+            this.setter = setter;
+            this.mutator = JSONBeanInfo.Accessors.AVAILABLE
+                    ? JSONBeanInfo.Accessors.createMutator(setter) : null;
+            this.field = null;
+            this.type = setter.getParameterTypes()[0];
+            this.genericType = setter.getGenericParameterTypes()[0];
+            if (this.mutator == null
+                    && !Modifier.isPublic(setter.getDeclaringClass().getModifiers())) {
+                makeAccessible(setter);
+            }
+        }
+
+        Property(Field field) {
+            this.setter = null;
+            this.mutator = null;
+            this.field = field;
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            if (!Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                makeAccessible(field);
+            }
+        }
+
+        /**
+         * Set the property of a bean.
+         *
+         * @param bean
+         *            The bean.
+         * @param key
+         *            The key name, for error messages.
+         * @param value
+         *            The converted value, or UNCHANGED.
+         * @throws JSONException
+         *             If the setter throws an exception or cannot be called.
+         *             Errors are thrown as they are.
+         */
+        void set(Object bean, String key, Object value) throws JSONException {
+            if (value == UNCHANGED) {
+                return;
+            }
+            try {
+                if (this.mutator != null) {
+                    this.mutator.set(bean, value);
+                } else if (this.setter != null) {
+                    this.setter.invoke(bean, value);
+                } else {
+                    this.field.set(bean, value);
+                }
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw new JSONException("Unable to set JSONObject[" + JSONObject.quote(key) + "]",
+                        e.getCause());
+            } catch (Exception e) {
+                throw new JSONException("Unable to set JSONObject[" + JSONObject.quote(key) + "]", e);
+            }
+        }
+
+        private static void makeAccessible(AccessibleObject member) {
+            try {
+                member.setAccessible(true);
+            } catch (SecurityException e) {
+                // called through reflection, which fails if it is not allowed
+            }
+        }
+    }
+}
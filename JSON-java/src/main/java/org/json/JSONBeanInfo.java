@@ -0,0 +1,515 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The bean properties of a class, as used by {@link JSONObject#JSONObject(Object)}:
+ * the key names and the getters that produce their values. The class hierarchy
+ * and the {@link JSONPropertyIgnore} and {@link JSONPropertyName} annotations
+ * are examined once per class and the result is cached.
+ * <p>
+ * The properties are cached in a {@link ClassValue}, which keeps them with the
+ * class itself, so they do not keep the class or its class loader reachable
+ * and are dropped when the class is unloaded.
+ * <p>
+ * Where the runtime has <code>java.lang.invoke.LambdaMetafactory</code>,
+ * each getter of a public class that is visible from this class is called
+ * through a generated {@link Accessor}, which the JIT can inline like a
+ * hand-written call. Other getters are called through reflection.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONBeanInfo {
+
+    /** The cached bean properties, by class. */
+    private static final ClassValue<JSONBeanInfo> CACHE = new ClassValue<JSONBeanInfo>() {
+        @Override
+        protected JSONBeanInfo computeValue(Class<?> klass) {
+            return new JSONBeanInfo(klass);
+        }
+    };
+
+    /** The key names of the properties. */
+    final String[] keys;
+
+    /** The getters of the properties, in the same order as the keys. */
+    final Method[] getters;
+
+    /**
+     * The generated accessors of the getters, in the same order as the keys,
+     * or null where a getter is called through reflection.
+     */
+    private final Accessor[] accessors;
+
+    /**
+     * Examine a class for bean properties.
+     *
+     * @param klass
+     *            The class of a bean.
+     */
+    private JSONBeanInfo(Class<?> klass) {
+        // If klass is a System class then set includeSuperClass to false.
+
+        boolean includeSuperClass = klass.getClassLoader() != null;
+
+        Method[] methods = includeSuperClass ? klass.getMethods() : klass.getDeclaredMethods();
+        List<String> keyList = new ArrayList<String>(methods.length);
+        List<Method> getterList = new ArrayList<Method>(methods.length);
+        for (final Method method : methods) {
+            final int modifiers = method.getModifiers();
+            if (Modifier.isPublic(modifiers)
+                    && !Modifier.isStatic(modifiers)
+                    && method.getParameterTypes().length == 0
+                    && !method.isBridge()
+                    && method.getReturnType() != Void.TYPE
+                    && isValidMethodName(method.getName())) {
+                final String key = getKeyName(method, "get", "is");
+                if (key != null && !key.isEmpty()) {
+                    keyList.add(key);
+                    getterList.add(method);
+                }
+            }
+        }
+        this.keys = keyList.toArray(new String[keyList.size()]);
+        this.getters = getterList.toArray(new Method[getterList.size()]);
+        this.accessors = new Accessor[this.getters.length];
+        if (Accessors.AVAILABLE) {
+            for (int i = 0; i < this.getters.length; i += 1) {
+                this.accessors[i] = Accessors.create(this.getters[i]);
+            }
+        }
+    }
+
+    /**
+     * Determine whether a class belongs to the Java platform, in which case
+     * {@link JSONObject#wrap(Object)} uses the string form of its instances
+     * rather than their properties. The class is not examined for properties,
+     * so nothing is cached for it.
+     *
+     * @param klass
+     *            The class.
+     * @return true if the class is in a java or javax package or is loaded by
+     *         the bootstrap class loader.
+     */
+    static boolean isPlatformClass(Class<?> klass) {
+        Package objectPackage = klass.getPackage();
+        String objectPackageName = objectPackage != null ? objectPackage.getName() : "";
+        return objectPackageName.startsWith("java.")
+                || objectPackageName.startsWith("javax.")
+                || klass.getClassLoader() == null;
+    }
+
+    /**
+     * Call the getter of a property.
+     *
+     * @param i
+     *            The index of the property.
+     * @param bean
+     *            The bean, an instance of the class.
+     * @return The value of the property.
+     * @throws IllegalAccessException
+     *             If the getter cannot be called.
+     * @throws IllegalArgumentException
+     *             If the getter does not accept the bean.
+     * @throws InvocationTargetException
+     *             If the getter throws, whichever way it was called. As with
+     *             Method.invoke, errors are wrapped too.
+     */
+    Object get(int i, Object bean)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+        Accessor accessor = this.accessors[i];
+        if (accessor == null) {
+            return this.getters[i].invoke(bean);
+        }
+        try {
+            return accessor.get(bean);
+        } catch (Exception e) {
+            throw new InvocationTargetException(e);
+        } catch (Error e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * Get the bean properties of a class, examining the class on first use.
+     *
+     * @param klass
+     *            The class of a bean.
+     * @return The bean properties.
+     */
+    static JSONBeanInfo forClass(Class<?> klass) {
+        return CACHE.get(klass);
+    }
+
+    private static boolean isValidMethodName(String name) {
+        return !"getClass".equals(name) && !"getDeclaringClass".equals(name);
+    }
+
+    /**
+     * Get the key name of a getter or setter: the name given by its
+     * {@link JSONPropertyName} annotation, or else the method name without
+     * its prefix.
+     *
+     * @param method
+     *            A getter or setter.
+     * @param prefixes
+     *            The prefixes of the property methods, such as "get" and "is".
+     * @return The key name, or null if the method is ignored or is not named
+     *         like a property.
+     */
+    static String getKeyName(Method method, String... prefixes) {
+        final int ignoreDepth = getAnnotationDepth(method, JSONPropertyIgnore.class);
+        if (ignoreDepth > 0) {
+            final int forcedNameDepth = getAnnotationDepth(method, JSONPropertyName.class);
+            if (forcedNameDepth < 0 || ignoreDepth <= forcedNameDepth) {
+                // the hierarchy asked to ignore, and the nearest name override
+                // was higher or non-existent
+                return null;
+            }
+        }
+        JSONPropertyName annotation = getAnnotation(method, JSONPropertyName.class);
+        if (annotation != null && annotation.value() != null && !annotation.value().isEmpty()) {
+            return annotation.value();
+        }
+        String key = null;
+        final String name = method.getName();
+        for (String prefix : prefixes) {
+            if (name.startsWith(prefix) && name.length() > prefix.length()) {
+                key = name.substring(prefix.length());
+                break;
+            }
+        }
+        if (key == null) {
+            return null;
+        }
+        // if the first letter in the key is not uppercase, then skip.
+        // This is to maintain backwards compatibility before PR406
+        // (https://github.com/stleary/JSON-java/pull/406/)
+        if (key.length() == 0 || Character.isLowerCase(key.charAt(0))) {
+            return null;
+        }
+        if (key.length() == 1) {
+            key = key.toLowerCase(Locale.ROOT);
+        } else if (!Character.isUpperCase(key.charAt(1))) {
+            key = key.substring(0, 1).toLowerCase(Locale.ROOT) + key.substring(1);
+        }
+        return key;
+    }
+
+    /**
+     * Searches the class hierarchy to see if the method or it's super
+     * implementations and interfaces has the annotation.
+     *
+     * @param <A>
+     *            type of the annotation
+     *
+     * @param m
+     *            method to check
+     * @param annotationClass
+     *            annotation to look for
+     * @return the {@link Annotation} if the annotation exists on the current method
+     *         or one of its super class definitions
+     */
+    private static <A extends Annotation> A getAnnotation(final Method m, final Class<A> annotationClass) {
+        // if we have invalid data the result is null
+        if (m == null || annotationClass == null) {
+            return null;
+        }
+
+        if (m.isAnnotationPresent(annotationClass)) {
+            return m.getAnnotation(annotationClass);
+        }
+
+        // if we've already reached the Object class, return null;
+        Class<?> c = m.getDeclaringClass();
+        if (c.getSuperclass() == null) {
+            return null;
+        }
+
+        // check directly implemented interfaces for the method being checked
+        for (Class<?> i : c.getInterfaces()) {
+            try {
+                Method im = i.getMethod(m.getName(), m.getParameterTypes());
+                return getAnnotation(im, annotationClass);
+            } catch (final SecurityException ex) {
+                continue;
+            } catch (final NoSuchMethodException ex) {
+                continue;
+            }
+        }
+
+        try {
+            return getAnnotation(
+                    c.getSuperclass().getMethod(m.getName(), m.getParameterTypes()),
+                    annotationClass);
+        } catch (final SecurityException ex) {
+            return null;
+        } catch (final NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Searches the class hierarchy to see if the method or it's super
+     * implementations and interfaces has the annotation. Returns the depth of the
+     * annotation in the hierarchy.
+     *
+     * @param m
+     *            method to check
+     * @param annotationClass
+     *            annotation to look for
+     * @return Depth of the annotation or -1 if the annotation is not on the method.
+     */
+    private static int getAnnotationDepth(final Method m, final Class<? extends Annotation> annotationClass) {
+        // if we have invalid data the result is -1
+        if (m == null || annotationClass == null) {
+            return -1;
+        }
+
+        if (m.isAnnotationPresent(annotationClass)) {
+            return 1;
+        }
+
+        // if we've already reached the Object class, return -1;
+        Class<?> c = m.getDeclaringClass();
+        if (c.getSuperclass() == null) {
+            return -1;
+        }
+
+        // check directly implemented interfaces for the method being checked
+        for (Class<?> i : c.getInterfaces()) {
+            try {
+                Method im = i.getMethod(m.getName(), m.getParameterTypes());
+                int d = getAnnotationDepth(im, annotationClass);
+                if (d > 0) {
+                    // since the annotation was on the interface, add 1
+                    return d + 1;
+                }
+            } catch (final SecurityException ex) {
+                continue;
+            } catch (final NoSuchMethodException ex) {
+                continue;
+            }
+        }
+
+        try {
+            int d = getAnnotationDepth(
+                    c.getSuperclass().getMethod(m.getName(), m.getParameterTypes()),
+                    annotationClass);
+            if (d > 0) {
+                // since the annotation was on the superclass, add 1
+                return d + 1;
+            }
+            return -1;
+        } catch (final SecurityException ex) {
+            return -1;
+        } catch (final NoSuchMethodException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * Calls one getter. Implementations are generated by {@link Accessors}.
+     */
+    interface Accessor {
+        /**
+         * Call the getter.
+         * @param bean The bean.
+         * @return The value the getter returns, boxed if it is primitive.
+         * @throws Exception What the getter throws. Errors are thrown as they are.
+         */
+        Object get(Object bean) throws Exception;
+    }
+
+    /**
+     * Calls one setter. Implementations are generated by {@link Accessors}.
+     */
+    interface Mutator {
+        /**
+         * Call the setter.
+         * @param bean The bean.
+         * @param value The value to set, boxed if the setter takes a primitive.
+         * @throws Exception What the setter throws. Errors are thrown as they are.
+         */
+        void set(Object bean, Object value) throws Exception;
+    }
+
+    /**
+     * Generates accessors and mutators with
+     * <code>java.lang.invoke.LambdaMetafactory</code>. Only this class refers
+     * to java.lang.invoke, so JSONBeanInfo and JSONBeanBinder still load on
+     * runtimes that lack it. The factory came with Java 8 and is found
+     * through reflection, so the library still builds for older releases.
+     */
+    static final class Accessors {
+
+        /** The <code>LambdaMetafactory.metafactory</code> method, or null. */
+        private static final Method METAFACTORY = findMetafactory();
+
+        /** Whether the runtime can generate accessors. */
+        static final boolean AVAILABLE = METAFACTORY != null;
+
+        private static Method findMetafactory() {
+            try {
+                return Class.forName("java.lang.invoke.LambdaMetafactory").getMethod("metafactory",
+                        MethodHandles.Lookup.class, String.class, MethodType.class,
+                        MethodType.class, MethodHandle.class, MethodType.class);
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            } catch (SecurityException e) {
+                return null;
+            } catch (LinkageError e) {
+                return null;
+            }
+        }
+
+        /**
+         * Call <code>LambdaMetafactory.metafactory</code> and create the
+         * function object.
+         *
+         * @param lookup
+         *            The lookup that can see the implementation.
+         * @param name
+         *            The name of the interface method.
+         * @param factoryType
+         *            The type of the factory, which returns the interface.
+         * @param interfaceType
+         *            The erased type of the interface method.
+         * @param handle
+         *            The implementation.
+         * @param dynamicType
+         *            The type of the interface method as it is called.
+         * @return The function object.
+         * @throws Throwable
+         *             If the function object cannot be made.
+         */
+        private static Object metafactory(MethodHandles.Lookup lookup, String name,
+                MethodType factoryType, MethodType interfaceType, MethodHandle handle,
+                MethodType dynamicType) throws Throwable {
+            CallSite site = (CallSite) METAFACTORY.invoke(null, lookup, name,
+                    factoryType, interfaceType, handle, dynamicType);
+            return site.getTarget().invokeWithArguments();
+        }
+
+        /**
+         * Generate the accessor of a getter.
+         *
+         * @param getter
+         *            The getter.
+         * @return The accessor, or null if the getter must be called through
+         *         reflection.
+         */
+        static Accessor create(Method getter) {
+            Class<?> klass = getter.getDeclaringClass();
+            if (getter.getParameterTypes().length != 0
+                    || !Modifier.isPublic(klass.getModifiers())
+                    || !isVisible(klass) || !isVisible(getter.getReturnType())) {
+                return null;
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(getter);
+                return (Accessor) metafactory(lookup, "get",
+                        MethodType.methodType(Accessor.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(Object.class, klass));
+            } catch (Throwable e) {
+                // not allowed here, such as under a security manager
+                return null;
+            }
+        }
+
+        /**
+         * Generate the mutator of a setter.
+         *
+         * @param setter
+         *            The setter.
+         * @return The mutator, or null if the setter must be called through
+         *         reflection.
+         */
+        static Mutator createMutator(Method setter) {
+            Class<?> klass = setter.getDeclaringClass();
+            Class<?>[] types = setter.getParameterTypes();
+            if (types.length != 1
+                    || !Modifier.isPublic(klass.getModifiers())
+                    || !isVisible(klass) || !isVisible(types[0])) {
+                return null;
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflect(setter);
+                return (Mutator) metafactory(lookup, "set",
+                        MethodType.methodType(Mutator.class),
+                        MethodType.methodType(Void.TYPE, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(Void.TYPE, klass,
+                                MethodType.methodType(types[0]).wrap().returnType()));
+            } catch (Throwable e) {
+                // not allowed here, such as under a security manager
+                return null;
+            }
+        }
+
+        /**
+         * Check that a class resolves to itself from this class, as the
+         * generated accessor must be able to name it.
+         *
+         * @param klass
+         *            The class.
+         * @return true if the class is visible.
+         */
+        private static boolean isVisible(Class<?> klass) {
+            while (klass.isArray()) {
+                klass = klass.getComponentType();
+            }
+            if (klass.isPrimitive()) {
+                return true;
+            }
+            try {
+                return Class.forName(klass.getName(), false,
+                        JSONBeanInfo.class.getClassLoader()) == klass;
+            } catch (ClassNotFoundException e) {
+                return false;
+            } catch (LinkageError e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The cached similarity hash of a {@link JSONObject} or {@link JSONArray}.
+ * The hash is consistent with <code>similar</code>: containers that are
+ * similar have equal hashes, so two containers whose hashes differ can be
+ * told apart without comparing their contents.
+ * <p>
+ * A container keeps its fingerprint until it, or a container nested in it,
+ * changes. A nested container does not know its parents, so the fingerprint
+ * of each nested container records the fingerprints that were computed from
+ * it. A change marks the fingerprint of the container stale, and the ones
+ * recorded in it, up to the outermost container, and they are computed again
+ * when they are next needed. Fingerprints of unrelated documents are not
+ * affected, and containers that have no fingerprint change at no extra cost.
+ * <p>
+ * Fingerprints may be computed by several threads that read the same
+ * document: each container publishes one fingerprint, which all of them use.
+ * <p>
+ * Values that are not JSON types, other than Numbers, Characters and enums,
+ * can change without notice and so do not take part: a JSONArray holding one
+ * is hashed by its length, and a JSONObject holding one by its keys. A
+ * JSONObject holding a Number is also hashed by its keys alone, because
+ * {@link JSONObject#similar(Object)} settles the comparison at the first
+ * member that is a number on both sides and does not look at the members
+ * after it.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONFingerprint {
+
+    /** The hash of null and of {@link JSONObject#NULL}, which are similar. */
+    private static final int NULL_HASH = 0x6e756c6c;
+
+    /** The hash of a number that is not finite, which is similar to no number. */
+    private static final int NON_FINITE_HASH = 0x7ff00000;
+
+    /** Publishes the fingerprint of a JSONObject. */
+    private static final AtomicReferenceFieldUpdater<JSONObjectMap, JSONFingerprint> MAP_FINGERPRINT =
+            AtomicReferenceFieldUpdater.newUpdater(JSONObjectMap.class, JSONFingerprint.class, "fingerprint");
+
+    /** Publishes the fingerprint of a JSONArray. */
+    private static final AtomicReferenceFieldUpdater<JSONArrayList, JSONFingerprint> LIST_FINGERPRINT =
+            AtomicReferenceFieldUpdater.newUpdater(JSONArrayList.class, JSONFingerprint.class, "fingerprint");
+
+    /** The hash. */
+    final int hash;
+
+    /** Whether a container that took part in the hash has changed since. */
+    private volatile boolean stale;
+
+    /**
+     * The fingerprints of the containers whose hash was computed from this
+     * one, or null. Guarded by this fingerprint.
+     */
+    private List<JSONFingerprint> dependents;
+
+    private JSONFingerprint(int hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Mark this fingerprint stale after its container has changed, together
+     * with the fingerprints computed from it, transitively.
+     */
+    void invalidate() {
+        ArrayDeque<JSONFingerprint> pending = null;
+        JSONFingerprint fingerprint = this;
+        while (fingerprint != null) {
+            List<JSONFingerprint> next;
+            synchronized (fingerprint) {
+                next = fingerprint.stale ? null : fingerprint.dependents;
+                fingerprint.stale = true;
+                fingerprint.dependents = null;
+            }
+            if (next != null) {
+                if (pending == null) {
+                    pending = new ArrayDeque<JSONFingerprint>();
+                }
+                pending.addAll(next);
+            }
+            fingerprint = pending == null ? null : pending.poll();
+        }
+    }
+
+    /**
+     * Record that the fingerprint of a parent was computed from this one.
+     * @param parent The fingerprint of the parent.
+     */
+    private void addDependent(JSONFingerprint parent) {
+        synchronized (this) {
+            if (this.stale) {
+                parent.stale = true;
+                return;
+            }
+            if (this.dependents == null) {
+                this.dependents = new ArrayList<JSONFingerprint>(2);
+            } else if (this.dependents.size() >= 8
+                    && Integer.bitCount(this.dependents.size()) == 1) {
+                // drop parents that have been computed again since
+                for (Iterator<JSONFingerprint> i = this.dependents.iterator(); i.hasNext();) {
+                    if (i.next().stale) {
+                        i.remove();
+                    }
+                }
+            }
+            this.dependents.add(parent);
+        }
+    }
+
+    /**
+     * Check if a fingerprint is still current.
+     * @param fingerprint A fingerprint, or null.
+     * @return true if the fingerprint can be used.
+     */
+    static boolean isCurrent(JSONFingerprint fingerprint) {
+        return fingerprint != null && !fingerprint.stale;
+    }
+
+    /**
+     * Check if two JSONObjects can be told apart by their fingerprints. This
+     * is only done when one of them already has a current fingerprint, so a
+     * single comparison costs nothing extra, while comparing against many
+     * fingerprinted objects computes the fingerprint of the other once.
+     * @param left A map of a JSONObject.
+     * @param right A map of another JSONObject.
+     * @return true if the objects are certainly not similar.
+     */
+    static boolean differ(JSONObjectMap left, JSONObjectMap right) {
+        if (!isCurrent(left.fingerprint) && !isCurrent(right.fingerprint)) {
+            return false;
+        }
+        try {
+            return of(left).hash != of(right).hash;
+        } catch (RuntimeException e) {
+            // a value that cannot be parsed; leave it to similar
+            return false;
+        }
+    }
+
+    /**
+     * Check if two JSONArrays can be told apart by their fingerprints.
+     * @param left A list of a JSONArray.
+     * @param right A list of another JSONArray.
+     * @return true if the arrays are certainly not similar.
+     * @see #differ(JSONObjectMap, JSONObjectMap)
+     */
+    static boolean differ(JSONArrayList left, JSONArrayList right) {
+        if (!isCurrent(left.fingerprint) && !isCurrent(right.fingerprint)) {
+            return false;
+        }
+        try {
+            return of(left).hash != of(right).hash;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the fingerprint of a JSONObject, computing it if the map has no
+     * current fingerprint.
+     * @param map The map of the JSONObject.
+     * @return The fingerprint.
+     */
+    static JSONFingerprint of(JSONObjectMap map) {
+        JSONFingerprint fingerprint = map.fingerprint;
+        if (isCurrent(fingerprint)) {
+            return fingerprint;
+        }
+        List<JSONFingerprint> nested = null;
+        int keys = 0;
+        int entries = 0;
+        boolean keysOnly = false;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            int key = entry.getKey().hashCode();
+            keys += key;
+            if (!keysOnly) {
+                Object value = entry.getValue();
+                if (value instanceof Number || !isHashed(value)) {
+                    // the values no longer count, nor do the nested containers
+                    keysOnly = true;
+                    nested = null;
+                } else {
+                    JSONFingerprint child = of(value);
+                    if (child != null) {
+                        if (nested == null) {
+                            nested = new ArrayList<JSONFingerprint>();
+                        }
+                        nested.add(child);
+                    }
+                    entries += mix(key + 31 * (child != null ? child.hash : hash(value)));
+                }
+            }
+        }
+        JSONFingerprint fresh = new JSONFingerprint(mix(keysOnly ? keys : entries ^ ~keys));
+        if (!MAP_FINGERPRINT.compareAndSet(map, fingerprint, fresh)) {
+            // another thread published one first
+            return map.fingerprint;
+        }
+        fresh.dependOn(nested);
+        return fresh;
+    }
+
+    /**
+     * Get the fingerprint of a JSONArray, computing it if the list has no
+     * current fingerprint.
+     * @param list The list of the JSONArray.
+     * @return The fingerprint.
+     */
+    static JSONFingerprint of(JSONArrayList list) {
+        JSONFingerprint fingerprint = list.fingerprint;
+        if (isCurrent(fingerprint)) {
+            return fingerprint;
+        }
+        List<JSONFingerprint> nested = null;
+        int size = list.size();
+        int elements = size;
+        for (int i = 0; i < size; i += 1) {
+            Object value = list.get(i);
+            if (!isHashed(value)) {
+                elements = size;
+                nested = null;
+                break;
+            }
+            JSONFingerprint child = of(value);
+            if (child != null) {
+                if (nested == null) {
+                    nested = new ArrayList<JSONFingerprint>();
+                }
+                nested.add(child);
+            }
+            elements = 31 * elements + (child != null ? child.hash : hash(value));
+        }
+        JSONFingerprint fresh = new JSONFingerprint(mix(elements));
+        if (!LIST_FINGERPRINT.compareAndSet(list, fingerprint, fresh)) {
+            return list.fingerprint;
+        }
+        fresh.dependOn(nested);
+        return fresh;
+    }
+
+    /**
+     * Get the fingerprint of a value that is a JSONObject or a JSONArray.
+     * @param value A value.
+     * @return The fingerprint, or null if the value is not a container.
+     */
+    private static JSONFingerprint of(Object value) {
+        if (value instanceof JSONObject) {
+            return ((JSONObject) value).fingerprint();
+        }
+        if (value instanceof JSONArray) {
+            return ((JSONArray) value).fingerprint();
+        }
+        return null;
+    }
+
+    /**
+     * Record that this fingerprint was computed from the fingerprints of
+     * nested containers.
+     * @param nested The fingerprints of the nested containers, or null.
+     */
+    private void dependOn(List<JSONFingerprint> nested) {
+        if (nested != null) {
+            for (JSONFingerprint child : nested) {
+                child.addDependent(this);
+            }
+        }
+    }
+
+    /**
+     * Check if a value takes part in fingerprints.
+     * @param value A value.
+     * @return true if the value can be hashed.
+     */
+    private static boolean isHashed(Object value) {
+        return value == null || value == JSONObject.NULL
+                || value instanceof JSONObject || value instanceof JSONArray
+                || value instanceof String || value instanceof Number
+                || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum;
+    }
+
+    /**
+     * Hash a value that takes part in fingerprints and is not a container.
+     * @param value A value.
+     * @return The hash.
+     */
+    private static int hash(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return NULL_HASH;
+        }
+        if (value instanceof Number) {
+            return hashNumber((Number) value);
+        }
+        return value.hashCode();
+    }
+
+    /**
+     * Hash a number by its value, so that numbers that
+     * {@link JSONObject#isNumberSimilar(Number, Number)} finds similar have
+     * the same hash whatever their classes. Numbers of different classes are
+     * compared as BigDecimals made from their strings, so the hash is that of
+     * the same BigDecimal with its trailing zeros stripped.
+     * @param number A number.
+     * @return The hash.
+     */
+    private static int hashNumber(Number number) {
+        if (number instanceof Integer || number instanceof Long
+                || number instanceof Short || number instanceof Byte) {
+            return hashDecimal(number.longValue(), 0);
+        }
+        if ((number instanceof Double && (((Double) number).isInfinite() || ((Double) number).isNaN()))
+                || (number instanceof Float && (((Float) number).isInfinite() || ((Float) number).isNaN()))) {
+            return NON_FINITE_HASH;
+        }
+        BigDecimal decimal;
+        if (number instanceof BigDecimal) {
+            decimal = (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            decimal = new BigDecimal((BigInteger) number);
+        } else {
+            try {
+                decimal = new BigDecimal(number.toString());
+            } catch (NumberFormatException e) {
+                // only similar to numbers of its own class
+                return number.getClass().getName().hashCode();
+            }
+        }
+        if (decimal.signum() == 0) {
+            return hashDecimal(0, 0);
+        }
+        decimal = decimal.stripTrailingZeros();
+        BigInteger unscaled = decimal.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            return hashDecimal(unscaled.longValue(), decimal.scale());
+        }
+        return unscaled.hashCode() * 31 + decimal.scale();
+    }
+
+    /**
+     * Hash the decimal number <code>unscaled * 10^-scale</code>.
+     * @param unscaled The unscaled value.
+     * @param scale The scale.
+     * @return The hash, which is the same for every representation of the
+     *  same number whose unscaled value fits in a long.
+     */
+    private static int hashDecimal(long unscaled, int scale) {
+        if (unscaled == 0) {
+            return 0;
+        }
+        while (unscaled % 10 == 0) {
+            unscaled /= 10;
+            scale -= 1;
+        }
+        return (int) (unscaled ^ (unscaled >>> 32)) * 31 + scale;
+    }
+
+    /**
+     * Spread the bits of a hash.
+     * @param h A hash.
+     * @return The mixed hash.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
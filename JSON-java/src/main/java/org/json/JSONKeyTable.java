@@ -0,0 +1,177 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * A bounded symbol table that lets repeated object keys share one String.
+ * Keys can be looked up straight from a character buffer, so a key that is
+ * already in the table costs no allocation. Once the table holds its maximum
+ * number of keys, new keys are returned without being added.
+ * <p>
+ * Each {@link JSONTokener} that interns keys has its own table, so the table
+ * needs no synchronization and is released with the tokener.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONKeyTable {
+
+    /** The initial number of slots. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The largest number of slots, a power of two that an array can hold. */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** The keys, in an open addressed hash table. */
+    private String[] keys;
+
+    /** The hash codes of the keys, in the same slots. */
+    private int[] hashes;
+
+    /** The number of keys in the table. */
+    private int size;
+
+    /** The maximum number of keys in the table. */
+    private final int maxSize;
+
+    /**
+     * Construct an empty table. The table starts small and grows as keys are
+     * added, so a large maximum costs nothing until it is used.
+     * @param maxSize The maximum number of keys in the table. It is limited to
+     *        half the largest table, which keeps the load factor at or under
+     *        one half.
+     */
+    JSONKeyTable(int maxSize) {
+        this.keys = new String[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.maxSize = Math.min(maxSize, MAXIMUM_CAPACITY / 2);
+    }
+
+    /**
+     * Get the canonical String for a range of characters.
+     * @param chars The characters.
+     * @param offset The index of the first character of the key.
+     * @param length The number of characters in the key.
+     * @return The shared String if the key is in the table, otherwise a new
+     *         String, which is added if there is room.
+     */
+    String intern(char[] chars, int offset, int length) {
+        int hash = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; i += 1) {
+            hash = 31 * hash + chars[i];
+        }
+        int mask = this.keys.length - 1;
+        int slot = mix(hash) & mask;
+        String key;
+        while ((key = this.keys[slot]) != null) {
+            if (this.hashes[slot] == hash && key.length() == length
+                    && regionMatches(key, chars, offset)) {
+                return key;
+            }
+            slot = (slot + 1) & mask;
+        }
+        key = new String(chars, offset, length);
+        this.add(slot, hash, key);
+        return key;
+    }
+
+    /**
+     * Get the canonical String for a key.
+     * @param string The key.
+     * @return The shared String if the key is in the table, otherwise the
+     *         given String, which is added if there is room.
+     */
+    String intern(String string) {
+        int hash = string.hashCode();
+        int mask = this.keys.length - 1;
+        int slot = mix(hash) & mask;
+        String key;
+        while ((key = this.keys[slot]) != null) {
+            if (this.hashes[slot] == hash && key.equals(string)) {
+                return key;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.add(slot, hash, string);
+        return string;
+    }
+
+    /**
+     * Add a key to an empty slot if the table is not full.
+     */
+    private void add(int slot, int hash, String key) {
+        if (this.size < this.maxSize) {
+            this.keys[slot] = key;
+            this.hashes[slot] = hash;
+            this.size += 1;
+            if (this.size * 2L > this.keys.length && this.size < this.maxSize) {
+                this.grow();
+            }
+        }
+    }
+
+    /**
+     * Double the number of slots, to keep the load factor at or under one
+     * half.
+     */
+    private void grow() {
+        String[] oldKeys = this.keys;
+        int[] oldHashes = this.hashes;
+        int capacity = oldKeys.length * 2;
+        int mask = capacity - 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i += 1) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (this.keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.keys[slot] = oldKeys[i];
+                this.hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+
+    /**
+     * Spread the high bits of a String hash code over the low bits, which
+     * select the slot.
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Compare a key with a range of characters of the same length.
+     */
+    private static boolean regionMatches(String key, char[] chars, int offset) {
+        for (int i = key.length() - 1; i >= 0; i -= 1) {
+            if (key.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
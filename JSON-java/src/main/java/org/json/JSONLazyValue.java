@@ -0,0 +1,494 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A nested object or array that a lazy {@link JSONTokener} has recorded as a
+ * range of its source text instead of parsing it. It stands in for the value
+ * in the map of a {@link JSONObject} or the list of a {@link JSONArray}, which
+ * replace it with the parsed value when it is first read.
+ * <p>
+ * The parsed value is also kept here, so that shallow copies which still hold
+ * the placeholder get the same instance. Until then compact serialization
+ * writes the source text as it is, if it is strict JSON with no duplicate
+ * keys; other text is parsed first, so that it is written, or rejected, as
+ * an eagerly parsed value would be.
+ * <p>
+ * A placeholder may be read by several threads at once: it is parsed once,
+ * under a lock, and the parsed value is safely published.
+ * @author JSON.org
+ * @version 2026-10-18
+ * @see JSONParserConfiguration#withLazy(boolean)
+ */
+final class JSONLazyValue {
+
+    /** The text is not known to be strict JSON yet. */
+    private static final int UNCHECKED = 0;
+
+    /** The text is strict JSON with no duplicate keys. */
+    private static final int STRICT = 1;
+
+    /** The text must be parsed before it is written. */
+    private static final int NOT_STRICT = 2;
+
+    /** The strict check expects a value. */
+    private static final int VALUE = 0;
+
+    /** The strict check expects a key. */
+    private static final int KEY = 1;
+
+    /** The strict check is after a value, expecting a comma or a closing bracket. */
+    private static final int AFTER = 2;
+
+    /** The source, or null once the value has been parsed. */
+    private volatile char[] source;
+
+    /** The index of the opening bracket in the source. */
+    private final int start;
+
+    /** The index after the closing bracket in the source. */
+    private final int end;
+
+    /** The symbol table for object keys, or null. */
+    private final JSONKeyTable keyTable;
+
+    /** Whether decimals are parsed as Doubles. */
+    private final boolean decimalsAsDouble;
+
+    /** The index in the document of the opening bracket. */
+    private final long index;
+
+    /** The character count on the line before the opening bracket. */
+    private final long character;
+
+    /** The line of the opening bracket. */
+    private final long line;
+
+    /** Whether the source text is strict JSON, once it has been checked. */
+    private int strictness;
+
+    /** The parsed value, or null if it has not been parsed yet. */
+    private volatile Object value;
+
+    /**
+     * Construct a placeholder for a range of source text.
+     * @param source The source.
+     * @param start The index of the opening bracket.
+     * @param end The index after the closing bracket.
+     * @param keyTable The symbol table for object keys, or null.
+     * @param decimalsAsDouble Whether decimals are parsed as Doubles.
+     * @param index The index in the document of the opening bracket.
+     * @param character The character count on the line before the opening
+     *        bracket.
+     * @param line The line of the opening bracket.
+     */
+    JSONLazyValue(char[] source, int start, int end, JSONKeyTable keyTable,
+            boolean decimalsAsDouble, long index, long character, long line) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.keyTable = keyTable;
+        this.decimalsAsDouble = decimalsAsDouble;
+        this.index = index;
+        this.character = character;
+        this.line = line;
+    }
+
+    /**
+     * Get the length of the source text of the value.
+     * @return The number of characters from the opening bracket to the
+     *         closing bracket.
+     */
+    int length() {
+        return this.end - this.start;
+    }
+
+    /**
+     * Get the value, parsing it on the first call.
+     * @return The JSONObject or JSONArray.
+     * @throws JSONException If there is a syntax error in the source text.
+     */
+    Object get() throws JSONException {
+        Object v = this.value;
+        if (v == null) {
+            // the symbol table is shared by the placeholders of a document
+            // and is not thread safe
+            synchronized (this.keyTable != null ? this.keyTable : this) {
+                v = this.value;
+                if (v == null) {
+                    char[] s = this.source;
+                    JSONTokener x = new JSONTokener(s, this.start, this.end, this.keyTable,
+                            this.decimalsAsDouble, this.index, this.character, this.line);
+                    v = s[this.start] == '{' ? new JSONObject(x) : new JSONArray(x);
+                    this.value = v;
+                    this.source = null;
+                }
+            }
+        }
+        return v;
+    }
+
+    /**
+     * Get a value, parsing it first if it is a placeholder.
+     * @param value A value of a JSONObject or JSONArray.
+     * @return The value, never a placeholder.
+     * @throws JSONException If there is a syntax error in the source text.
+     */
+    static Object resolve(Object value) throws JSONException {
+        return value instanceof JSONLazyValue ? ((JSONLazyValue) value).get() : value;
+    }
+
+    /**
+     * Write the value. The source text is written as it is while the value
+     * has not been parsed, no indentation is wanted, and the text is strict
+     * JSON.
+     * @param writer Writes the serialized JSON.
+     * @param indentFactor The number of spaces to add to each level of indentation.
+     * @param indent The indentation of the top level.
+     * @throws JSONException If there is a syntax error in the source text.
+     * @throws IOException If the writer fails.
+     */
+    void write(Writer writer, int indentFactor, int indent)
+            throws JSONException, IOException {
+        char[] s = this.passThrough(indentFactor);
+        if (s != null) {
+            writer.write(s, this.start, this.end - this.start);
+        } else {
+            JSONObject.writeValue(writer, this.get(), indentFactor, indent);
+        }
+    }
+
+    /**
+     * The source text of the value while it would be written as it is,
+     * otherwise the text of the parsed value.
+     */
+    @Override
+    public String toString() {
+        char[] s = this.passThrough(0);
+        if (s != null) {
+            return new String(s, this.start, this.end - this.start);
+        }
+        return this.get().toString();
+    }
+
+    /**
+     * Get the source if the value can be written as its source text.
+     * @param indentFactor The number of spaces to add to each level of indentation.
+     * @return The source, or null if the value must be parsed and written.
+     */
+    private char[] passThrough(int indentFactor) {
+        if (indentFactor != 0 || this.value != null) {
+            return null;
+        }
+        // read after value: the source is only dropped once value is set
+        char[] s = this.source;
+        if (s == null) {
+            return null;
+        }
+        if (this.strictness == UNCHECKED) {
+            // racing threads compute the same answer
+            this.strictness = isStrict(s, this.start, this.end) ? STRICT : NOT_STRICT;
+        }
+        return this.strictness == STRICT ? s : null;
+    }
+
+    /**
+     * Check that a range of text is one object or array of strict JSON, as
+     * defined by RFC 8259, with no duplicate keys and no escapes in keys.
+     * Text that passes is read by the parser without error, and writing it
+     * as it is gives valid JSON.
+     * @param b The text.
+     * @param start The index of the opening bracket.
+     * @param end The index after the closing bracket.
+     * @return true if the text is strict JSON.
+     */
+    static boolean isStrict(char[] b, int start, int end) {
+        boolean[] objects = new boolean[16];
+        int[] keyBases = new int[16];
+        int[] keys = new int[32];
+        int keyTop = 0;
+        int depth = 0;
+        int state = VALUE;
+        int i = start;
+        while (true) {
+            i = skipWhitespace(b, i, end);
+            if (i >= end) {
+                return false;
+            }
+            char c = b[i];
+            if (state == KEY) {
+                int k = c == '"' ? scanString(b, i, end, false) : -1;
+                if (k < 0) {
+                    return false;
+                }
+                if (keyTop + 2 > keys.length) {
+                    int[] larger = new int[keys.length * 2];
+                    System.arraycopy(keys, 0, larger, 0, keyTop);
+                    keys = larger;
+                }
+                keys[keyTop] = i + 1;
+                keys[keyTop + 1] = k - 1;
+                keyTop += 2;
+                i = k;
+                i = skipWhitespace(b, i, end);
+                if (i >= end || b[i] != ':') {
+                    return false;
+                }
+                i += 1;
+                state = VALUE;
+            } else if (state == VALUE) {
+                if (c == '{' || c == '[') {
+                    if (depth == objects.length) {
+                        boolean[] largerObjects = new boolean[depth * 2];
+                        System.arraycopy(objects, 0, largerObjects, 0, depth);
+                        objects = largerObjects;
+                        int[] largerBases = new int[depth * 2];
+                        System.arraycopy(keyBases, 0, largerBases, 0, depth);
+                        keyBases = largerBases;
+                    }
+                    objects[depth] = c == '{';
+                    keyBases[depth] = keyTop;
+                    depth += 1;
+                    i += 1;
+                    int j = skipWhitespace(b, i, end);
+                    if (j < end && b[j] == (c == '{' ? '}' : ']')) {
+                        i = j + 1;
+                        depth -= 1;
+                        if (depth == 0) {
+                            return i == end;
+                        }
+                        state = AFTER;
+                    } else {
+                        state = c == '{' ? KEY : VALUE;
+                    }
+                    continue;
+                }
+                if (c == '"') {
+                    i = scanString(b, i, end, true);
+                } else if (c == '-' || (c >= '0' && c <= '9')) {
+                    i = scanNumber(b, i, end);
+                } else if (c == 't') {
+                    i = scanWord(b, i, end, "true");
+                } else if (c == 'f') {
+                    i = scanWord(b, i, end, "false");
+                } else if (c == 'n') {
+                    i = scanWord(b, i, end, "null");
+                } else {
+                    return false;
+                }
+                if (i < 0 || depth == 0) {
+                    return false;
+                }
+                state = AFTER;
+            } else {
+                boolean object = objects[depth - 1];
+                if (c == ',') {
+                    i += 1;
+                    state = object ? KEY : VALUE;
+                } else if (c == (object ? '}' : ']')) {
+                    i += 1;
+                    depth -= 1;
+                    if (object && hasDuplicate(b, keys, keyBases[depth], keyTop)) {
+                        return false;
+                    }
+                    keyTop = keyBases[depth];
+                    if (depth == 0) {
+                        return i == end;
+                    }
+                } else {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Skip the whitespace that strict JSON allows.
+     * @return The index of the first character that is not whitespace.
+     */
+    private static int skipWhitespace(char[] b, int i, int end) {
+        while (i < end && (b[i] == ' ' || b[i] == '\t' || b[i] == '\n' || b[i] == '\r')) {
+            i += 1;
+        }
+        return i;
+    }
+
+    /**
+     * Scan a strict JSON string.
+     * @return The index after the closing quote, or -1 if the string is not
+     *         strict or is not closed.
+     */
+    private static int scanString(char[] b, int i, int end, boolean escapes) {
+        for (i += 1; i < end; i += 1) {
+            char c = b[i];
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c < ' ') {
+                return -1;
+            }
+            if (c == '\\') {
+                if (!escapes || i + 1 >= end) {
+                    return -1;
+                }
+                i += 1;
+                switch (b[i]) {
+                case '"':
+                case '\\':
+                case '/':
+                case 'b':
+                case 'f':
+                case 'n':
+                case 'r':
+                case 't':
+                    break;
+                case 'u':
+                    if (i + 4 >= end) {
+                        return -1;
+                    }
+                    for (int j = 1; j <= 4; j += 1) {
+                        if (JSONTokener.dehexchar(b[i + j]) < 0) {
+                            return -1;
+                        }
+                    }
+                    i += 4;
+                    break;
+                default:
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Scan a strict JSON number.
+     * @return The index after the number, or -1 if it is not strict.
+     */
+    private static int scanNumber(char[] b, int i, int end) {
+        if (b[i] == '-') {
+            i += 1;
+        }
+        if (i < end && b[i] == '0') {
+            i += 1;
+        } else {
+            int digits = i;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                i += 1;
+            }
+            if (i == digits) {
+                return -1;
+            }
+        }
+        if (i < end && b[i] == '.') {
+            i += 1;
+            int digits = i;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                i += 1;
+            }
+            if (i == digits) {
+                return -1;
+            }
+        }
+        if (i < end && (b[i] == 'e' || b[i] == 'E')) {
+            i += 1;
+            if (i < end && (b[i] == '+' || b[i] == '-')) {
+                i += 1;
+            }
+            int digits = i;
+            while (i < end && b[i] >= '0' && b[i] <= '9') {
+                i += 1;
+            }
+            if (i == digits) {
+                return -1;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Scan a literal word.
+     * @return The index after the word, or -1 if it is not there.
+     */
+    private static int scanWord(char[] b, int i, int end, String word) {
+        if (end - i < word.length()) {
+            return -1;
+        }
+        for (int j = 0; j < word.length(); j += 1) {
+            if (b[i + j] != word.charAt(j)) {
+                return -1;
+            }
+        }
+        return i + word.length();
+    }
+
+    /**
+     * Check the keys of one object for duplicates.
+     * @param b The text.
+     * @param keys The start and end of each key, in pairs.
+     * @param from The index in keys of the first key of the object.
+     * @param to The index in keys after the last key of the object.
+     * @return true if two keys are equal.
+     */
+    private static boolean hasDuplicate(char[] b, int[] keys, int from, int to) {
+        if (to - from <= 32) {
+            for (int i = from; i < to; i += 2) {
+                for (int j = i + 2; j < to; j += 2) {
+                    if (regionEquals(b, keys[i], keys[i + 1], keys[j], keys[j + 1])) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        Set<String> seen = new HashSet<String>();
+        for (int i = from; i < to; i += 2) {
+            if (!seen.add(new String(b, keys[i], keys[i + 1] - keys[i]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compare two ranges of text.
+     */
+    private static boolean regionEquals(char[] b, int start1, int end1, int start2, int end2) {
+        if (end1 - start1 != end2 - start2) {
+            return false;
+        }
+        for (int i = 0; i < end1 - start1; i += 1) {
+            if (b[start1 + i] != b[start2 + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This provides static methods to read and write JSON Lines text, which is
+ * also known as newline delimited JSON. Each line of the text holds one JSON
+ * value, usually a JSONObject. Lines are separated by '\n'; a '\r' before
+ * the '\n' is white space, and so are blank lines, which are skipped.
+ * <p>
+ * The text is read in large chunks that end at line breaks. A JSON string
+ * cannot hold a raw line break, so each chunk holds whole records and can be
+ * parsed on its own, on a fork/join pool if one is given. Only a few chunks
+ * are read ahead of the values that have been returned, so the memory used
+ * does not depend on the length of the text.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+public class JSONLines {
+
+    /**
+     * Produce an iterator over the values of JSON Lines text, parsing the
+     * records on the calling thread.
+     * @param reader The source of the JSON Lines text. The caller must close
+     *  the reader.
+     * @return An iterator of the values, such as JSONObjects.
+     */
+    public static Iterator<Object> read(Reader reader) {
+        return new JSONLinesIterator(reader, null, true);
+    }
+
+    /**
+     * Produce an iterator over the values of JSON Lines text, parsing chunks
+     * of records on a pool. The records are read on the calling thread as
+     * the values are requested, and a few chunks are parsed ahead of them.
+     * <p>
+     * An ordered iterator returns the values in the order of the text, and a
+     * syntax error is thrown when the iterator reaches the record that holds
+     * it. An unordered iterator returns the values of each chunk as soon as
+     * that chunk has been parsed, which keeps the pool busier; the values of
+     * a chunk are still in order.
+     * @param reader The source of the JSON Lines text. The caller must close
+     *  the reader.
+     * @param pool The pool to parse the chunks on.
+     * @param ordered Whether the values must be returned in the order of the
+     *  text.
+     * @return An iterator of the values, such as JSONObjects.
+     */
+    public static Iterator<Object> read(Reader reader, ForkJoinPool pool, boolean ordered) {
+        if (pool == null) {
+            throw new NullPointerException("Null pool.");
+        }
+        return new JSONLinesIterator(reader, pool, ordered);
+    }
+
+    /**
+     * Write values as JSON Lines text, one value to a line. Each line ends
+     * with '\n'.
+     * @param values The values, such as JSONObjects.
+     * @param writer The writer to receive the JSON Lines text.
+     * @return The writer.
+     * @throws JSONException If a value is not a valid JSON value or the
+     *  writer fails.
+     */
+    public static Writer write(Iterable<?> values, Writer writer) throws JSONException {
+        try {
+            for (Object value : values) {
+                JSONObject.writeValue(writer, value, 0, 0);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return writer;
+    }
+}
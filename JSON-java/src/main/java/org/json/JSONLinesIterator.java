@@ -0,0 +1,479 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Iterates the values of JSON Lines text for {@link JSONLines}, or of other
+ * text whose records never span a '\n', such as the rows of {@link CDL}. The
+ * text is read in chunks that end after a '\n', and each chunk is parsed as
+ * a task, either on the calling thread or on a pool. With a pool, up to twice
+ * its parallelism of chunks are read ahead of the values that are returned.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONLinesIterator implements Iterator<Object> {
+
+    /** The number of characters read for a chunk, unless a line is longer. */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /** Parses the records of JSON Lines text, one value to a line. */
+    static final LineParser JSON_LINES = new LineParser() {
+        @Override
+        public boolean parse(char[] b, int start, int end, boolean lineBreak, long line,
+                List<Object> values) {
+            Object value = parseRecord(b, start, end, line);
+            if (value != null) {
+                values.add(value);
+            }
+            return true;
+        }
+    };
+
+    /** Stands in the values of a chunk for the line that ends the text. */
+    private static final Object END = new Object();
+
+    /** The source. */
+    private final Reader reader;
+
+    /** The parser of the lines. */
+    private final LineParser parser;
+
+    /** The pool, or null to parse on the calling thread. */
+    private final ForkJoinPool pool;
+
+    /** The tasks in the order they were submitted, if the values are ordered. */
+    private final ArrayDeque<Task> pending;
+
+    /** The tasks in the order they finish, if the values are not ordered. */
+    private final BlockingQueue<Task> completed;
+
+    /** The largest number of chunks that are read but not yet returned. */
+    private final int window;
+
+    /** The number of chunks submitted to the pool and not yet taken. */
+    private int submitted;
+
+    /** Whether a '\n' was added after the last line of the text. */
+    private boolean added;
+
+    /** The characters read after the last '\n', which start the next chunk. */
+    private char[] carry = new char[CHUNK_SIZE];
+
+    /** The number of characters in carry. */
+    private int carried;
+
+    /** The line number of the first line of the next chunk. */
+    private long line = 1;
+
+    /** Whether the end of the source has been read. */
+    private boolean eof;
+
+    /** The values of the current chunk. */
+    private List<Object> values;
+
+    /** The index of the next value in values. */
+    private int next;
+
+    /**
+     * Construct an iterator.
+     * @param reader The source.
+     * @param pool The pool to parse on, or null to parse on the calling thread.
+     * @param ordered Whether the values must be returned in the order of the text.
+     */
+    JSONLinesIterator(Reader reader, ForkJoinPool pool, boolean ordered) {
+        this(reader, JSON_LINES, pool, ordered);
+    }
+
+    /**
+     * Construct an iterator with a parser for the lines. Only an ordered
+     * iterator stops at the line that ends the text.
+     * @param reader The source.
+     * @param parser The parser of the lines.
+     * @param pool The pool to parse on, or null to parse on the calling thread.
+     * @param ordered Whether the values must be returned in the order of the text.
+     */
+    JSONLinesIterator(Reader reader, LineParser parser, ForkJoinPool pool, boolean ordered) {
+        this.reader = reader;
+        this.parser = parser;
+        this.pool = pool;
+        if (pool == null) {
+            this.pending = null;
+            this.completed = null;
+            this.window = 1;
+        } else {
+            this.window = Math.max(2, pool.getParallelism() * 2);
+            if (ordered) {
+                this.pending = new ArrayDeque<Task>(this.window);
+                this.completed = null;
+            } else {
+                this.pending = null;
+                this.completed = new LinkedBlockingQueue<Task>();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (this.values == null || this.next >= this.values.size()) {
+            this.values = null;
+            this.next = 0;
+            if (this.pool == null) {
+                Chunk chunk = this.readChunk();
+                if (chunk == null) {
+                    return false;
+                }
+                this.values = chunk.call();
+            } else {
+                this.submit();
+                if (this.submitted == 0) {
+                    return false;
+                }
+                this.values = this.take();
+            }
+        }
+        Object value = this.values.get(this.next);
+        if (value == END) {
+            this.values = null;
+            this.abandon();
+            return false;
+        }
+        if (value instanceof Failure) {
+            this.values = null;
+            this.abandon();
+            throw ((Failure) value).exception;
+        }
+        return true;
+    }
+
+    @Override
+    public Object next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object value = this.values.get(this.next);
+        this.values.set(this.next, null);
+        this.next += 1;
+        return value;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read chunks and submit them to the pool until the window is full or
+     * the source is exhausted.
+     */
+    private void submit() {
+        while (this.submitted < this.window) {
+            Chunk chunk = this.readChunk();
+            if (chunk == null) {
+                return;
+            }
+            Task task = new Task(chunk, this.completed);
+            if (this.pending != null) {
+                this.pending.addLast(task);
+            }
+            this.pool.execute(task);
+            this.submitted += 1;
+        }
+    }
+
+    /**
+     * Wait for the next chunk to be parsed.
+     * @return The values of the chunk.
+     * @throws JSONException If the chunk has a syntax error, in which case
+     *  the chunks after it are abandoned.
+     */
+    private List<Object> take() {
+        try {
+            Task task = this.pending != null
+                    ? this.pending.removeFirst() : this.completed.take();
+            this.submitted -= 1;
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.abandon();
+            throw new JSONException(e);
+        } catch (ExecutionException e) {
+            this.abandon();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JSONException(cause);
+        }
+    }
+
+    /**
+     * Stop reading after a failure.
+     */
+    private void abandon() {
+        this.eof = true;
+        this.carried = 0;
+        if (this.pending != null) {
+            for (Task task : this.pending) {
+                task.cancel(false);
+            }
+            this.pending.clear();
+        }
+        // tasks still running in an unordered iterator are left to finish
+        this.submitted = 0;
+    }
+
+    /**
+     * Read the next chunk of whole lines.
+     * @return The chunk, or null at the end of the source.
+     * @throws JSONException If the source cannot be read.
+     */
+    private Chunk readChunk() {
+        char[] buffer = this.carry;
+        int length = this.carried;
+        int end = -1;
+        try {
+            while (!this.eof) {
+                if (length == buffer.length) {
+                    if (end >= 0) {
+                        break;
+                    }
+                    // a line longer than the buffer
+                    char[] larger = new char[buffer.length * 2];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+                int n = this.reader.read(buffer, length, buffer.length - length);
+                if (n < 0) {
+                    this.eof = true;
+                    break;
+                }
+                for (int i = length + n - 1; i >= length; i -= 1) {
+                    if (buffer[i] == '\n') {
+                        end = i + 1;
+                        break;
+                    }
+                }
+                length += n;
+                if (end >= 0 && !this.reader.ready()) {
+                    // hand over the whole lines that have arrived
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        if (this.eof) {
+            if (length == 0) {
+                return null;
+            }
+            if (buffer[length - 1] != '\n') {
+                // end the last line like the others
+                if (length == buffer.length) {
+                    char[] larger = new char[length + 1];
+                    System.arraycopy(buffer, 0, larger, 0, length);
+                    buffer = larger;
+                }
+                buffer[length] = '\n';
+                length += 1;
+                this.added = true;
+            }
+            end = length;
+        }
+        this.carry = new char[Math.max(CHUNK_SIZE, length - end)];
+        this.carried = length - end;
+        System.arraycopy(buffer, end, this.carry, 0, this.carried);
+        Chunk chunk = new Chunk(this.parser, buffer, end, this.added, this.line);
+        for (int i = 0; i < end; i += 1) {
+            if (buffer[i] == '\n') {
+                this.line += 1;
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Parse one record.
+     * @param b The buffer.
+     * @param start The index of the first character of the line.
+     * @param end The index of the '\n' that ends the line.
+     * @param line The line number.
+     * @return The value, or null if the line is blank.
+     * @throws JSONException If the line does not hold exactly one value.
+     */
+    private static Object parseRecord(char[] b, int start, int end, long line) {
+        int i = start;
+        while (i < end && b[i] <= ' ') {
+            i += 1;
+        }
+        if (i == end) {
+            return null;
+        }
+        try {
+            // the tokener sees the '\n' too, so a value never runs to
+            // the end of its input
+            JSONTokener x = new JSONTokener(b, i, end + 1, JSONParserConfiguration.ORIGINAL);
+            Object value = x.nextValue();
+            if (x.nextClean() != 0) {
+                throw x.syntaxError("Expected the end of the record");
+            }
+            return value;
+        } catch (JSONException e) {
+            throw new JSONException("Invalid record on line " + line + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses the records of one line. A parser is called on the threads of
+     * the pool, so it must not change.
+     */
+    interface LineParser {
+
+        /**
+         * Parse the records of one line.
+         * @param b The buffer.
+         * @param start The index of the first character of the line.
+         * @param end The index of the '\n' that ends the line.
+         * @param lineBreak Whether the '\n' is in the text, rather than added
+         *  after a last line that does not end with one.
+         * @param line The line number.
+         * @param values The list to add the values of the line to.
+         * @return false if the line ends the text, so nothing after it is
+         *  parsed.
+         * @throws JSONException If the line cannot be parsed.
+         */
+        boolean parse(char[] b, int start, int end, boolean lineBreak, long line,
+                List<Object> values);
+    }
+
+    /**
+     * Stands in the values of a chunk for the record that could not be
+     * parsed. Nothing after it is parsed.
+     */
+    private static final class Failure {
+
+        /** The exception for the record. */
+        final RuntimeException exception;
+
+        Failure(RuntimeException exception) {
+            this.exception = exception;
+        }
+    }
+
+    /**
+     * A chunk that has been submitted to the pool. A FutureTask, unlike a
+     * ForkJoinTask, reports the exception that the chunk threw as it is.
+     */
+    private static final class Task extends FutureTask<List<Object>> {
+
+        /** The queue to add the task to when it is done, or null. */
+        private final BlockingQueue<Task> completed;
+
+        Task(Chunk chunk, BlockingQueue<Task> completed) {
+            super(chunk);
+            this.completed = completed;
+        }
+
+        @Override
+        protected void done() {
+            if (this.completed != null) {
+                this.completed.add(this);
+            }
+        }
+    }
+
+    /**
+     * Parses the records of one chunk.
+     */
+    private static final class Chunk implements Callable<List<Object>> {
+
+        /** The parser of the lines. */
+        private final LineParser parser;
+
+        /** The characters of the chunk, from index 0, ending with '\n'. */
+        private final char[] buffer;
+
+        /** The number of characters in the chunk. */
+        private final int length;
+
+        /** Whether the last '\n' of the chunk was added after the text. */
+        private final boolean added;
+
+        /** The line number of the first line of the chunk. */
+        private final long line;
+
+        Chunk(LineParser parser, char[] buffer, int length, boolean added, long line) {
+            this.parser = parser;
+            this.buffer = buffer;
+            this.length = length;
+            this.added = added;
+            this.line = line;
+        }
+
+        @Override
+        public List<Object> call() {
+            List<Object> values = new ArrayList<Object>();
+            char[] b = this.buffer;
+            long line = this.line;
+            int start = 0;
+            try {
+                while (start < this.length) {
+                    int end = start;
+                    while (b[end] != '\n') {
+                        end += 1;
+                    }
+                    boolean lineBreak = !this.added || end + 1 < this.length;
+                    if (!this.parser.parse(b, start, end, lineBreak, line, values)) {
+                        values.add(END);
+                        break;
+                    }
+                    start = end + 1;
+                    line += 1;
+                }
+            } catch (RuntimeException e) {
+                // the values before the failure are still returned
+                values.add(new Failure(e));
+            }
+            return values;
+        }
+    }
+}
@@ -27,13 +27,11 @@ import java.io.Closeable;
  */
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
@@ -45,6 +43,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 /**
@@ -162,7 +161,7 @@ public class JSONObject {
     /**
      * The map where the JSONObject's properties are kept.
      */
-    private final Map<String, Object> map;
+    private final JSONObjectMap map;
 
     /**
      * It is sometimes more convenient and less ambiguous to have a
@@ -176,13 +175,14 @@ public class JSONObject {
      * Construct an empty JSONObject.
      */
     public JSONObject() {
-        // HashMap is used on purpose to ensure that elements are unordered by
-        // the specification.
+        // JSONObjectMap is used on purpose to ensure that elements are
+        // unordered by the specification. It keeps small objects in flat
+        // arrays and moves larger ones to a HashMap.
         // JSON tends to be a portable transfer format to allows the container
         // implementations to rearrange their items for a faster element
         // retrieval based on associative access.
         // Therefore, an implementation mustn't rely on the order of the item.
-        this.map = new HashMap<String, Object>();
+        this.map = new JSONObjectMap();
     }
 
     /**
@@ -216,62 +216,34 @@ public class JSONObject {
      */
     public JSONObject(JSONTokener x) throws JSONException {
         this();
-        char c;
-        String key;
-
         if (x.nextClean() != '{') {
             throw x.syntaxError("A JSONObject text must begin with '{'");
         }
-        for (;;) {
-            c = x.nextClean();
-            switch (c) {
-            case 0:
-                throw x.syntaxError("A JSONObject text must end with '}'");
-            case '}':
-                return;
-            default:
-                x.back();
-                key = x.nextValue().toString();
-            }
-
-            // The key is followed by ':'.
-
-            c = x.nextClean();
-            if (c != ':') {
-                throw x.syntaxError("Expected a ':' after a key");
-            }
-
-            // Use syntaxError(..) to include error location
-
-            if (key != null) {
-                // Check if key exists
-                if (this.opt(key) != null) {
-                    // key already exists
-                    throw x.syntaxError("Duplicate key \"" + key + "\"");
-                }
-                // Only add value if non-null
-                Object value = x.nextValue();
-                if (value!=null) {
-                    this.put(key, value);
-                }
-            }
-
-            // Pairs are separated by ','.
+        new JSONReader(x, true).readInto(this);
+    }
 
-            switch (x.nextClean()) {
-            case ';':
-            case ',':
-                if (x.nextClean() == '}') {
-                    return;
-                }
-                x.back();
-                break;
-            case '}':
-                return;
-            default:
-                throw x.syntaxError("Expected a ',' or '}'");
-            }
+    /**
+     * Make a bean from a JSON object text read from a tokener. The members are
+     * read directly into the properties of the bean, as by
+     * {@link #toBean(Class)}, without making a JSONObject.
+     *
+     * @param <T>
+     *            The type of the bean.
+     * @param x
+     *            A JSONTokener positioned at a JSON object text.
+     * @param klass
+     *            The class of the bean.
+     * @return A new instance of the class.
+     * @throws JSONException
+     *             If there is a syntax error, if the class cannot be
+     *             instantiated, if a value cannot be converted, or if a setter
+     *             throws.
+     */
+    public static <T> T toBean(JSONTokener x, Class<T> klass) throws JSONException {
+        if (x.nextClean() != '{') {
+            throw x.syntaxError("A JSONObject text must begin with '{'");
         }
+        return klass.cast(JSONBeanBinder.forClass(klass).read(new JSONReader(x, true)));
     }
 
     /**
@@ -287,9 +259,9 @@ public class JSONObject {
      */
     public JSONObject(Map<?, ?> m) {
         if (m == null) {
-            this.map = new HashMap<String, Object>();
+            this.map = new JSONObjectMap();
         } else {
-            this.map = new HashMap<String, Object>(m.size());
+            this.map = new JSONObjectMap(m.size());
         	for (final Entry<?, ?> e : m.entrySet()) {
         	    if(e.getKey() == null) {
         	        throw new NullPointerException("Null key.");
@@ -362,7 +334,7 @@ public class JSONObject {
      */
     public JSONObject(Object bean) {
         this();
-        this.populateMap(bean);
+        this.populateMap(bean, JSONBeanInfo.forClass(bean.getClass()));
     }
 
     /**
@@ -458,7 +430,7 @@ public class JSONObject {
      * @param initialCapacity initial capacity of the internal map.
      */
     protected JSONObject(int initialCapacity){
-        this.map = new HashMap<String, Object>(initialCapacity);
+        this.map = new JSONObjectMap(initialCapacity);
     }
 
     /**
@@ -965,6 +937,16 @@ public class JSONObject {
         return this.map.entrySet();
     }
 
+    /**
+     * Get a set of entries as they are stored. Unlike {@link #entrySet()},
+     * the values of a lazily parsed object are not parsed.
+     *
+     * @return An Entry Set
+     */
+    Set<Entry<String, Object>> rawEntrySet() {
+        return this.map.rawEntrySet();
+    }
+
     /**
      * Get the number of keys stored in the JSONObject.
      *
@@ -1518,201 +1500,32 @@ public class JSONObject {
      *
      * @param bean
      *            the bean
+     * @param info
+     *            the bean properties of the class of the bean
      */
-    private void populateMap(Object bean) {
-        Class<?> klass = bean.getClass();
-
-        // If klass is a System class then set includeSuperClass to false.
-
-        boolean includeSuperClass = klass.getClassLoader() != null;
-
-        Method[] methods = includeSuperClass ? klass.getMethods() : klass.getDeclaredMethods();
-        for (final Method method : methods) {
-            final int modifiers = method.getModifiers();
-            if (Modifier.isPublic(modifiers)
-                    && !Modifier.isStatic(modifiers)
-                    && method.getParameterTypes().length != 0
-                    && !method.isBridge()
-                    && method.getReturnType() == Void.TYPE
-                    && isValidMethodName(method.getName())) {
-                final String key = getKeyNameFromMethod(method);
-                if (key != null && !key.isEmpty()) {
-                    try {
-                        final Object result = method.invoke(bean);
-                        if (result != null) {
-                            this.map.put(key, wrap(result));
-                            // we don't use the result anywhere outside of wrap
-                            // if it's a resource we should be sure to close it
-                            // after calling toString
-                            if (result instanceof Closeable) {
-                                try {
-                                    ((Closeable) result).close();
-                                } catch (IOException ignore) {
-                                }
-                            }
+    private void populateMap(Object bean, JSONBeanInfo info) {
+        for (int i = 0; i < info.keys.length; i++) {
+            try {
+                final Object result = info.get(i, bean);
+                if (result != null) {
+                    this.map.put(info.keys[i], wrap(result));
+                    // we don't use the result anywhere outside of wrap
+                    // if it's a resource we should be sure to close it
+                    // after calling toString
+                    if (result instanceof Closeable) {
+                        try {
+                            ((Closeable) result).close();
+                        } catch (IOException ignore) {
                         }
-                    } catch (IllegalAccessException ignore) {
-                    } catch (IllegalArgumentException ignore) {
-                    } catch (InvocationTargetException ignore) {
                     }
                 }
+            } catch (IllegalAccessException ignore) {
+            } catch (IllegalArgumentException ignore) {
+            } catch (InvocationTargetException ignore) {
             }
         }
     }
 
-    private static boolean isValidMethodName(String name) {
-        return !"getClass".equals(name) && !"getDeclaringClass".equals(name);
-    }
-
-    private static String getKeyNameFromMethod(Method method) {
-        final int ignoreDepth = getAnnotationDepth(method, JSONPropertyIgnore.class);
-        if (ignoreDepth > 0) {
-            final int forcedNameDepth = getAnnotationDepth(method, JSONPropertyName.class);
-            if (forcedNameDepth < 0 || ignoreDepth <= forcedNameDepth) {
-                // the hierarchy asked to ignore, and the nearest name override
-                // was higher or non-existent
-                return null;
-            }
-        }
-        JSONPropertyName annotation = getAnnotation(method, JSONPropertyName.class);
-        if (annotation != null && annotation.value() != null && !annotation.value().isEmpty()) {
-            return annotation.value();
-        }
-        String key;
-        final String name = method.getName();
-        if (name.startsWith("get") && name.length() > 3) {
-            key = name.substring(3);
-        } else if (name.startsWith("is") && name.length() > 2) {
-            key = name.substring(2);
-        } else {
-            return null;
-        }
-        // if the first letter in the key is not uppercase, then skip.
-        // This is to maintain backwards compatibility before PR406
-        // (https://github.com/stleary/JSON-java/pull/406/)
-        if (key.length() == 0 || Character.isLowerCase(key.charAt(0))) {
-            return null;
-        }
-        if (key.length() == 1) {
-            key = key.toLowerCase(Locale.ROOT);
-        } else if (!Character.isUpperCase(key.charAt(1))) {
-            key = key.substring(0, 1).toLowerCase(Locale.ROOT) + key.substring(1);
-        }
-        return key;
-    }
-
-    /**
-     * Searches the class hierarchy to see if the method or it's super
-     * implementations and interfaces has the annotation.
-     *
-     * @param <A>
-     *            type of the annotation
-     *
-     * @param m
-     *            method to check
-     * @param annotationClass
-     *            annotation to look for
-     * @return the {@link Annotation} if the annotation exists on the current method
-     *         or one of its super class definitions
-     */
-    private static <A extends Annotation> A getAnnotation(final Method m, final Class<A> annotationClass) {
-        // if we have invalid data the result is null
-        if (m == null || annotationClass == null) {
-            return null;
-        }
-
-        if (m.isAnnotationPresent(annotationClass)) {
-            return m.getAnnotation(annotationClass);
-        }
-
-        // if we've already reached the Object class, return null;
-        Class<?> c = m.getDeclaringClass();
-        if (c.getSuperclass() == null) {
-            return null;
-        }
-
-        // check directly implemented interfaces for the method being checked
-        for (Class<?> i : c.getInterfaces()) {
-            try {
-                Method im = i.getMethod(m.getName(), m.getParameterTypes());
-                return getAnnotation(im, annotationClass);
-            } catch (final SecurityException ex) {
-                continue;
-            } catch (final NoSuchMethodException ex) {
-                continue;
-            }
-        }
-
-        try {
-            return getAnnotation(
-                    c.getSuperclass().getMethod(m.getName(), m.getParameterTypes()),
-                    annotationClass);
-        } catch (final SecurityException ex) {
-            return null;
-        } catch (final NoSuchMethodException ex) {
-            return null;
-        }
-    }
-
-    /**
-     * Searches the class hierarchy to see if the method or it's super
-     * implementations and interfaces has the annotation. Returns the depth of the
-     * annotation in the hierarchy.
-     *
-     * @param m
-     *            method to check
-     * @param annotationClass
-     *            annotation to look for
-     * @return Depth of the annotation or -1 if the annotation is not on the method.
-     */
-    private static int getAnnotationDepth(final Method m, final Class<? extends Annotation> annotationClass) {
-        // if we have invalid data the result is -1
-        if (m == null || annotationClass == null) {
-            return -1;
-        }
-
-        if (m.isAnnotationPresent(annotationClass)) {
-            return 1;
-        }
-
-        // if we've already reached the Object class, return -1;
-        Class<?> c = m.getDeclaringClass();
-        if (c.getSuperclass() == null) {
-            return -1;
-        }
-
-        // check directly implemented interfaces for the method being checked
-        for (Class<?> i : c.getInterfaces()) {
-            try {
-                Method im = i.getMethod(m.getName(), m.getParameterTypes());
-                int d = getAnnotationDepth(im, annotationClass);
-                if (d > 0) {
-                    // since the annotation was on the interface, add 1
-                    return d + 1;
-                }
-            } catch (final SecurityException ex) {
-                continue;
-            } catch (final NoSuchMethodException ex) {
-                continue;
-            }
-        }
-
-        try {
-            int d = getAnnotationDepth(
-                    c.getSuperclass().getMethod(m.getName(), m.getParameterTypes()),
-                    annotationClass);
-            if (d > 0) {
-                // since the annotation was on the superclass, add 1
-                return d + 1;
-            }
-            return -1;
-        } catch (final SecurityException ex) {
-            return -1;
-        } catch (final NoSuchMethodException ex) {
-            return -1;
-        }
-    }
-
     /**
      * Put a key/boolean pair in the JSONObject.
      *
@@ -1992,14 +1805,13 @@ public class JSONObject {
      * @return A String correctly formatted for insertion in a JSON text.
      */
     public static String quote(String string) {
-        StringWriter sw = new StringWriter();
-        synchronized (sw.getBuffer()) {
-            try {
-                return quote(string, sw).toString();
-            } catch (IOException ignored) {
-                // will never happen - we are writing to a string writer
-                return "";
-            }
+        StringBuilderWriter sw = new StringBuilderWriter(
+                string == null ? 2 : string.length() + 16);
+        try {
+            return quote(string, sw).toString();
+        } catch (IOException ignored) {
+            // will never happen - we are writing to a string builder
+            return "";
         }
     }
 
@@ -2014,11 +1826,19 @@ public class JSONObject {
         String hhhh;
         int i;
         int len = string.length();
+        // characters that need no escaping are written in runs
+        int start = 0;
 
         w.write('"');
         for (i = 0; i < len; i += 1) {
             b = c;
             c = string.charAt(i);
+            if (c >= ' ' && c < '\u0080' && c != '\\' && c != '"'
+                    && (c != '/' || b != '<')) {
+                continue;
+            }
+            w.write(string, start, i - start);
+            start = i + 1;
             switch (c) {
             case '\\':
             case '"':
@@ -2026,10 +1846,7 @@ public class JSONObject {
                 w.write(c);
                 break;
             case '/':
-                if (b == '<') {
-                    w.write('\\');
-                }
-                w.write(c);
+                w.write("\\/");
                 break;
             case '\b':
                 w.write("\\b");
@@ -2058,6 +1875,7 @@ public class JSONObject {
                 }
             }
         }
+        w.write(string, start, len - start);
         w.write('"');
         return w;
     }
@@ -2074,6 +1892,65 @@ public class JSONObject {
         return this.map.remove(key);
     }
 
+    /**
+     * Make a bean of a class from the members of this JSONObject, the
+     * counterpart of {@link #JSONObject(Object)}. The class must have a no
+     * argument constructor. Each member sets the property of the same key
+     * name, through a setter such as <code>setName</code> for the key
+     * <code>"name"</code>, or else through a public field. The key names of
+     * setters follow the rules for getters, so the {@link JSONPropertyName}
+     * and {@link JSONPropertyIgnore} annotations may be used on setters and
+     * fields too. Members that have no property are ignored.
+     * <p>
+     * A value is converted to the declared type of its property: strings and
+     * numbers to the numeric types, strings to booleans, characters, and enum
+     * constants, and nested JSONObjects and JSONArrays to beans, maps,
+     * collections, and arrays, whose element types are taken from the generic
+     * declaration of the property. A null value leaves a primitive property
+     * unchanged.
+     * <p>
+     * The setters and fields of a class are examined once and cached.
+     *
+     * @param <T>
+     *            The type of the bean.
+     * @param klass
+     *            The class of the bean.
+     * @return A new instance of the class.
+     * @throws JSONException
+     *             If the class cannot be instantiated, if a value cannot be
+     *             converted, or if a setter throws.
+     */
+    public <T> T toBean(Class<T> klass) throws JSONException {
+        return klass.cast(JSONBeanBinder.forClass(klass).toBean(this));
+    }
+
+    /**
+     * Get a hash of the contents of this JSONObject that agrees with
+     * {@link #similar(Object)}: similar JSONObjects have the same similarity
+     * hash, so JSONObjects with different hashes are not similar. This makes
+     * the hash usable for sets and maps of documents that are compared with
+     * similar.
+     * <p>
+     * The hash is kept until this JSONObject, or a JSONObject or JSONArray
+     * nested in it, is changed. While the hash is kept, similar rejects a
+     * JSONObject with a different hash without comparing the contents.
+     *
+     * @return The similarity hash.
+     * @throws JSONException
+     *             If a value that was parsed lazily is not valid JSON.
+     */
+    public int similarityHash() {
+        return JSONFingerprint.of(this.map).hash;
+    }
+
+    /**
+     * Get the fingerprint behind {@link #similarityHash()}.
+     * @return The fingerprint.
+     */
+    JSONFingerprint fingerprint() {
+        return JSONFingerprint.of(this.map);
+    }
+
     /**
      * Determine if two JSONObjects are similar.
      * They must contain the same set of names which must be associated with
@@ -2087,6 +1964,9 @@ public class JSONObject {
             if (!(other instanceof JSONObject)) {
                 return false;
             }
+            if (JSONFingerprint.differ(this.map, ((JSONObject) other).map)) {
+                return false;
+            }
             if (!this.keySet().equals(((JSONObject)other).keySet())) {
                 return false;
             }
@@ -2234,6 +2114,16 @@ public class JSONObject {
             // This will narrow any values to the smallest reasonable Object representation
             // (Integer, Long, or BigInteger)
 
+            // Up to 18 characters always fit in a long, so there is no need
+            // for a BigInteger.
+            if (val.length() <= 18) {
+                long l = Long.parseLong(val);
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                    return Integer.valueOf((int) l);
+                }
+                return Long.valueOf(l);
+            }
+
             // BigInteger down conversion: We use a similar bitLength compare as
             // BigInteger#intValueExact uses. Increases GC, but objects hold
             // only what they need. i.e. Less runtime overhead if the value is
@@ -2283,8 +2173,7 @@ public class JSONObject {
          * produced, then the value will just be a string.
          */
 
-        char initial = string.charAt(0);
-        if ((initial > 0 && initial <= 9) || initial == '-') {
+        if (isNumberInitial(string.charAt(0))) {
             try {
                 return stringToNumber(string);
             } catch (Exception ignore) {
@@ -2293,6 +2182,146 @@ public class JSONObject {
         return string;
     }
 
+    /**
+     * Determine if a value starting with a character might be a number.
+     *
+     * @param initial
+     *            The first character of the value.
+     * @return true if stringToValue should try converting the value to a
+     *         number.
+     */
+    private static boolean isNumberInitial(char initial) {
+        return (initial >= '0' && initial <= '9') || initial == '-';
+    }
+
+    /**
+     * Try to convert characters into a number, boolean, or null, with the same
+     * results as {@link #stringToValue(String)}. Plain numbers of up to 18
+     * digits are converted without creating a String or a BigInteger.
+     *
+     * @param chars
+     *            The characters of the value.
+     * @param offset
+     *            The index of the first character.
+     * @param length
+     *            The number of characters; must be at least 1.
+     * @return A simple JSON value.
+     */
+    static Object stringToValue(char[] chars, int offset, int length) {
+        if (isNumberInitial(chars[offset])) {
+            Number number = parseNumber(chars, offset, length);
+            if (number != null) {
+                return number;
+            }
+        }
+        return stringToValue(new String(chars, offset, length));
+    }
+
+    /**
+     * Parse a plain number of up to 18 digits directly from characters. The
+     * result is the same as {@link #stringToNumber(String)}: an Integer or a
+     * Long for integers, a BigDecimal for decimals, and -0.0 for negative
+     * zero.
+     *
+     * @param chars
+     *            The characters of the number.
+     * @param offset
+     *            The index of the first character.
+     * @param length
+     *            The number of characters.
+     * @return The number, or null if the characters are not a plain number
+     *         that fits in a long, in which case stringToNumber decides.
+     */
+    static Number parseNumber(char[] chars, int offset, int length) {
+        final int end = offset + length;
+        int i = offset;
+        final boolean negative = i < end && chars[i] == '-';
+        if (negative) {
+            i++;
+        }
+        final int integerStart = i;
+        long unscaled = 0;
+        while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+            unscaled = unscaled * 10 + (chars[i] - '0');
+            i++;
+        }
+        final int integerDigits = i - integerStart;
+        if (integerDigits == 0 || integerDigits > 18) {
+            return null;
+        }
+        if (i == end) {
+            // 00, -01 and the like are not numbers, and -0 is a decimal
+            if (chars[integerStart] == '0' && (integerDigits > 1 || negative)) {
+                return null;
+            }
+            final long l = negative ? -unscaled : unscaled;
+            if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                return Integer.valueOf((int) l);
+            }
+            return Long.valueOf(l);
+        }
+        int fractionDigits = 0;
+        if (chars[i] == '.') {
+            i++;
+            final int fractionStart = i;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                unscaled = unscaled * 10 + (chars[i] - '0');
+                i++;
+            }
+            fractionDigits = i - fractionStart;
+            if (fractionDigits == 0 || integerDigits + fractionDigits > 18) {
+                return null;
+            }
+        }
+        int exponent = 0;
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (chars[i] == '+' || chars[i] == '-')) {
+                negativeExponent = chars[i] == '-';
+                i++;
+            }
+            final int exponentStart = i;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                exponent = exponent * 10 + (chars[i] - '0');
+                i++;
+            }
+            if (i == exponentStart || i - exponentStart > 9) {
+                return null;
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != end) {
+            return null;
+        }
+        if (negative && unscaled == 0) {
+            // BigDecimal doesn't support -0.0
+            return Double.valueOf(-0.0);
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, fractionDigits - exponent);
+    }
+
+    /**
+     * Convert a parsed decimal to a Double, for a parser configured with
+     * {@link JSONParserConfiguration#withDecimalsAsDouble(boolean)}.
+     *
+     * @param value
+     *            A simple JSON value.
+     * @return The nearest Double if the value is a BigDecimal within the range
+     *         of a double, otherwise the value itself.
+     */
+    static Object decimalToDouble(Object value) {
+        if (value instanceof BigDecimal) {
+            double d = ((BigDecimal) value).doubleValue();
+            if (!Double.isInfinite(d)) {
+                return Double.valueOf(d);
+            }
+        }
+        return value;
+    }
+
     /**
      * Throw an exception if the object is a NaN or infinite number.
      *
@@ -2378,12 +2407,55 @@ public class JSONObject {
      *             If the object contains an invalid number.
      */
     public String toString(int indentFactor) throws JSONException {
-        StringWriter w = new StringWriter();
-        synchronized (w.getBuffer()) {
+        // the buffer of the thread is reused, and only grows for the
+        // largest text written so far
+        StringBuilderWriter w = StringBuilderWriter.acquire(16 + 16 * this.length());
+        try {
             return this.write(w, indentFactor, 0).toString();
+        } finally {
+            w.release();
         }
     }
 
+    /**
+     * Append the JSON text of this JSONObject to a StringBuilder, as made by
+     * {@link #toString()}. For compactness, no whitespace is added. Unlike
+     * toString, the text is not copied into a new String, so a builder can be
+     * reused for many texts.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param sb
+     *            The StringBuilder that receives the text.
+     * @return The StringBuilder.
+     * @throws JSONException
+     *             If the object contains an invalid number.
+     */
+    public StringBuilder toString(StringBuilder sb) throws JSONException {
+        return this.toString(sb, 0);
+    }
+
+    /**
+     * Append the pretty-printed JSON text of this JSONObject to a
+     * StringBuilder, as made by {@link #toString(int)}.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param sb
+     *            The StringBuilder that receives the text.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @return The StringBuilder.
+     * @throws JSONException
+     *             If the object contains an invalid number.
+     */
+    public StringBuilder toString(StringBuilder sb, int indentFactor) throws JSONException {
+        this.write(new StringBuilderWriter(sb), indentFactor, 0);
+        return sb;
+    }
+
     /**
      * Make a JSON text of an Object value. If the object has an
      * value.toJSONString() method, then that method will be used to produce the
@@ -2454,12 +2526,7 @@ public class JSONObject {
                 Map<?, ?> map = (Map<?, ?>) object;
                 return new JSONObject(map);
             }
-            Package objectPackage = object.getClass().getPackage();
-            String objectPackageName = objectPackage != null ? objectPackage
-                    .getName() : "";
-            if (objectPackageName.startsWith("java.")
-                    || objectPackageName.startsWith("javax.")
-                    || object.getClass().getClassLoader() == null) {
+            if (JSONBeanInfo.isPlatformClass(object.getClass())) {
                 return object.toString();
             }
             return new JSONObject(object);
@@ -2468,6 +2535,39 @@ public class JSONObject {
         }
     }
 
+    /**
+     * Write the separator, the indentation, and the key that come before the
+     * value of a member, when the object has more than one member.
+     *
+     * @param writer
+     *            Writes the serialized JSON
+     * @param entry
+     *            The member.
+     * @param needsComma
+     *            true if the member is not the first.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the member.
+     * @throws IOException
+     *             If the writer fails.
+     */
+    static void writeKey(Writer writer, Entry<String, ?> entry, boolean needsComma,
+            int indentFactor, int indent) throws IOException {
+        if (needsComma) {
+            writer.write(',');
+        }
+        if (indentFactor > 0) {
+            writer.write('\n');
+        }
+        indent(writer, indent);
+        quote(entry.toString(), writer);
+        writer.write(':');
+        if (indentFactor > 0) {
+            writer.write(' ');
+        }
+    }
+
     /**
      * Write the contents of the JSONObject as JSON text to a writer. For
      * compactness, no whitespace is added.
@@ -2493,7 +2593,19 @@ public class JSONObject {
             } catch (Exception e) {
                 throw new JSONException(e);
             }
-            writer.write(o != null ? o.toString() : quote(value.toString()));
+            if (o != null) {
+                writer.write(o.toString());
+            } else {
+                quote(value.toString(), writer);
+            }
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            writer.write(value.toString());
+        } else if (value instanceof Double || value instanceof Float
+                || value instanceof BigDecimal || value instanceof BigInteger) {
+            // the JDK representations of these types always match
+            // NUMBER_PATTERN once numberToString has rejected non-finite values
+            writer.write(numberToString((Number) value));
         } else if (value instanceof Number) {
             // not all Numbers may match actual JSON Numbers. i.e. fractions or Imaginary
             final String numberAsString = numberToString((Number) value);
@@ -2507,7 +2619,9 @@ public class JSONObject {
         } else if (value instanceof Boolean) {
             writer.write(value.toString());
         } else if (value instanceof Enum<?>) {
-            writer.write(quote(((Enum<?>)value).name()));
+            quote(((Enum<?>)value).name(), writer);
+        } else if (value instanceof JSONLazyValue) {
+            ((JSONLazyValue) value).write(writer, indentFactor, indent);
         } else if (value instanceof JSONObject) {
             ((JSONObject) value).write(writer, indentFactor, indent);
         } else if (value instanceof JSONArray) {
@@ -2567,8 +2681,8 @@ public class JSONObject {
             writer.write('{');
 
             if (length == 1) {
-            	final Entry<String,?> entry = this.entrySet().iterator().next();
-                writer.write(quote(entry.toString()));
+            	final Entry<String,?> entry = this.rawEntrySet().iterator().next();
+                quote(entry.toString(), writer);
                 writer.write(':');
                 if (indentFactor > 0) {
                     writer.write(' ');
@@ -2580,19 +2694,8 @@ public class JSONObject {
                 }
             } else if (length != 0) {
                 final int newIndent = indent + indentFactor;
-                for (final Entry<String,?> entry : this.entrySet()) {
-                    if (needsComma) {
-                        writer.write(',');
-                    }
-                    if (indentFactor > 0) {
-                        writer.write('\n');
-                    }
-                    indent(writer, newIndent);
-                    writer.write(quote(entry.toString()));
-                    writer.write(':');
-                    if (indentFactor > 0) {
-                        writer.write(' ');
-                    }
+                for (final Entry<String,?> entry : this.rawEntrySet()) {
+                    writeKey(writer, entry, needsComma, indentFactor, newIndent);
                     try {
                         writeValue(writer, entry.getValue(), indentFactor, newIndent);
                     } catch (Exception e) {
@@ -2612,6 +2715,80 @@ public class JSONObject {
         }
     }
 
+    /**
+     * Write the contents of the JSONObject as JSON text to a writer, as by
+     * {@link #write(Writer, int, int)}, serializing large parts of it
+     * concurrently. The members of the object, and those of nested objects and arrays that
+     * are large, are split into chunks that are serialized into separate
+     * buffers on the pool, and the buffers are written to the writer in
+     * order, so the text is the same as the sequential one. A small JSONObject
+     * is written sequentially. Only the calling thread or a single pool
+     * thread writes to the writer at any time.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical, and
+     * that it is not changed while it is written.
+     * </b>
+     *
+     * @param writer
+     *            Writes the serialized JSON
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param pool
+     *            The pool that serializes the chunks.
+     * @return The writer.
+     * @throws JSONException if a value cannot be written or a write error
+     * occurs
+     * @throws NullPointerException if the pool is null
+     */
+    public Writer write(Writer writer, int indentFactor, ForkJoinPool pool)
+            throws JSONException {
+        return JSONParallelWriter.write(this, writer, indentFactor, pool);
+    }
+
+    /**
+     * Write the contents of the JSONObject as UTF-8 encoded JSON text to a stream.
+     * For compactness, no whitespace is added. The text is encoded straight
+     * into a byte buffer; the stream is flushed but not closed.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     * @param out the output stream
+     * @return The stream.
+     * @throws JSONException if a called function fails or unable to write
+     */
+    public OutputStream write(OutputStream out) throws JSONException {
+        return this.write(out, 0, 0);
+    }
+
+    /**
+     * Write the contents of the JSONObject as UTF-8 encoded JSON text to a stream,
+     * formatted as by {@link #write(Writer, int, int)}. The text is encoded
+     * straight into a byte buffer; the stream is flushed but not closed.
+     * <p><b>
+     * Warning: This method assumes that the data structure is acyclical.
+     * </b>
+     *
+     * @param out
+     *            Receives the serialized JSON
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the top level.
+     * @return The stream.
+     * @throws JSONException if a called function fails or unable to write
+     */
+    public OutputStream write(OutputStream out, int indentFactor, int indent)
+            throws JSONException {
+        UTF8Writer writer = new UTF8Writer(out);
+        this.write(writer, indentFactor, indent);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return out;
+    }
+
     /**
      * Returns a java.util.Map containing all of the entries in this object.
      * If an entry in the object is a JSONArray or JSONObject it will also
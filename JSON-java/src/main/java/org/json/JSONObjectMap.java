@@ -0,0 +1,457 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The map that backs a {@link JSONObject}. Most objects have only a few keys,
+ * so up to {@link #THRESHOLD} entries are kept in flat key and value arrays
+ * that are searched linearly, which costs no hash table and no entry objects.
+ * When more keys are added the entries move to a HashMap, and the map stays
+ * a HashMap from then on.
+ * <p>
+ * Like HashMap, the map does not define an iteration order, allows a null
+ * value, and is not thread safe. Null keys are not supported.
+ * <p>
+ * A value may be a {@link JSONLazyValue} placeholder. The map parses it and
+ * stores the result when the value is read, so placeholders are only seen
+ * through {@link #rawEntrySet()}. Storing the result replaces the value of an
+ * existing key, which is not a structural change, and the placeholder
+ * publishes the parsed value safely, so concurrent reads of a map that is no
+ * longer changed remain safe.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONObjectMap extends AbstractMap<String, Object> {
+
+    /** The largest number of entries kept in the flat arrays. */
+    static final int THRESHOLD = 8;
+
+    /** The keys while the map is small, or null once it has been promoted. */
+    private String[] keys;
+
+    /** The values while the map is small, in the same slots as the keys. */
+    private Object[] values;
+
+    /** The number of entries while the map is small. */
+    private int size;
+
+    /** The map that holds the entries once there are too many for the arrays. */
+    private HashMap<String, Object> hashMap;
+
+    /** Counts structural changes of the small map, for its iterators. */
+    private int modCount;
+
+    /** The entry set view, created on first use. */
+    private Set<Map.Entry<String, Object>> entrySet;
+
+    /** The entry set view that does not parse placeholders, created on first use. */
+    private Set<Map.Entry<String, Object>> rawEntrySet;
+
+    /** The similarity hash of the object, or null if it has none. */
+    volatile JSONFingerprint fingerprint;
+
+    /**
+     * Construct an empty map.
+     */
+    JSONObjectMap() {
+        this.keys = new String[THRESHOLD];
+        this.values = new Object[THRESHOLD];
+    }
+
+    /**
+     * Construct an empty map that expects a number of entries.
+     * @param initialCapacity The expected number of entries.
+     */
+    JSONObjectMap(int initialCapacity) {
+        if (initialCapacity > THRESHOLD) {
+            this.hashMap = new HashMap<String, Object>(initialCapacity);
+        } else {
+            this.keys = new String[THRESHOLD];
+            this.values = new Object[THRESHOLD];
+        }
+    }
+
+    /**
+     * Find the slot of a key in the flat arrays.
+     * @param key The key.
+     * @return The slot, or -1 if the key is not in the map.
+     */
+    private int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        String[] k = this.keys;
+        // keys are often interned or reused by the caller, so try identity first
+        for (int i = 0; i < this.size; i += 1) {
+            if (k[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < this.size; i += 1) {
+            if (k[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return this.hashMap != null ? this.hashMap.size() : this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (this.hashMap != null) {
+            return this.hashMap.containsKey(key);
+        }
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value;
+        if (this.hashMap != null) {
+            value = this.hashMap.get(key);
+            if (value instanceof JSONLazyValue) {
+                value = ((JSONLazyValue) value).get();
+                this.hashMap.put((String) key, value);
+            }
+            return value;
+        }
+        int i = this.indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        value = this.values[i];
+        if (value instanceof JSONLazyValue) {
+            value = ((JSONLazyValue) value).get();
+            this.values[i] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        this.modified();
+        if (this.hashMap != null) {
+            return JSONLazyValue.resolve(this.hashMap.put(key, value));
+        }
+        if (key == null) {
+            throw new NullPointerException("Null key.");
+        }
+        int i = this.indexOf(key);
+        if (i >= 0) {
+            Object old = this.values[i];
+            this.values[i] = value;
+            return JSONLazyValue.resolve(old);
+        }
+        if (this.size == THRESHOLD) {
+            this.promote();
+            return this.hashMap.put(key, value);
+        }
+        this.keys[this.size] = key;
+        this.values[this.size] = value;
+        this.size += 1;
+        this.modCount += 1;
+        return null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (this.hashMap != null) {
+            if (this.hashMap.containsKey(key)) {
+                this.modified();
+            }
+            return JSONLazyValue.resolve(this.hashMap.remove(key));
+        }
+        int i = this.indexOf(key);
+        if (i < 0) {
+            return null;
+        }
+        Object old = this.values[i];
+        this.removeAt(i);
+        return JSONLazyValue.resolve(old);
+    }
+
+    @Override
+    public void clear() {
+        this.modified();
+        if (this.hashMap != null) {
+            this.hashMap.clear();
+        } else {
+            for (int i = 0; i < this.size; i += 1) {
+                this.keys[i] = null;
+                this.values[i] = null;
+            }
+            this.size = 0;
+            this.modCount += 1;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.entrySet == null) {
+            this.entrySet = new EntrySet(true);
+        }
+        return this.entrySet;
+    }
+
+    /**
+     * Get an entry set view whose entries hold the values as they are stored,
+     * including {@link JSONLazyValue} placeholders that have not been read.
+     * @return The entry set view.
+     */
+    Set<Map.Entry<String, Object>> rawEntrySet() {
+        if (this.rawEntrySet == null) {
+            this.rawEntrySet = new EntrySet(false);
+        }
+        return this.rawEntrySet;
+    }
+
+    /**
+     * Remove the entry in a slot of the flat arrays.
+     * @param i The slot.
+     */
+    private void removeAt(int i) {
+        int last = this.size - 1;
+        System.arraycopy(this.keys, i + 1, this.keys, i, last - i);
+        System.arraycopy(this.values, i + 1, this.values, i, last - i);
+        this.keys[last] = null;
+        this.values[last] = null;
+        this.size = last;
+        this.modCount += 1;
+        this.modified();
+    }
+
+    /**
+     * Drop the fingerprint after a change. If the object had one, nested in
+     * the fingerprint of its parents, those are dropped too.
+     */
+    private void modified() {
+        JSONFingerprint f = this.fingerprint;
+        if (f != null) {
+            this.fingerprint = null;
+            f.invalidate();
+        }
+    }
+
+    /**
+     * Move the entries from the flat arrays to a HashMap.
+     */
+    private void promote() {
+        HashMap<String, Object> m = new HashMap<String, Object>(THRESHOLD * 4);
+        for (int i = 0; i < this.size; i += 1) {
+            m.put(this.keys[i], this.values[i]);
+        }
+        this.hashMap = m;
+        this.keys = null;
+        this.values = null;
+        this.size = 0;
+        this.modCount += 1;
+    }
+
+    /**
+     * The entry set view. It reads through to the HashMap once the map has
+     * been promoted, including for iterators created before the promotion.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        /** Whether the entries parse placeholders. */
+        private final boolean resolve;
+
+        EntrySet(boolean resolve) {
+            this.resolve = resolve;
+        }
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            if (JSONObjectMap.this.hashMap != null) {
+                Iterator<Map.Entry<String, Object>> entries =
+                        JSONObjectMap.this.hashMap.entrySet().iterator();
+                return this.resolve ? new ResolvingIterator(entries) : entries;
+            }
+            return new EntryIterator(this.resolve);
+        }
+
+        @Override
+        public int size() {
+            return JSONObjectMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            JSONObjectMap.this.clear();
+        }
+    }
+
+    /**
+     * Iterates the entries of the flat arrays.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+        /** The slot of the next entry. */
+        private int next;
+
+        /** The slot of the last entry returned, or -1. */
+        private int last = -1;
+
+        /** The modCount the iterator expects. */
+        private int expectedModCount = JSONObjectMap.this.modCount;
+
+        /** Whether the entries parse placeholders. */
+        private final boolean resolve;
+
+        EntryIterator(boolean resolve) {
+            this.resolve = resolve;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // after a change, such as a promotion that empties the arrays,
+            // let next() report it rather than end the iteration early
+            return this.next < JSONObjectMap.this.size
+                    || this.expectedModCount != JSONObjectMap.this.modCount;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            this.checkForComodification();
+            if (this.next >= JSONObjectMap.this.size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.next += 1;
+            if (this.resolve) {
+                Object value = JSONObjectMap.this.values[this.last];
+                if (value instanceof JSONLazyValue) {
+                    JSONObjectMap.this.values[this.last] = ((JSONLazyValue) value).get();
+                }
+            }
+            return new Entry(this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last < 0) {
+                throw new IllegalStateException();
+            }
+            this.checkForComodification();
+            JSONObjectMap.this.removeAt(this.last);
+            this.next = this.last;
+            this.last = -1;
+            this.expectedModCount = JSONObjectMap.this.modCount;
+        }
+
+        private void checkForComodification() {
+            if (this.expectedModCount != JSONObjectMap.this.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Iterates the entries of the HashMap, parsing placeholders. The entries
+     * write through to the map like those of the flat arrays.
+     */
+    private final class ResolvingIterator implements Iterator<Map.Entry<String, Object>> {
+
+        /** The entries of the HashMap. */
+        private final Iterator<Map.Entry<String, Object>> entries;
+
+        ResolvingIterator(Iterator<Map.Entry<String, Object>> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.entries.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            Map.Entry<String, Object> entry = this.entries.next();
+            if (entry.getValue() instanceof JSONLazyValue) {
+                entry.setValue(((JSONLazyValue) entry.getValue()).get());
+            }
+            return new Entry(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void remove() {
+            this.entries.remove();
+            JSONObjectMap.this.modified();
+        }
+    }
+
+    /**
+     * An entry of the flat arrays. Its value writes through to the map while
+     * the key is still in it.
+     */
+    private final class Entry extends AbstractMap.SimpleEntry<String, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        Entry(int slot) {
+            super(JSONObjectMap.this.keys[slot], JSONObjectMap.this.values[slot]);
+        }
+
+        Entry(String key, Object value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = super.setValue(value);
+            if (JSONObjectMap.this.hashMap != null) {
+                if (JSONObjectMap.this.hashMap.containsKey(this.getKey())) {
+                    JSONObjectMap.this.hashMap.put(this.getKey(), value);
+                    JSONObjectMap.this.modified();
+                }
+            } else {
+                int i = JSONObjectMap.this.indexOf(this.getKey());
+                if (i >= 0) {
+                    JSONObjectMap.this.values[i] = value;
+                    JSONObjectMap.this.modified();
+                }
+            }
+            return old;
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Reads a JSON array whose text is too large to be parsed quickly on one
+ * thread, for {@link JSONArray#JSONArray(Reader, JSONParserConfiguration, ForkJoinPool)}.
+ * <p>
+ * The text is read in blocks, and a structural pre-scan of each block tracks
+ * only the nesting depth and whether a string is open, to find the commas
+ * that separate the elements of the top level array. Runs of whole elements
+ * of about {@link #CHUNK_SIZE} characters are bracketed and parsed on the pool
+ * by the JSONTokener and JSONArray code, and their elements are appended to
+ * the result in order. Only a window of chunks is parsed ahead of the one
+ * being appended, so the text is never held in memory as a whole.
+ * <p>
+ * A chunk only ends after an element that is not empty, so that a missing
+ * element between two commas stays in one chunk and is read as null, as it
+ * is by the sequential parser.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONParallelReader {
+
+    /** The number of characters of elements parsed by one task. */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /** The size of the blocks read from the source. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The array that receives the elements. */
+    private final JSONArray result;
+
+    /** The source. */
+    private final Reader reader;
+
+    /** The parser configuration. */
+    private final JSONParserConfiguration config;
+
+    /** The pool to parse on. */
+    private final ForkJoinPool pool;
+
+    /** The chunks being parsed, in order. */
+    private final ArrayDeque<Task> pending;
+
+    /** The largest number of chunks parsed at once. */
+    private final int window;
+
+    /** The current chunk: '[' followed by the elements read so far. */
+    private char[] chunk;
+
+    /** The number of characters in chunk. */
+    private int length;
+
+    /** The index of the first element of the current chunk. */
+    private long first;
+
+    /** The number of elements whose separating comma has been read. */
+    private long elements;
+
+    /** Whether the opening bracket has been read. */
+    private boolean started;
+
+    /** Whether the closing bracket has been read. */
+    private boolean done;
+
+    /** The nesting depth, 1 inside the top level array. */
+    private int depth;
+
+    /** The quote of the open string, or 0. */
+    private char quote;
+
+    /** Whether the previous character in a string was a backslash. */
+    private boolean escape;
+
+    /** Whether the next character starts a value or a key. */
+    private boolean valueStart;
+
+    /** Whether the current element has no characters but whitespace yet. */
+    private boolean blank;
+
+    /** The number of characters read, for error messages. */
+    private long index;
+
+    /** The current line, for error messages. */
+    private long line = 1;
+
+    /** The index of the first character of the current line. */
+    private long lineStart;
+
+    private JSONParallelReader(JSONArray result, Reader reader,
+            JSONParserConfiguration config, ForkJoinPool pool) {
+        this.result = result;
+        this.reader = reader;
+        this.config = config;
+        this.pool = pool;
+        this.window = Math.max(2, pool.getParallelism() * 2);
+        this.pending = new ArrayDeque<Task>(this.window);
+        this.chunk = new char[CHUNK_SIZE + 16];
+    }
+
+    /**
+     * Read a JSON array text into a JSONArray.
+     *
+     * @param result
+     *            The JSONArray that receives the elements.
+     * @param reader
+     *            The source. It is read up to the closing bracket.
+     * @param config
+     *            The parser configuration.
+     * @param pool
+     *            The pool to parse on.
+     * @throws JSONException
+     *             If there is a syntax error or the source cannot be read.
+     */
+    static void read(JSONArray result, Reader reader, JSONParserConfiguration config,
+            ForkJoinPool pool) throws JSONException {
+        if (pool == null) {
+            throw new NullPointerException("Null pool.");
+        }
+        new JSONParallelReader(result, reader, config, pool).read();
+    }
+
+    private void read() throws JSONException {
+        char[] buffer = new char[BUFFER_SIZE];
+        try {
+            while (!this.done) {
+                int n = this.reader.read(buffer, 0, buffer.length);
+                if (n < 0) {
+                    break;
+                }
+                this.scan(buffer, n);
+            }
+            if (!this.done) {
+                throw this.syntaxError(this.started
+                        ? "Expected a ',' or ']'"
+                        : "A JSONArray text must start with '['");
+            }
+            while (!this.pending.isEmpty()) {
+                this.take();
+            }
+        } catch (IOException e) {
+            this.abandon();
+            throw new JSONException(e);
+        } catch (RuntimeException e) {
+            this.abandon();
+            throw e;
+        }
+    }
+
+    /**
+     * Scan a block of the source, and copy its elements to the current chunk.
+     *
+     * @param buffer
+     *            The block.
+     * @param end
+     *            The number of characters in the block.
+     */
+    private void scan(char[] buffer, int end) {
+        int i = 0;
+        if (!this.started) {
+            while (i < end && buffer[i] > 0 && buffer[i] <= ' ') {
+                this.count(buffer[i]);
+                i += 1;
+            }
+            if (i == end) {
+                return;
+            }
+            this.count(buffer[i]);
+            if (buffer[i] != '[') {
+                throw this.syntaxError("A JSONArray text must start with '['");
+            }
+            i += 1;
+            this.started = true;
+            this.depth = 1;
+            this.valueStart = true;
+            this.blank = true;
+            this.chunk[0] = '[';
+            this.length = 1;
+        }
+        int segment = i;
+        for (; i < end; i += 1) {
+            char c = buffer[i];
+            this.count(c);
+            if (this.quote != 0) {
+                if (this.escape) {
+                    this.escape = false;
+                } else if (c == '\\') {
+                    this.escape = true;
+                } else if (c == this.quote || c == '\n' || c == '\r') {
+                    // a line break is an error that the parser reports
+                    this.quote = 0;
+                }
+                continue;
+            }
+            switch (c) {
+            case '"':
+            case '\'':
+                if (this.valueStart) {
+                    this.quote = c;
+                }
+                this.valueStart = false;
+                this.blank = false;
+                break;
+            case '{':
+            case '[':
+                this.depth += 1;
+                this.valueStart = true;
+                this.blank = false;
+                break;
+            case '}':
+            case ']':
+                this.depth -= 1;
+                if (this.depth == 0) {
+                    if (c != ']') {
+                        throw this.syntaxError("Expected a ',' or ']'");
+                    }
+                    this.append(buffer, segment, i);
+                    this.submit();
+                    this.done = true;
+                    return;
+                }
+                this.valueStart = false;
+                break;
+            case ',':
+                if (this.depth == 1) {
+                    if (!this.blank && this.length + i - segment >= CHUNK_SIZE) {
+                        this.append(buffer, segment, i);
+                        this.submit();
+                        this.first = this.elements + 1;
+                        segment = i + 1;
+                    }
+                    this.elements += 1;
+                    this.blank = true;
+                }
+                this.valueStart = true;
+                break;
+            case ':':
+            case ';':
+                this.valueStart = true;
+                break;
+            default:
+                if (c > ' ') {
+                    this.valueStart = false;
+                    this.blank = false;
+                }
+            }
+        }
+        this.append(buffer, segment, end);
+    }
+
+    /**
+     * Advance the position for error messages past a character.
+     *
+     * @param c
+     *            The character.
+     */
+    private void count(char c) {
+        this.index += 1;
+        if (c == '\n') {
+            this.line += 1;
+            this.lineStart = this.index;
+        }
+    }
+
+    /**
+     * Copy characters of the source to the current chunk.
+     *
+     * @param buffer
+     *            The source characters.
+     * @param start
+     *            The index of the first character to copy.
+     * @param end
+     *            The index after the last character to copy.
+     */
+    private void append(char[] buffer, int start, int end) {
+        int n = end - start;
+        if (n <= 0) {
+            return;
+        }
+        if (this.length + n + 1 > this.chunk.length) {
+            // an element longer than a chunk
+            char[] larger = new char[Math.max(this.chunk.length * 2, this.length + n + 1)];
+            System.arraycopy(this.chunk, 0, larger, 0, this.length);
+            this.chunk = larger;
+        }
+        System.arraycopy(buffer, start, this.chunk, this.length, n);
+        this.length += n;
+    }
+
+    /**
+     * Close the current chunk, submit it to the pool, and start the next
+     * chunk. If the window is full, the elements of the oldest chunk are
+     * appended to the result first.
+     */
+    private void submit() {
+        if (this.pending.size() >= this.window) {
+            this.take();
+        }
+        this.chunk[this.length] = ']';
+        Task task = new Task(new Chunk(this.chunk, this.length + 1, this.first, this.config));
+        this.pending.addLast(task);
+        this.pool.execute(task);
+        this.chunk = new char[CHUNK_SIZE + 16];
+        this.chunk[0] = '[';
+        this.length = 1;
+    }
+
+    /**
+     * Wait for the oldest chunk to be parsed, and append its elements to the
+     * result.
+     *
+     * @throws JSONException
+     *             If the chunk has a syntax error.
+     */
+    private void take() {
+        Task task = this.pending.removeFirst();
+        try {
+            this.result.putAll(task.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JSONException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JSONException(cause);
+        }
+    }
+
+    /**
+     * Cancel the chunks that are still being parsed after a failure.
+     */
+    private void abandon() {
+        for (Task task : this.pending) {
+            task.cancel(false);
+        }
+        this.pending.clear();
+    }
+
+    /**
+     * Make a JSONException to signal a syntax error found by the pre-scan.
+     *
+     * @param message
+     *            The error message.
+     * @return A JSONException object, suitable for throwing.
+     */
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at " + this.index + " [character "
+                + (this.index - this.lineStart) + " line " + this.line + "]");
+    }
+
+    /**
+     * A chunk that has been submitted to the pool. A FutureTask, unlike a
+     * ForkJoinTask, reports the exception that the chunk threw as it is.
+     */
+    private static final class Task extends FutureTask<JSONArray> {
+        Task(Chunk chunk) {
+            super(chunk);
+        }
+    }
+
+    /**
+     * Parses the elements of one chunk.
+     */
+    private static final class Chunk implements Callable<JSONArray> {
+
+        /** The bracketed elements. */
+        private final char[] text;
+
+        /** The number of characters in text. */
+        private final int length;
+
+        /** The index of the first element, for error messages. */
+        private final long first;
+
+        /** The parser configuration. */
+        private final JSONParserConfiguration config;
+
+        Chunk(char[] text, int length, long first, JSONParserConfiguration config) {
+            this.text = text;
+            this.length = length;
+            this.first = first;
+            this.config = config;
+        }
+
+        @Override
+        public JSONArray call() {
+            try {
+                return new JSONArray(new JSONTokener(this.text, 0, this.length, this.config));
+            } catch (JSONException e) {
+                throw new JSONException("Invalid JSONArray element from index "
+                        + this.first + ": " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Writes JSONObjects and JSONArrays with their large parts serialized
+ * concurrently on a fork/join pool, for
+ * {@link JSONObject#write(Writer, int, ForkJoinPool)} and
+ * {@link JSONArray#write(Writer, int, ForkJoinPool)}.
+ * <p>
+ * The size of a value is estimated by its weight, the number of values it
+ * contains, counted up to a limit so that weighing a large value is cheap.
+ * The members of a JSONObject or the elements of a JSONArray that weighs at
+ * least {@link #THRESHOLD} are split into chunks of about
+ * {@link #CHUNK_WEIGHT}, and each chunk is written to its own buffer by a
+ * task. A member that is heavy itself is split again within its task. The
+ * buffers are copied to the writer in order as their tasks finish, and only a
+ * window of chunks runs ahead of the one being copied, which bounds the
+ * memory used by the buffers. Everything else is written by the sequential
+ * code, so the text is the same.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class JSONParallelWriter {
+
+    /** The weight of the chunks that are serialized by one task. */
+    static final int CHUNK_WEIGHT = 1 << 12;
+
+    /** The weight from which an object or array is split into chunks. */
+    static final int THRESHOLD = 2 * CHUNK_WEIGHT;
+
+    private JSONParallelWriter() {
+    }
+
+    /**
+     * Write a JSONObject or JSONArray.
+     *
+     * @param value
+     *            The JSONObject or JSONArray.
+     * @param writer
+     *            Writes the serialized JSON.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param pool
+     *            The pool that serializes the chunks.
+     * @return The writer.
+     * @throws JSONException
+     *             If a value cannot be written or a write error occurs.
+     */
+    static Writer write(Object value, Writer writer, int indentFactor, ForkJoinPool pool)
+            throws JSONException {
+        if (pool == null) {
+            throw new NullPointerException("Null pool.");
+        }
+        if (weigh(value, THRESHOLD) < THRESHOLD) {
+            try {
+                return JSONObject.writeValue(writer, value, indentFactor, 0);
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+        }
+        // at most twice as many chunks as the pool has threads run ahead
+        int window = Math.max(2, pool.getParallelism() * 2);
+        WriteTask task = new WriteTask(value, writer, indentFactor, window);
+        pool.invoke(task);
+        if (task.failure != null) {
+            throw task.failure;
+        }
+        return writer;
+    }
+
+    /**
+     * Estimate the size of a value.
+     *
+     * @param value
+     *            A value.
+     * @param limit
+     *            The weight from which counting stops.
+     * @return The number of values in the value, including itself, or a
+     *         number of at least the limit.
+     */
+    static int weigh(Object value, int limit) {
+        if (value instanceof JSONArray) {
+            JSONArray ja = (JSONArray) value;
+            int length = ja.length();
+            int weight = 1 + length;
+            for (int i = 0; i < length && weight < limit; i += 1) {
+                weight += weigh(ja.peek(i), limit - weight) - 1;
+            }
+            return weight;
+        }
+        if (value instanceof JSONObject) {
+            JSONObject jo = (JSONObject) value;
+            int weight = 1 + jo.length();
+            if (weight < limit) {
+                for (Entry<String, Object> entry : jo.rawEntrySet()) {
+                    weight += weigh(entry.getValue(), limit - weight) - 1;
+                    if (weight >= limit) {
+                        break;
+                    }
+                }
+            }
+            return weight;
+        }
+        if (value instanceof JSONLazyValue) {
+            // about one value per 16 characters of text
+            return 1 + ((JSONLazyValue) value).length() / 16;
+        }
+        return 1;
+    }
+
+    /**
+     * Write a value, splitting it into chunks if it is heavy. This is called
+     * in a task of the pool.
+     *
+     * @param writer
+     *            Writes the serialized JSON.
+     * @param value
+     *            The value.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the value.
+     * @param window
+     *            The number of chunks that may run ahead of the one copied.
+     * @throws IOException
+     *             If the writer fails.
+     * @throws JSONException
+     *             If a value cannot be written.
+     */
+    static void writeValue(Writer writer, Object value, int indentFactor, int indent, int window)
+            throws IOException, JSONException {
+        if ((value instanceof JSONArray || value instanceof JSONObject)
+                && weigh(value, THRESHOLD) >= THRESHOLD) {
+            if (value instanceof JSONArray) {
+                writeArray(writer, (JSONArray) value, indentFactor, indent, window);
+            } else {
+                writeObject(writer, (JSONObject) value, indentFactor, indent, window);
+            }
+        } else {
+            JSONObject.writeValue(writer, value, indentFactor, indent);
+        }
+    }
+
+    /**
+     * Write a heavy JSONArray in chunks.
+     *
+     * @param writer
+     *            Writes the serialized JSON.
+     * @param ja
+     *            The JSONArray.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the array.
+     * @param window
+     *            The number of chunks that may run ahead of the one copied.
+     * @throws IOException
+     *             If the writer fails.
+     * @throws JSONException
+     *             If a value cannot be written.
+     */
+    private static void writeArray(Writer writer, JSONArray ja, int indentFactor, int indent,
+            int window)
+            throws IOException, JSONException {
+        int length = ja.length();
+        writer.write('[');
+        if (length == 1) {
+            try {
+                writeValue(writer, ja.peek(0), indentFactor, indent, window);
+            } catch (Exception e) {
+                throw new JSONException("Unable to write JSONArray value at index: 0", e);
+            }
+        } else {
+            List<Chunk> chunks = new ArrayList<Chunk>();
+            int from = 0;
+            int weight = 0;
+            for (int i = 0; i < length; i += 1) {
+                weight += weigh(ja.peek(i), CHUNK_WEIGHT);
+                if (weight >= CHUNK_WEIGHT || i == length - 1) {
+                    chunks.add(new Chunk(ja, null, from, i + 1, indentFactor, indent + indentFactor,
+                            window));
+                    from = i + 1;
+                    weight = 0;
+                }
+            }
+            copy(chunks, writer, window);
+            if (indentFactor > 0) {
+                writer.write('\n');
+            }
+            JSONObject.indent(writer, indent);
+        }
+        writer.write(']');
+    }
+
+    /**
+     * Write a heavy JSONObject in chunks.
+     *
+     * @param writer
+     *            Writes the serialized JSON.
+     * @param jo
+     *            The JSONObject.
+     * @param indentFactor
+     *            The number of spaces to add to each level of indentation.
+     * @param indent
+     *            The indentation of the object.
+     * @param window
+     *            The number of chunks that may run ahead of the one copied.
+     * @throws IOException
+     *             If the writer fails.
+     * @throws JSONException
+     *             If a value cannot be written.
+     */
+    private static void writeObject(Writer writer, JSONObject jo, int indentFactor, int indent,
+            int window)
+            throws IOException, JSONException {
+        List<Entry<String, Object>> entries = new ArrayList<Entry<String, Object>>(jo.rawEntrySet());
+        if (entries.size() == 1) {
+            // as JSONObject.write does for a single member
+            writer.write('{');
+            Entry<String, Object> entry = entries.get(0);
+            JSONObject.quote(entry.toString(), writer);
+            writer.write(':');
+            if (indentFactor > 0) {
+                writer.write(' ');
+            }
+            try {
+                writeValue(writer, entry.getValue(), indentFactor, indent, window);
+            } catch (Exception e) {
+                throw new JSONException("Unable to write JSONObject value for key: " + entry.getKey(), e);
+            }
+            writer.write('}');
+            return;
+        }
+        writer.write('{');
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        int from = 0;
+        int weight = 0;
+        for (int i = 0; i < entries.size(); i += 1) {
+            weight += weigh(entries.get(i).getValue(), CHUNK_WEIGHT);
+            if (weight >= CHUNK_WEIGHT || i == entries.size() - 1) {
+                chunks.add(new Chunk(null, entries, from, i + 1, indentFactor, indent + indentFactor,
+                        window));
+                from = i + 1;
+                weight = 0;
+            }
+        }
+        copy(chunks, writer, window);
+        if (indentFactor > 0) {
+            writer.write('\n');
+        }
+        JSONObject.indent(writer, indent);
+        writer.write('}');
+    }
+
+    /**
+     * Run the chunks on the pool of the current task and copy their buffers
+     * to the writer in order. At most a window of chunks runs ahead of the
+     * chunk being copied.
+     *
+     * @param chunks
+     *            The chunks, in order.
+     * @param writer
+     *            Writes the serialized JSON.
+     * @param window
+     *            The number of chunks that may run ahead of the one copied.
+     * @throws IOException
+     *             If the writer fails.
+     * @throws JSONException
+     *             If a value cannot be written.
+     */
+    private static void copy(List<Chunk> chunks, Writer writer, int window)
+            throws IOException, JSONException {
+        ArrayDeque<Chunk> running = new ArrayDeque<Chunk>();
+        int next = 0;
+        char[] buffer = null;
+        while (next < chunks.size() || !running.isEmpty()) {
+            while (next < chunks.size() && running.size() < window) {
+                Chunk chunk = chunks.get(next);
+                chunks.set(next, null);
+                chunk.fork();
+                running.add(chunk);
+                next += 1;
+            }
+            Chunk chunk = running.poll();
+            chunk.join();
+            if (chunk.failure != null) {
+                for (Chunk c : running) {
+                    c.cancel(false);
+                }
+                throw chunk.failure;
+            }
+            StringBuilder sb = chunk.out.getBuilder();
+            if (buffer == null) {
+                buffer = new char[8192];
+            }
+            for (int i = 0; i < sb.length(); i += buffer.length) {
+                int n = Math.min(buffer.length, sb.length() - i);
+                sb.getChars(i, i + n, buffer, 0);
+                writer.write(buffer, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Writes a whole value on the pool. Exceptions are kept rather than
+     * thrown, as the pool would rethrow a copy.
+     */
+    private static final class WriteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+        private final Writer writer;
+        private final int indentFactor;
+        private final int window;
+
+        /** The exception of the task, or null. */
+        JSONException failure;
+
+        WriteTask(Object value, Writer writer, int indentFactor, int window) {
+            this.value = value;
+            this.writer = writer;
+            this.indentFactor = indentFactor;
+            this.window = window;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                writeValue(this.writer, this.value, this.indentFactor, 0, this.window);
+            } catch (IOException e) {
+                this.failure = new JSONException(e);
+            } catch (JSONException e) {
+                this.failure = e;
+            } catch (RuntimeException e) {
+                this.failure = new JSONException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes a range of the elements of a JSONArray or of the members of a
+     * JSONObject to a buffer, as the loops of JSONArray.write and
+     * JSONObject.write do.
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final JSONArray array;
+        private final List<Entry<String, Object>> entries;
+        private final int from;
+        private final int to;
+        private final int indentFactor;
+        private final int indent;
+        private final int window;
+
+        /** The buffer that receives the text. */
+        StringBuilderWriter out;
+
+        /** The exception of the chunk, or null. */
+        JSONException failure;
+
+        Chunk(JSONArray array, List<Entry<String, Object>> entries, int from, int to,
+                int indentFactor, int indent, int window) {
+            this.array = array;
+            this.entries = entries;
+            this.from = from;
+            this.to = to;
+            this.indentFactor = indentFactor;
+            this.indent = indent;
+            this.window = window;
+        }
+
+        @Override
+        protected void compute() {
+            StringBuilderWriter writer = new StringBuilderWriter(16 * CHUNK_WEIGHT);
+            try {
+                for (int i = this.from; i < this.to; i += 1) {
+                    if (this.array != null) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        if (this.indentFactor > 0) {
+                            writer.write('\n');
+                        }
+                        JSONObject.indent(writer, this.indent);
+                        try {
+                            writeValue(writer, this.array.peek(i), this.indentFactor, this.indent,
+                                    this.window);
+                        } catch (Exception e) {
+                            throw new JSONException("Unable to write JSONArray value at index: " + i, e);
+                        }
+                    } else {
+                        Entry<String, Object> entry = this.entries.get(i);
+                        JSONObject.writeKey(writer, entry, i > 0, this.indentFactor, this.indent);
+                        try {
+                            writeValue(writer, entry.getValue(), this.indentFactor, this.indent,
+                                    this.window);
+                        } catch (Exception e) {
+                            throw new JSONException("Unable to write JSONObject value for key: "
+                                    + entry.getKey(), e);
+                        }
+                    }
+                }
+                this.out = writer;
+            } catch (IOException e) {
+                this.failure = new JSONException(e);
+            } catch (JSONException e) {
+                this.failure = e;
+            } catch (RuntimeException e) {
+                this.failure = new JSONException(e);
+            }
+        }
+    }
+}
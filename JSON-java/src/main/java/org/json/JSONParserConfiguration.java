@@ -0,0 +1,233 @@
+package org.json;
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+/**
+ * Configuration object for the JSON parser. The configuration is immutable.
+ * It is passed to a {@link JSONTokener}, and applies to every
+ * {@link JSONObject} and {@link JSONArray} parsed from that tokener.
+ */
+public class JSONParserConfiguration {
+    /** Original configuration of the JSON parser. */
+    public static final JSONParserConfiguration ORIGINAL
+        = new JSONParserConfiguration();
+    /** Original configuration of the JSON parser except that object keys are interned. */
+    public static final JSONParserConfiguration INTERN_KEYS
+        = new JSONParserConfiguration().withInternKeys(true);
+
+    /**
+     * When parsing, specifies if repeated object keys should share one String
+     * instance (<code>true</code>), or if every key should be a new String
+     * (<code>false</code>).
+     */
+    private boolean internKeys;
+
+    /**
+     * The maximum number of distinct keys the tokener's symbol table holds when
+     * keys are interned. Keys first seen after the table is full are not shared.
+     */
+    private int maxInternedKeys;
+
+    /**
+     * When parsing, specifies if nested objects and arrays should only be
+     * parsed when they are first accessed (<code>true</code>), or right away
+     * (<code>false</code>).
+     */
+    private boolean lazy;
+
+    /**
+     * When parsing, specifies if numbers with a fraction or an exponent should
+     * be Doubles (<code>true</code>), or BigDecimals that keep their exact
+     * text (<code>false</code>).
+     */
+    private boolean decimalsAsDouble;
+
+    /**
+     * Default parser configuration. Does not intern keys, and allows up to 1024
+     * interned keys when interning is turned on.
+     */
+    public JSONParserConfiguration() {
+        this.internKeys = false;
+        this.maxInternedKeys = 1024;
+        this.lazy = false;
+        this.decimalsAsDouble = false;
+    }
+
+    /**
+     * Configure the parser.
+     * @param internKeys <code>true</code> to intern object keys.
+     * @param maxInternedKeys The maximum number of distinct interned keys.
+     * @param lazy <code>true</code> to parse nested values on first access.
+     * @param decimalsAsDouble <code>true</code> to parse decimals as Doubles.
+     */
+    private JSONParserConfiguration(final boolean internKeys, final int maxInternedKeys,
+            final boolean lazy, final boolean decimalsAsDouble) {
+        this.internKeys = internKeys;
+        this.maxInternedKeys = maxInternedKeys;
+        this.lazy = lazy;
+        this.decimalsAsDouble = decimalsAsDouble;
+    }
+
+    /**
+     * Provides a new instance of the same configuration.
+     */
+    @Override
+    protected JSONParserConfiguration clone() {
+        return new JSONParserConfiguration(
+                this.internKeys,
+                this.maxInternedKeys,
+                this.lazy,
+                this.decimalsAsDouble
+        );
+    }
+
+    /**
+     * When parsing, specifies if repeated object keys should share one String
+     * instance. This saves memory when parsing many objects with the same keys,
+     * such as an array of records.
+     *
+     * @return The <code>internKeys</code> configuration value.
+     */
+    public boolean isInternKeys() {
+        return this.internKeys;
+    }
+
+    /**
+     * When parsing, specifies if repeated object keys should share one String
+     * instance. This saves memory when parsing many objects with the same keys,
+     * such as an array of records.
+     *
+     * @param newVal
+     *      new value to use for the <code>internKeys</code> configuration option.
+     *
+     * @return The existing configuration will not be modified. A new configuration is returned.
+     */
+    public JSONParserConfiguration withInternKeys(final boolean newVal) {
+        JSONParserConfiguration newConfig = this.clone();
+        newConfig.internKeys = newVal;
+        return newConfig;
+    }
+
+    /**
+     * The maximum number of distinct keys held by the symbol table of one
+     * tokener when keys are interned.
+     *
+     * @return The <code>maxInternedKeys</code> configuration value.
+     */
+    public int getMaxInternedKeys() {
+        return this.maxInternedKeys;
+    }
+
+    /**
+     * The maximum number of distinct keys held by the symbol table of one
+     * tokener when keys are interned. Keys first seen after the table is full
+     * are returned as new Strings, so documents with unbounded key sets cannot
+     * make the table grow without limit. The table starts small and grows
+     * with the keys it holds, and a maximum above 2<sup>29</sup> is treated as
+     * 2<sup>29</sup>.
+     *
+     * @param newVal
+     *      new value to use for the <code>maxInternedKeys</code> configuration option.
+     *
+     * @return The existing configuration will not be modified. A new configuration is returned.
+     * @throws IllegalArgumentException if the value is negative
+     */
+    public JSONParserConfiguration withMaxInternedKeys(final int newVal) {
+        if (newVal < 0) {
+            throw new IllegalArgumentException("maxInternedKeys must not be negative");
+        }
+        JSONParserConfiguration newConfig = this.clone();
+        newConfig.maxInternedKeys = newVal;
+        return newConfig;
+    }
+
+    /**
+     * When parsing, specifies if nested objects and arrays should only be
+     * parsed when they are first accessed.
+     *
+     * @return The <code>lazy</code> configuration value.
+     */
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    /**
+     * When parsing, specifies if nested objects and arrays should only be
+     * parsed when they are first accessed. The parser then only finds where
+     * each nested value ends and keeps its place in the source text, which is
+     * much cheaper than building it when most of the document is never read.
+     * A nested value is parsed by the first <code>get</code> or
+     * <code>opt</code>, or other method, that reads it; a syntax error inside
+     * it is reported then. Until it is read, the compact <code>toString</code>
+     * of its parent writes its original source text as it is, if that text
+     * is strict JSON; otherwise it is parsed first, and any syntax error is
+     * reported by <code>toString</code>. Errors are reported at their
+     * position in the whole source.
+     * <p>
+     * Lazy parsing needs the whole source in memory, so it only applies to
+     * tokeners built from a String. A nested value is parsed once even when
+     * several threads read it at once, so a lazily parsed document that is
+     * no longer changed can be read concurrently, like an eagerly parsed one.
+     *
+     * @param newVal
+     *      new value to use for the <code>lazy</code> configuration option.
+     *
+     * @return The existing configuration will not be modified. A new configuration is returned.
+     */
+    public JSONParserConfiguration withLazy(final boolean newVal) {
+        JSONParserConfiguration newConfig = this.clone();
+        newConfig.lazy = newVal;
+        return newConfig;
+    }
+
+    /**
+     * When parsing, specifies if numbers with a fraction or an exponent should
+     * be Doubles rather than BigDecimals.
+     *
+     * @return The <code>decimalsAsDouble</code> configuration value.
+     */
+    public boolean isDecimalsAsDouble() {
+        return this.decimalsAsDouble;
+    }
+
+    /**
+     * When parsing, specifies if numbers with a fraction or an exponent should
+     * be Doubles rather than BigDecimals. A Double takes less memory and is
+     * faster to read, and an array whose elements are all Doubles is kept in
+     * a <code>double[]</code>, but the value is rounded to the nearest double
+     * and its text is not kept: <code>1.50</code> is written back as
+     * <code>1.5</code>. Decimals beyond the range of a double remain
+     * BigDecimals. Object keys are not affected.
+     *
+     * @param newVal
+     *      new value to use for the <code>decimalsAsDouble</code> configuration option.
+     *
+     * @return The existing configuration will not be modified. A new configuration is returned.
+     */
+    public JSONParserConfiguration withDecimalsAsDouble(final boolean newVal) {
+        JSONParserConfiguration newConfig = this.clone();
+        newConfig.decimalsAsDouble = newVal;
+        return newConfig;
+    }
+}
@@ -0,0 +1,333 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable JSON array that is cheap to change into a new version, the
+ * array counterpart of {@link JSONPersistentObject}. The elements are held in
+ * a trie of 32 element nodes with the last few elements in a separate tail,
+ * so {@link #with(int, Object)} copies only the nodes on the path to the
+ * index and {@link #append(Object)} usually copies only the tail. Every other
+ * node is shared with the previous version.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+public final class JSONPersistentArray implements JSONString, Iterable<Object> {
+
+    /** The number of bits of the index used at each level of the trie. */
+    private static final int BITS = 5;
+
+    /** The number of elements of a node. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** The array with no elements. */
+    public static final JSONPersistentArray EMPTY
+            = new JSONPersistentArray(0, BITS, new Object[WIDTH], new Object[0]);
+
+    /** The number of elements. */
+    private final int length;
+
+    /** The position in the index of the bits that index the root. */
+    private final int shift;
+
+    /** The root of the trie, which holds the elements before the tail. */
+    private final Object[] root;
+
+    /** The last elements, at most WIDTH of them. */
+    private final Object[] tail;
+
+    private JSONPersistentArray(int length, int shift, Object[] root, Object[] tail) {
+        this.length = length;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Construct a JSONPersistentArray with the elements of a JSONArray.
+     * Nested objects and arrays are copied into persistent ones.
+     *
+     * @param ja
+     *            A JSONArray.
+     */
+    public JSONPersistentArray(JSONArray ja) {
+        JSONPersistentArray array = EMPTY;
+        for (int i = 0; i < ja.length(); i += 1) {
+            array = array.append(ja.opt(i));
+        }
+        this.length = array.length;
+        this.shift = array.shift;
+        this.root = array.root;
+        this.tail = array.tail;
+    }
+
+    /**
+     * Get the value at an index.
+     *
+     * @param index
+     *            The index must be between 0 and length() - 1.
+     * @return The value.
+     * @throws JSONException
+     *             If there is no value for the index.
+     */
+    public Object get(int index) throws JSONException {
+        Object object = this.opt(index);
+        if (object == null) {
+            throw new JSONException("JSONArray[" + index + "] not found.");
+        }
+        return object;
+    }
+
+    /**
+     * Get the optional value at an index.
+     *
+     * @param index
+     *            The index must be between 0 and length() - 1.
+     * @return The value, or null if there is no value for the index.
+     */
+    public Object opt(int index) {
+        if (index < 0 || index >= this.length) {
+            return null;
+        }
+        return this.nodeFor(index)[index & (WIDTH - 1)];
+    }
+
+    /**
+     * Get the number of elements.
+     *
+     * @return The number of elements.
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Check if the array is empty.
+     *
+     * @return true if the array has no elements.
+     */
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    /**
+     * Make a version of this array with a value at an index. This array is
+     * not changed. A null value is held as {@link JSONObject#NULL}, and a
+     * JSONObject or JSONArray value is copied into a persistent one.
+     *
+     * @param index
+     *            The index, between 0 and length(). A value at length() is
+     *            appended.
+     * @param value
+     *            The value.
+     * @return The new version.
+     * @throws JSONException
+     *             If the index is out of range or if the value is an invalid
+     *             number.
+     */
+    public JSONPersistentArray with(int index, Object value) throws JSONException {
+        if (index < 0 || index > this.length) {
+            throw new JSONException("JSONArray[" + index + "] not found.");
+        }
+        if (index == this.length) {
+            return this.append(value);
+        }
+        value = JSONPersistentObject.persist(value);
+        if (index >= this.tailOffset()) {
+            Object[] tail = this.tail.clone();
+            tail[index & (WIDTH - 1)] = value;
+            return new JSONPersistentArray(this.length, this.shift, this.root, tail);
+        }
+        return new JSONPersistentArray(this.length, this.shift,
+                assoc(this.shift, this.root, index, value), this.tail);
+    }
+
+    /**
+     * Make a version of this array with a value appended. This array is not
+     * changed. A null value is held as {@link JSONObject#NULL}, and a
+     * JSONObject or JSONArray value is copied into a persistent one.
+     *
+     * @param value
+     *            The value.
+     * @return The new version.
+     * @throws JSONException
+     *             If the value is an invalid number.
+     */
+    public JSONPersistentArray append(Object value) throws JSONException {
+        value = JSONPersistentObject.persist(value);
+        if (this.length - this.tailOffset() < WIDTH) {
+            Object[] tail = new Object[this.tail.length + 1];
+            System.arraycopy(this.tail, 0, tail, 0, this.tail.length);
+            tail[this.tail.length] = value;
+            return new JSONPersistentArray(this.length + 1, this.shift, this.root, tail);
+        }
+        // the tail is full, so move it into the trie
+        Object[] root;
+        int shift = this.shift;
+        if ((this.length >>> BITS) > (1 << this.shift)) {
+            root = new Object[WIDTH];
+            root[0] = this.root;
+            root[1] = path(this.shift, this.tail);
+            shift += BITS;
+        } else {
+            root = this.pushTail(this.shift, this.root);
+        }
+        return new JSONPersistentArray(this.length + 1, shift, root, new Object[] {value});
+    }
+
+    /**
+     * Get an iterator of the elements.
+     *
+     * @return An iterator.
+     */
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < JSONPersistentArray.this.length;
+            }
+
+            @Override
+            public Object next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object value = JSONPersistentArray.this.opt(this.index);
+                this.index += 1;
+                return value;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("remove");
+            }
+        };
+    }
+
+    /**
+     * Copy this array into a new JSONArray. Nested persistent objects and
+     * arrays are copied into JSONObjects and JSONArrays.
+     *
+     * @return A JSONArray.
+     */
+    public JSONArray toJSONArray() {
+        JSONArray ja = new JSONArray();
+        for (int i = 0; i < this.length; i += 1) {
+            ja.put(JSONPersistentObject.unpersist(this.opt(i)));
+        }
+        return ja;
+    }
+
+    /**
+     * Make a JSON text of this array, as {@link JSONArray#toString()} would.
+     *
+     * @return A JSON text.
+     */
+    @Override
+    public String toJSONString() {
+        return this.toJSONArray().toString();
+    }
+
+    /**
+     * Make a JSON text of this array, as {@link JSONArray#toString()} would.
+     *
+     * @return A JSON text.
+     */
+    @Override
+    public String toString() {
+        return this.toJSONString();
+    }
+
+    /**
+     * Get the index of the first element in the tail.
+     */
+    private int tailOffset() {
+        return this.length < WIDTH ? 0 : ((this.length - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * Get the node that holds an index.
+     */
+    private Object[] nodeFor(int index) {
+        if (index >= this.tailOffset()) {
+            return this.tail;
+        }
+        Object[] node = this.root;
+        for (int level = this.shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & (WIDTH - 1)];
+        }
+        return node;
+    }
+
+    /**
+     * Make a copy of the full tail into the trie under a node.
+     */
+    private Object[] pushTail(int level, Object[] parent) {
+        int i = ((this.length - 1) >>> level) & (WIDTH - 1);
+        Object[] node = parent.clone();
+        if (level == BITS) {
+            node[i] = this.tail;
+        } else {
+            Object[] child = (Object[]) parent[i];
+            node[i] = child == null
+                    ? path(level - BITS, this.tail)
+                    : this.pushTail(level - BITS, child);
+        }
+        return node;
+    }
+
+    /**
+     * Make a chain of nodes down to a leaf.
+     */
+    private static Object[] path(int level, Object[] leaf) {
+        if (level == 0) {
+            return leaf;
+        }
+        Object[] node = new Object[WIDTH];
+        node[0] = path(level - BITS, leaf);
+        return node;
+    }
+
+    /**
+     * Make a copy of the nodes on the path to an index, with a value at the
+     * index.
+     */
+    private static Object[] assoc(int level, Object[] node, int index, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & (WIDTH - 1)] = value;
+        } else {
+            int i = (index >>> level) & (WIDTH - 1);
+            copy[i] = assoc(level - BITS, (Object[]) node[i], index, value);
+        }
+        return copy;
+    }
+}
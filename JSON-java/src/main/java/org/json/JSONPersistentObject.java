@@ -0,0 +1,499 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An immutable JSON object that is cheap to change into a new version. The
+ * members are held in a hash array mapped trie, and {@link #with(String, Object)}
+ * and {@link #without(String)} copy only the path of at most seven small
+ * nodes that leads to the key. Every other node is shared with the previous
+ * version, so many versions of a large document cost memory in proportion to
+ * the changes made between them, and an old version stays valid while the new
+ * one is used.
+ * <p>
+ * Nested objects and arrays are held as JSONPersistentObject and
+ * {@link JSONPersistentArray} values, so that a change deep in a document
+ * copies only the containers on its path:
+ * <pre>
+ * JSONPersistentObject server = (JSONPersistentObject) config.get("server");
+ * JSONPersistentObject next = config.with("server", server.with("port", 8080));
+ * </pre>
+ * Values other than JSON containers are held as they are and are not copied,
+ * so they should not be changed once they are in a persistent object.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+public final class JSONPersistentObject implements JSONString {
+
+    /** The object with no members. */
+    public static final JSONPersistentObject EMPTY
+            = new JSONPersistentObject(new Node(0, new Object[0]), 0);
+
+    /** The number of bits of the hash used at each level of the trie. */
+    private static final int BITS = 5;
+
+    /** The root of the trie. */
+    private final Node root;
+
+    /** The number of members. */
+    private final int length;
+
+    private JSONPersistentObject(Node root, int length) {
+        this.root = root;
+        this.length = length;
+    }
+
+    /**
+     * Construct a JSONPersistentObject with the members of a JSONObject.
+     * Nested objects and arrays are copied into persistent ones.
+     *
+     * @param jo
+     *            A JSONObject.
+     */
+    public JSONPersistentObject(JSONObject jo) {
+        Node node = EMPTY.root;
+        int count = 0;
+        boolean[] added = new boolean[1];
+        for (String key : jo.keySet()) {
+            added[0] = false;
+            node = put(node, 0, hash(key), key, persist(jo.opt(key)), added);
+            if (added[0]) {
+                count += 1;
+            }
+        }
+        this.root = node;
+        this.length = count;
+    }
+
+    /**
+     * Get the value associated with a key.
+     *
+     * @param key
+     *            A key string.
+     * @return The value.
+     * @throws JSONException
+     *             If the key is not found.
+     */
+    public Object get(String key) throws JSONException {
+        if (key == null) {
+            throw new JSONException("Null key.");
+        }
+        Object object = this.opt(key);
+        if (object == null) {
+            throw new JSONException("JSONObject[" + JSONObject.quote(key) + "] not found.");
+        }
+        return object;
+    }
+
+    /**
+     * Get an optional value associated with a key.
+     *
+     * @param key
+     *            A key string.
+     * @return The value, or null if there is no such key.
+     */
+    public Object opt(String key) {
+        if (key == null) {
+            return null;
+        }
+        int hash = hash(key);
+        Node node = this.root;
+        for (int shift = 0; ; shift += BITS) {
+            Object[] array = node.array;
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < array.length; i += 2) {
+                    if (key.equals(array[i])) {
+                        return array[i + 1];
+                    }
+                }
+                return null;
+            }
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+            if (array[i] == null) {
+                node = (Node) array[i + 1];
+            } else {
+                return key.equals(array[i]) ? array[i + 1] : null;
+            }
+        }
+    }
+
+    /**
+     * Determine if the object contains a key.
+     *
+     * @param key
+     *            A key string.
+     * @return true if the key exists in the object.
+     */
+    public boolean has(String key) {
+        return this.opt(key) != null;
+    }
+
+    /**
+     * Get the number of members.
+     *
+     * @return The number of members.
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * Check if the object is empty.
+     *
+     * @return true if the object has no members.
+     */
+    public boolean isEmpty() {
+        return this.length == 0;
+    }
+
+    /**
+     * Make a version of this object in which a key is associated with a
+     * value. This object is not changed. If the value is null, the key is
+     * removed. A JSONObject or JSONArray value is copied into a persistent
+     * one.
+     *
+     * @param key
+     *            A key string.
+     * @param value
+     *            The value.
+     * @return The new version, or this object if the key is already
+     *         associated with the same value.
+     * @throws JSONException
+     *             If the value is an invalid number.
+     * @throws NullPointerException
+     *             If the key is null.
+     */
+    public JSONPersistentObject with(String key, Object value) throws JSONException {
+        if (key == null) {
+            throw new NullPointerException("Null key.");
+        }
+        if (value == null) {
+            return this.without(key);
+        }
+        boolean[] added = new boolean[1];
+        Node node = put(this.root, 0, hash(key), key, persist(value), added);
+        if (node == this.root) {
+            return this;
+        }
+        return new JSONPersistentObject(node, added[0] ? this.length + 1 : this.length);
+    }
+
+    /**
+     * Make a version of this object without a key. This object is not
+     * changed.
+     *
+     * @param key
+     *            A key string.
+     * @return The new version, or this object if it does not have the key.
+     */
+    public JSONPersistentObject without(String key) {
+        if (key == null || !this.has(key)) {
+            return this;
+        }
+        Node node = remove(this.root, 0, hash(key), key);
+        return new JSONPersistentObject(node == null ? EMPTY.root : node, this.length - 1);
+    }
+
+    /**
+     * Get an iterator of the keys, in no particular order.
+     *
+     * @return An iterator of the keys.
+     */
+    public Iterator<String> keys() {
+        List<String> keys = new ArrayList<String>(this.length);
+        collect(this.root, keys, null);
+        return keys.iterator();
+    }
+
+    /**
+     * Copy this object into a new JSONObject. Nested persistent objects and
+     * arrays are copied into JSONObjects and JSONArrays.
+     *
+     * @return A JSONObject.
+     */
+    public JSONObject toJSONObject() {
+        JSONObject jo = new JSONObject();
+        List<String> keys = new ArrayList<String>(this.length);
+        List<Object> values = new ArrayList<Object>(this.length);
+        collect(this.root, keys, values);
+        for (int i = 0; i < keys.size(); i += 1) {
+            jo.put(keys.get(i), unpersist(values.get(i)));
+        }
+        return jo;
+    }
+
+    /**
+     * Make a JSON text of this object, as {@link JSONObject#toString()}
+     * would.
+     *
+     * @return A JSON text.
+     */
+    @Override
+    public String toJSONString() {
+        return this.toJSONObject().toString();
+    }
+
+    /**
+     * Make a JSON text of this object, as {@link JSONObject#toString()}
+     * would.
+     *
+     * @return A JSON text.
+     */
+    @Override
+    public String toString() {
+        return this.toJSONString();
+    }
+
+    /**
+     * Copy a value into its persistent form.
+     *
+     * @param value
+     *            A value.
+     * @return The value, or a persistent copy of a JSONObject or JSONArray,
+     *         or {@link JSONObject#NULL} for null.
+     * @throws JSONException
+     *             If the value is an invalid number.
+     */
+    static Object persist(Object value) throws JSONException {
+        if (value == null) {
+            return JSONObject.NULL;
+        }
+        if (value instanceof JSONObject) {
+            return new JSONPersistentObject((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            return new JSONPersistentArray((JSONArray) value);
+        }
+        JSONObject.testValidity(value);
+        return value;
+    }
+
+    /**
+     * Copy a value out of its persistent form.
+     *
+     * @param value
+     *            A value.
+     * @return The value, or a JSONObject or JSONArray copy of a persistent
+     *         one.
+     */
+    static Object unpersist(Object value) {
+        if (value instanceof JSONPersistentObject) {
+            return ((JSONPersistentObject) value).toJSONObject();
+        }
+        if (value instanceof JSONPersistentArray) {
+            return ((JSONPersistentArray) value).toJSONArray();
+        }
+        return value;
+    }
+
+    /**
+     * Spread the hash of a key, so that keys that differ in the high bits of
+     * their hash codes part early in the trie.
+     */
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Make a node in which a key is associated with a value.
+     *
+     * @param node
+     *            The node.
+     * @param shift
+     *            The position in the hash of the bits that index the node.
+     * @param hash
+     *            The hash of the key.
+     * @param key
+     *            The key.
+     * @param value
+     *            The value.
+     * @param added
+     *            Set to true if the key was not in the node.
+     * @return The new node, or the node if nothing changed.
+     */
+    private static Node put(Node node, int shift, int hash, String key, Object value,
+            boolean[] added) {
+        Object[] array = node.array;
+        if (shift >= Integer.SIZE) {
+            // the keys of this node have equal hashes
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return array[i + 1] == value ? node : node.replace(i + 1, value);
+                }
+            }
+            added[0] = true;
+            return node.insert(array.length, 0, key, value);
+        }
+        int bit = 1 << ((hash >>> shift) & 31);
+        int i = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        if ((node.bitmap & bit) == 0) {
+            added[0] = true;
+            return node.insert(i, bit, key, value);
+        }
+        Object k = array[i];
+        if (k == null) {
+            Node child = (Node) array[i + 1];
+            Node next = put(child, shift + BITS, hash, key, value, added);
+            return next == child ? node : node.replace(i + 1, next);
+        }
+        if (key.equals(k)) {
+            return array[i + 1] == value ? node : node.replace(i + 1, value);
+        }
+        added[0] = true;
+        Node child = merge(shift + BITS, hash((String) k), (String) k, array[i + 1],
+                hash, key, value);
+        Object[] copy = array.clone();
+        copy[i] = null;
+        copy[i + 1] = child;
+        return new Node(node.bitmap, copy);
+    }
+
+    /**
+     * Make a node that holds two members whose hashes agree below a shift.
+     */
+    private static Node merge(int shift, int hash1, String key1, Object value1,
+            int hash2, String key2, Object value2) {
+        if (shift >= Integer.SIZE) {
+            return new Node(0, new Object[] {key1, value1, key2, value2});
+        }
+        int index1 = (hash1 >>> shift) & 31;
+        int index2 = (hash2 >>> shift) & 31;
+        if (index1 == index2) {
+            return new Node(1 << index1, new Object[] {
+                    null, merge(shift + BITS, hash1, key1, value1, hash2, key2, value2)});
+        }
+        Object[] array = index1 < index2
+                ? new Object[] {key1, value1, key2, value2}
+                : new Object[] {key2, value2, key1, value1};
+        return new Node((1 << index1) | (1 << index2), array);
+    }
+
+    /**
+     * Make a node without a key that it is known to hold. A node that would
+     * be left with only one member and no children is folded into its
+     * parent.
+     *
+     * @return The new node, or null if it would be empty.
+     */
+    private static Node remove(Node node, int shift, int hash, String key) {
+        Object[] array = node.array;
+        if (shift >= Integer.SIZE) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return array.length == 2 ? null : node.delete(i, 0);
+                }
+            }
+            return node;
+        }
+        int bit = 1 << ((hash >>> shift) & 31);
+        int i = 2 * Integer.bitCount(node.bitmap & (bit - 1));
+        if (array[i] != null) {
+            return array.length == 2 ? null : node.delete(i, bit);
+        }
+        Node child = remove((Node) array[i + 1], shift + BITS, hash, key);
+        if (child == null) {
+            return array.length == 2 ? null : node.delete(i, bit);
+        }
+        if (child.array.length == 2 && child.array[0] != null) {
+            Object[] copy = array.clone();
+            copy[i] = child.array[0];
+            copy[i + 1] = child.array[1];
+            return new Node(node.bitmap, copy);
+        }
+        return node.replace(i + 1, child);
+    }
+
+    /**
+     * Add the keys, and the values if wanted, of a node to lists.
+     */
+    private static void collect(Node node, List<String> keys, List<Object> values) {
+        Object[] array = node.array;
+        for (int i = 0; i < array.length; i += 2) {
+            if (array[i] == null) {
+                collect((Node) array[i + 1], keys, values);
+            } else {
+                keys.add((String) array[i]);
+                if (values != null) {
+                    values.add(array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * A node of the trie. The array holds a pair for each bit set in the
+     * bitmap, in the order of the bits: a key and its value, or null and a
+     * child node for the keys whose hashes share those bits. Below the last
+     * level the bitmap is not used and the array holds the pairs of keys
+     * with equal hashes.
+     */
+    private static final class Node {
+
+        /** The bits of the indexes that are present. */
+        final int bitmap;
+
+        /** The pairs. */
+        final Object[] array;
+
+        Node(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        /** Make a copy of this node with one element of the array replaced. */
+        Node replace(int i, Object value) {
+            Object[] copy = this.array.clone();
+            copy[i] = value;
+            return new Node(this.bitmap, copy);
+        }
+
+        /** Make a copy of this node with a pair inserted. */
+        Node insert(int i, int bit, Object key, Object value) {
+            Object[] copy = new Object[this.array.length + 2];
+            System.arraycopy(this.array, 0, copy, 0, i);
+            copy[i] = key;
+            copy[i + 1] = value;
+            System.arraycopy(this.array, i, copy, i + 2, this.array.length - i);
+            return new Node(this.bitmap | bit, copy);
+        }
+
+        /** Make a copy of this node with a pair deleted. */
+        Node delete(int i, int bit) {
+            Object[] copy = new Object[this.array.length - 2];
+            System.arraycopy(this.array, 0, copy, 0, i);
+            System.arraycopy(this.array, i + 2, copy, i, copy.length - i);
+            return new Node(this.bitmap & ~bit, copy);
+        }
+    }
+}
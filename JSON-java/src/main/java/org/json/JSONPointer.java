@@ -6,6 +6,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -126,9 +127,176 @@ public class JSONPointer {
         return new Builder();
     }
 
+    /**
+     * Static factory method for {@link Batch}. Example usage:
+     *
+     * <pre><code>
+     * JSONPointer.Batch fields = JSONPointer.batch(
+     *       new JSONPointer("/user/name"),
+     *       new JSONPointer("/user/address/city"),
+     *       new JSONPointer("/items/0/id"));
+     * Object[] values = fields.queryFrom(document);
+     * </code></pre>
+     *
+     * @param pointers the pointers to evaluate together
+     * @return a batch which evaluates all the pointers in one traversal
+     */
+    public static Batch batch(JSONPointer... pointers) {
+        return new Batch(pointers);
+    }
+
+    /**
+     * A set of JSON Pointers that are evaluated against a document in one
+     * traversal. The pointers are arranged in a tree by their shared leading
+     * tokens, so each step that several pointers have in common is taken
+     * only once. A batch is immutable and may be reused for any number of
+     * documents.
+     */
+    public static class Batch {
+
+        /** The root of the tree of tokens, for the empty pointer. */
+        private final Node root;
+
+        /** The number of pointers. */
+        private final int size;
+
+        /**
+         * Builds the tree of tokens for a set of pointers.
+         * @param pointers the pointers to evaluate together
+         * @throws NullPointerException if a pointer is null
+         */
+        Batch(JSONPointer... pointers) {
+            this.root = new Node(null, null, null, null);
+            this.size = pointers.length;
+            for (int id = 0; id < pointers.length; id += 1) {
+                JSONPointer pointer = pointers[id];
+                Node node = this.root;
+                node.add(id);
+                for (int i = 0; i < pointer.tokens.length; i += 1) {
+                    node = node.child(pointer.tokens[i], pointer.keys[i], pointer.indexes[i],
+                            pointer.indexErrors[i]);
+                    node.add(id);
+                }
+                node.end(id);
+            }
+        }
+
+        /**
+         * Evaluates all the pointers of this batch on the given {@code document},
+         * as by {@link JSONPointer#queryFrom(Object)}.
+         *
+         * @param document the JSON document which should be the subject of querying.
+         * @return the results of the evaluation, in the order of the pointers
+         * @throws JSONPointerException if the evaluation of a pointer fails. If
+         *  several fail, the exception is the one for the first of them.
+         */
+        public Object[] queryFrom(Object document) throws JSONPointerException {
+            Object[] results = new Object[this.size];
+            JSONPointerException[] errors = new JSONPointerException[this.size];
+            this.root.evaluate(document, results, errors);
+            for (JSONPointerException error : errors) {
+                if (error != null) {
+                    throw error;
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * A node of the tree of a {@link Batch}. It stands for the step from
+     * its parent to the value of one token.
+     */
+    private static final class Node {
+
+        private static final int[] NONE = new int[0];
+
+        /** The token, as it appears in the pointer. */
+        final String token;
+
+        /** The key that selects the value in an object. */
+        final String key;
+
+        /** The index that selects the value in an array, or null. */
+        final Integer index;
+
+        /** Why the token is not an array index, or null. */
+        final NumberFormatException indexError;
+
+        /** The nodes for the next tokens. */
+        private Node[] children = new Node[0];
+
+        /** The pointers that go through this node. */
+        private int[] all = NONE;
+
+        /** The pointers that end at this node. */
+        private int[] ends = NONE;
+
+        Node(String token, String key, Integer index, NumberFormatException indexError) {
+            this.token = token;
+            this.key = key;
+            this.index = index;
+            this.indexError = indexError;
+        }
+
+        Node child(String token, String key, Integer index, NumberFormatException indexError) {
+            for (Node child : this.children) {
+                if (child.token.equals(token)) {
+                    return child;
+                }
+            }
+            Node child = new Node(token, key, index, indexError);
+            this.children = Arrays.copyOf(this.children, this.children.length + 1);
+            this.children[this.children.length - 1] = child;
+            return child;
+        }
+
+        void add(int id) {
+            this.all = append(this.all, id);
+        }
+
+        void end(int id) {
+            this.ends = append(this.ends, id);
+        }
+
+        private static int[] append(int[] ids, int id) {
+            int[] result = Arrays.copyOf(ids, ids.length + 1);
+            result[ids.length] = id;
+            return result;
+        }
+
+        /**
+         * Stores the value of this node as the result of the pointers that end
+         * here, and evaluates the children on it.
+         */
+        void evaluate(Object current, Object[] results, JSONPointerException[] errors) {
+            for (int id : this.ends) {
+                results[id] = current;
+            }
+            for (Node child : this.children) {
+                Object value;
+                try {
+                    value = step(current, child.token, child.key, child.index, child.indexError);
+                } catch (JSONPointerException e) {
+                    for (int id : child.all) {
+                        errors[id] = e;
+                    }
+                    continue;
+                }
+                child.evaluate(value, results, errors);
+            }
+        }
+    }
+
     // Segments for the JSONPointer string
     private final List<String> refTokens;
 
+    // The segments, and the keys and array indexes they select, parsed once
+    private final String[] tokens;
+    private final String[] keys;
+    private final Integer[] indexes;
+    private final NumberFormatException[] indexErrors;
+
     /**
      * Pre-parses and initializes a new {@code JSONPointer} instance. If you want to
      * evaluate the same JSON Pointer on different JSON documents then it is recommended
@@ -138,12 +306,41 @@ public class JSONPointer {
      * @throws IllegalArgumentException if {@code pointer} is not a valid JSON pointer
      */
     public JSONPointer(final String pointer) {
+        this(parse(pointer));
+    }
+
+    public JSONPointer(List<String> refTokens) {
+        this.refTokens = new ArrayList<String>(refTokens);
+        int length = this.refTokens.size();
+        this.tokens = this.refTokens.toArray(new String[length]);
+        this.keys = new String[length];
+        this.indexes = new Integer[length];
+        this.indexErrors = new NumberFormatException[length];
+        for (int i = 0; i < length; i += 1) {
+            this.keys[i] = unescape(this.tokens[i]);
+            try {
+                this.indexes[i] = Integer.valueOf(this.tokens[i]);
+            } catch (NumberFormatException e) {
+                // reported when the token is applied to an array
+                this.indexErrors[i] = e;
+            }
+        }
+    }
+
+    /**
+     * Splits the JSON String or URI Fragment representation of a JSON pointer
+     * into its unescaped tokens.
+     *
+     * @param pointer the JSON String or URI Fragment representation of the JSON pointer.
+     * @return the tokens
+     * @throws IllegalArgumentException if {@code pointer} is not a valid JSON pointer
+     */
+    private static List<String> parse(final String pointer) {
         if (pointer == null) {
             throw new NullPointerException("pointer cannot be null");
         }
         if (pointer.isEmpty() || pointer.equals("#")) {
-            this.refTokens = Collections.emptyList();
-            return;
+            return Collections.emptyList();
         }
         String refs;
         if (pointer.startsWith("#/")) {
@@ -158,7 +355,7 @@ public class JSONPointer {
         } else {
             throw new IllegalArgumentException("a JSON pointer should start with '/' or '#/'");
         }
-        this.refTokens = new ArrayList<String>();
+        List<String> refTokens = new ArrayList<String>();
         int slashIdx = -1;
         int prevSlashIdx = 0;
         do {
@@ -167,24 +364,21 @@ public class JSONPointer {
             if(prevSlashIdx == slashIdx || prevSlashIdx == refs.length()) {
                 // found 2 slashes in a row ( obj//next )
                 // or single slash at the end of a string ( obj/test/ )
-                this.refTokens.add("");
+                refTokens.add("");
             } else if (slashIdx >= 0) {
                 final String token = refs.substring(prevSlashIdx, slashIdx);
-                this.refTokens.add(unescape(token));
+                refTokens.add(unescape(token));
             } else {
                 // last item after separator, or no separator at all.
                 final String token = refs.substring(prevSlashIdx);
-                this.refTokens.add(unescape(token));
+                refTokens.add(unescape(token));
             }
         } while (slashIdx >= 0);
         // using split does not take into account consecutive separators or "ending nulls"
         //for (String token : refs.split("/")) {
-        //    this.refTokens.add(unescape(token));
+        //    refTokens.add(unescape(token));
         //}
-    }
-
-    public JSONPointer(List<String> refTokens) {
-        this.refTokens = new ArrayList<String>(refTokens);
+        return refTokens;
     }
 
     /**
@@ -205,46 +399,61 @@ public class JSONPointer {
      * @throws JSONPointerException if an error occurs during evaluation
      */
     public Object queryFrom(Object document) throws JSONPointerException {
-        if (this.refTokens.isEmpty()) {
-            return document;
-        }
         Object current = document;
-        for (String token : this.refTokens) {
-            if (current instanceof JSONObject) {
-                current = ((JSONObject) current).opt(unescape(token));
-            } else if (current instanceof JSONArray) {
-                current = readByIndexToken(current, token);
-            } else {
-                throw new JSONPointerException(format(
-                        "value [%s] is not an array or object therefore its key %s cannot be resolved", current,
-                        token));
-            }
+        for (int i = 0; i < this.tokens.length; i += 1) {
+            current = step(current, this.tokens[i], this.keys[i], this.indexes[i],
+                    this.indexErrors[i]);
         }
         return current;
     }
 
+    /**
+     * Applies one token to a value.
+     * @param current the JSONObject or JSONArray to be evaluated
+     * @param token the token
+     * @param key the key that the token selects in an object
+     * @param index the index that the token selects in an array, or null
+     * @param indexError why the token is not an array index, or null
+     * @return the selected value
+     * @throws JSONPointerException if the value is not an object or array, or
+     *  the token does not select an element of an array
+     */
+    private static Object step(Object current, String token, String key, Integer index,
+            NumberFormatException indexError) throws JSONPointerException {
+        if (current instanceof JSONObject) {
+            return ((JSONObject) current).opt(key);
+        } else if (current instanceof JSONArray) {
+            return readByIndexToken(current, token, index, indexError);
+        } else {
+            throw new JSONPointerException(format(
+                    "value [%s] is not an array or object therefore its key %s cannot be resolved", current,
+                    token));
+        }
+    }
+
     /**
      * Matches a JSONArray element by ordinal position
      * @param current the JSONArray to be evaluated
      * @param indexToken the array index in string form
+     * @param index the parsed array index, or null if it is not a number
+     * @param indexError the exception from parsing the index, if it is not a number
      * @return the matched object. If no matching item is found a
      * @throws JSONPointerException is thrown if the index is out of bounds
      */
-    private static Object readByIndexToken(Object current, String indexToken) throws JSONPointerException {
+    private static Object readByIndexToken(Object current, String indexToken, Integer index,
+            NumberFormatException indexError) throws JSONPointerException {
+        if (index == null) {
+            throw new JSONPointerException(format("%s is not an array index", indexToken), indexError);
+        }
+        JSONArray currentArr = (JSONArray) current;
+        if (index.intValue() >= currentArr.length()) {
+            throw new JSONPointerException(format("index %s is out of bounds - the array has %d elements", indexToken,
+                    Integer.valueOf(currentArr.length())));
+        }
         try {
-            int index = Integer.parseInt(indexToken);
-            JSONArray currentArr = (JSONArray) current;
-            if (index >= currentArr.length()) {
-                throw new JSONPointerException(format("index %s is out of bounds - the array has %d elements", indexToken,
-                        Integer.valueOf(currentArr.length())));
-            }
-            try {
-				return currentArr.get(index);
-			} catch (JSONException e) {
-				throw new JSONPointerException("Error reading value at index position " + index, e);
-			}
-        } catch (NumberFormatException e) {
-            throw new JSONPointerException(format("%s is not an array index", indexToken), e);
+            return currentArr.get(index.intValue());
+        } catch (JSONException e) {
+            throw new JSONPointerException("Error reading value at index position " + index, e);
         }
     }
 
@@ -24,6 +24,7 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
+import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
@@ -33,11 +34,13 @@ import java.lang.annotation.Target;
 
 @Documented
 @Retention(RUNTIME)
-@Target({METHOD})
+@Target({METHOD, FIELD})
 /**
  * Use this annotation on a getter method to override the Bean name
  * parser for Bean -&gt; JSONObject mapping. If this annotation is
  * present at any level in the class hierarchy, then the method will
- * not be serialized from the bean into the JSONObject.
+ * not be serialized from the bean into the JSONObject. On a setter or a
+ * public field it keeps {@link JSONObject#toBean(Class)} from setting the
+ * property.
  */
 public @interface JSONPropertyIgnore { }
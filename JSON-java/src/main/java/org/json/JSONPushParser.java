@@ -0,0 +1,729 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * JSONPushParser parses one JSON text that arrives in chunks, such as the
+ * buffers of a non-blocking channel. The chunks are passed to
+ * <code>feed</code> as they arrive, and <code>endOfInput</code> is called
+ * after the last one. The parser never waits for input: it keeps its state
+ * between chunks and builds the JSONObjects and JSONArrays of the text as
+ * their members are completed, so only the token that is split across chunks
+ * is held as text. For example, <pre>
+ * JSONPushParser parser = new JSONPushParser();
+ * // as each buffer arrives
+ * parser.feed(byteBuffer);
+ * // at the end of the body
+ * JSONObject jo = (JSONObject) parser.endOfInput();</pre>
+ * <p>
+ * Bytes are decoded as UTF-8, and a character that is split across two
+ * buffers is decoded when its last byte arrives. Bytes and characters should
+ * not be mixed in one text.
+ * <p>
+ * JSONPushParser accepts the same texts as {@link JSONReader}, and reports
+ * syntax errors with the same messages at the same positions, as soon as the
+ * offending character is fed. Any text after the value other than whitespace is an error. This class
+ * is not thread safe.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+public class JSONPushParser {
+
+    /** The size of the buffers used to decode bytes. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** A value is expected at the top level. */
+    private static final int TOP = 0;
+    /** The top level value has been read. */
+    private static final int DONE = 1;
+    /** A key or the end of an object is expected. */
+    private static final int OBJECT_KEY = 2;
+    /** The ':' after a key is expected. */
+    private static final int OBJECT_COLON = 3;
+    /** The value of a member is expected. */
+    private static final int OBJECT_VALUE = 4;
+    /** A ',' or the end of an object is expected. */
+    private static final int OBJECT_SEPARATOR = 5;
+    /** The first element or the end of an array is expected. */
+    private static final int ARRAY_FIRST = 6;
+    /** An element is expected. */
+    private static final int ARRAY_ELEMENT = 7;
+    /** A ',' or the end of an array is expected. */
+    private static final int ARRAY_SEPARATOR = 8;
+    /** An element or the end of an array is expected after a ','. */
+    private static final int ARRAY_NEXT = 9;
+
+    /** No token is being read. */
+    private static final int NONE = 0;
+    /** A quoted string is being read. */
+    private static final int STRING = 1;
+    /** The character after a backslash is expected. */
+    private static final int ESCAPE = 2;
+    /** The hex digits of a unicode escape are expected. */
+    private static final int UNICODE = 3;
+    /** Unquoted text is being read. */
+    private static final int UNQUOTED = 4;
+
+    /** The key table, or null if keys are not interned. */
+    private final JSONKeyTable keyTable;
+
+    /** Whether decimal values are parsed as Doubles rather than BigDecimals. */
+    private final boolean decimalsAsDouble;
+
+    /** The open objects and arrays, the outermost first. */
+    private Object[] containers;
+
+    /** The state of each open object or array, and of the top level at 0. */
+    private int[] states;
+
+    /** The key of the member being read in each open object. */
+    private String[] keys;
+
+    /** The number of open objects and arrays. */
+    private int depth;
+
+    /** The kind of token being read. */
+    private int token;
+
+    /** The quote of the string being read. */
+    private char quote;
+
+    /** The text of the token being read. */
+    private final StringBuilder text;
+
+    /** The hex digits of a unicode escape read so far. */
+    private final char[] hex = new char[4];
+
+    /** The number of hex digits of a unicode escape read so far. */
+    private int hexDigits;
+
+    /** The top level value, once it has been read. */
+    private Object value;
+
+    /** The decoder of fed bytes, or null if no bytes have been fed. */
+    private CharsetDecoder decoder;
+
+    /** The fed bytes that have not been decoded yet. */
+    private ByteBuffer bytes;
+
+    /** The decoded characters. */
+    private CharBuffer chars;
+
+    /** Whether endOfInput has been called. */
+    private boolean ended;
+
+    /** The number of characters read, for error messages. */
+    private long index;
+
+    /** The position in the current line, for error messages. */
+    private long character;
+
+    /** The current line, for error messages. */
+    private long line;
+
+    /** The position in the previous line at its end, for error messages. */
+    private long characterPreviousLine;
+
+    /** The last character read. */
+    private char previous;
+
+    /**
+     * Make a JSONPushParser for one JSON text.
+     */
+    public JSONPushParser() {
+        this(new JSONParserConfiguration());
+    }
+
+    /**
+     * Make a JSONPushParser for one JSON text. Of the configuration, the
+     * interning of keys and the parsing of decimals as Doubles apply. Lazy
+     * parsing does not, as there is no complete text to defer the parsing of
+     * nested values to.
+     *
+     * @param config
+     *            The parser configuration.
+     */
+    public JSONPushParser(JSONParserConfiguration config) {
+        this.keyTable = config.isInternKeys()
+                ? new JSONKeyTable(config.getMaxInternedKeys()) : null;
+        this.decimalsAsDouble = config.isDecimalsAsDouble();
+        this.containers = new Object[16];
+        this.states = new int[17];
+        this.keys = new String[16];
+        this.states[0] = TOP;
+        this.text = new StringBuilder();
+        this.character = 1;
+        this.line = 1;
+    }
+
+    /**
+     * Feed the next chunk of a JSON text as UTF-8 bytes. All the remaining
+     * bytes of the buffer are consumed; a character that is incomplete at the
+     * end of the buffer is completed by the next one.
+     *
+     * @param buffer
+     *            The bytes.
+     * @return true if the value is complete.
+     * @throws JSONException
+     *             If there is a syntax error, or if the end of the input has
+     *             been reached.
+     */
+    public boolean feed(ByteBuffer buffer) throws JSONException {
+        this.checkOpen();
+        if (this.decoder == null) {
+            this.decoder = Charset.forName("UTF-8").newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+            this.chars = CharBuffer.allocate(BUFFER_SIZE);
+        }
+        while (buffer.hasRemaining()) {
+            ByteBuffer bytes = this.bytes;
+            int n = Math.min(bytes.remaining(), buffer.remaining());
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + n);
+            bytes.put(slice);
+            buffer.position(buffer.position() + n);
+            bytes.flip();
+            this.decode(false);
+            bytes.compact();
+        }
+        return this.isComplete();
+    }
+
+    /**
+     * Feed the next chunk of a JSON text as characters.
+     *
+     * @param buffer
+     *            An array of characters.
+     * @param offset
+     *            The index of the first character of the chunk.
+     * @param length
+     *            The number of characters in the chunk.
+     * @return true if the value is complete.
+     * @throws JSONException
+     *             If there is a syntax error, or if the end of the input has
+     *             been reached.
+     */
+    public boolean feed(char[] buffer, int offset, int length) throws JSONException {
+        this.checkOpen();
+        this.parse(buffer, offset, offset + length);
+        return this.isComplete();
+    }
+
+    /**
+     * Signal the end of the JSON text, and get its value.
+     *
+     * @return The JSONObject, JSONArray, Boolean, Number, String, or the
+     *         JSONObject.NULL object of the text.
+     * @throws JSONException
+     *             If the text is incomplete, or if there is a syntax error.
+     */
+    public Object endOfInput() throws JSONException {
+        if (!this.ended) {
+            if (this.decoder != null) {
+                this.bytes.flip();
+                this.decode(true);
+            }
+            this.ended = true;
+            switch (this.token) {
+            case UNQUOTED:
+                this.token = NONE;
+                this.completeUnquoted();
+                break;
+            case NONE:
+                break;
+            case ESCAPE:
+                throw this.syntaxError("Illegal escape.");
+            case UNICODE:
+                throw this.syntaxError("Substring bounds error");
+            default:
+                throw this.syntaxError("Unterminated string");
+            }
+            switch (this.states[this.depth]) {
+            case DONE:
+                break;
+            case OBJECT_KEY:
+                if (this.previous == ',' || this.previous == ';') {
+                    // JSONTokener reads the separator again as a key
+                    throw this.syntaxErrorBefore("Missing value");
+                }
+                throw this.syntaxError("A JSONObject text must end with '}'");
+            case OBJECT_COLON:
+                throw this.syntaxError("Expected a ':' after a key");
+            case OBJECT_SEPARATOR:
+                throw this.syntaxError("Expected a ',' or '}'");
+            case ARRAY_FIRST:
+            case ARRAY_SEPARATOR:
+            case ARRAY_NEXT:
+                throw this.syntaxError("Expected a ',' or ']'");
+            default:
+                // JSONTokener steps back over the last character to read the value
+                throw this.syntaxErrorBefore("Missing value");
+            }
+        }
+        return this.getValue();
+    }
+
+    /**
+     * Determine if the whole value has been read. A number or other unquoted
+     * value at the top level is only complete at the end of the input.
+     *
+     * @return true if the value is complete.
+     */
+    public boolean isComplete() {
+        return this.states[0] == DONE;
+    }
+
+    /**
+     * Get the value of the JSON text.
+     *
+     * @return The JSONObject, JSONArray, Boolean, Number, String, or the
+     *         JSONObject.NULL object of the text.
+     * @throws JSONException
+     *             If the value is not complete.
+     */
+    public Object getValue() throws JSONException {
+        if (!this.isComplete()) {
+            throw new JSONException("The JSON text is not complete.");
+        }
+        return this.value;
+    }
+
+    /**
+     * Check that the end of the input has not been reached.
+     *
+     * @throws JSONException
+     *             If endOfInput has been called.
+     */
+    private void checkOpen() throws JSONException {
+        if (this.ended) {
+            throw new JSONException("The end of the input has been reached.");
+        }
+    }
+
+    /**
+     * Decode the buffered bytes and parse the characters.
+     *
+     * @param endOfInput
+     *            true if no more bytes will be fed.
+     * @throws JSONException
+     *             If there is a syntax error.
+     */
+    private void decode(boolean endOfInput) throws JSONException {
+        CharBuffer chars = this.chars;
+        for (;;) {
+            boolean overflow = this.decoder.decode(this.bytes, chars, endOfInput).isOverflow();
+            if (!overflow && endOfInput) {
+                overflow = this.decoder.flush(chars).isOverflow();
+            }
+            chars.flip();
+            this.parse(chars.array(), chars.arrayOffset() + chars.position(),
+                    chars.arrayOffset() + chars.limit());
+            chars.clear();
+            if (!overflow) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parse characters.
+     *
+     * @param buffer
+     *            An array of characters.
+     * @param start
+     *            The index of the first character.
+     * @param end
+     *            The index after the last character.
+     * @throws JSONException
+     *             If there is a syntax error.
+     */
+    private void parse(char[] buffer, int start, int end) throws JSONException {
+        int i = start;
+        while (i < end) {
+            if (this.token == STRING) {
+                // take the run of plain characters at once
+                int run = i;
+                char q = this.quote;
+                while (run < end) {
+                    char c = buffer[run];
+                    if (c == q || c == '\\' || c == '\n' || c == '\r' || c == 0) {
+                        break;
+                    }
+                    run += 1;
+                }
+                if (run > i) {
+                    this.text.append(buffer, i, run - i);
+                    this.index += run - i;
+                    this.character += run - i;
+                    this.previous = buffer[run - 1];
+                    i = run;
+                    continue;
+                }
+            }
+            char c = buffer[i];
+            this.count(c);
+            this.step(c);
+            i += 1;
+        }
+    }
+
+    /**
+     * Advance the position for error messages past a character, as
+     * JSONTokener does.
+     *
+     * @param c
+     *            The character.
+     */
+    private void count(char c) {
+        if (c > 0) {
+            this.index += 1;
+            if (c == '\r') {
+                this.line += 1;
+                this.characterPreviousLine = this.character;
+                this.character = 0;
+            } else if (c == '\n') {
+                if (this.previous != '\r') {
+                    this.line += 1;
+                    this.characterPreviousLine = this.character;
+                }
+                this.character = 0;
+            } else {
+                this.character += 1;
+            }
+        }
+        this.previous = c;
+    }
+
+    /**
+     * Parse one character.
+     *
+     * @param c
+     *            The character.
+     * @throws JSONException
+     *             If there is a syntax error.
+     */
+    private void step(char c) throws JSONException {
+        switch (this.token) {
+        case NONE:
+            break;
+        case STRING:
+            if (c == this.quote) {
+                this.token = NONE;
+                this.complete(this.text.toString(), true);
+            } else if (c == '\\') {
+                this.token = ESCAPE;
+            } else if (c == 0 || c == '\n' || c == '\r') {
+                throw this.syntaxError("Unterminated string");
+            } else {
+                this.text.append(c);
+            }
+            return;
+        case ESCAPE:
+            this.token = STRING;
+            switch (c) {
+            case 'b':
+                this.text.append('\b');
+                break;
+            case 't':
+                this.text.append('\t');
+                break;
+            case 'n':
+                this.text.append('\n');
+                break;
+            case 'f':
+                this.text.append('\f');
+                break;
+            case 'r':
+                this.text.append('\r');
+                break;
+            case 'u':
+                this.token = UNICODE;
+                this.hexDigits = 0;
+                break;
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                this.text.append(c);
+                break;
+            default:
+                throw this.syntaxError("Illegal escape.");
+            }
+            return;
+        case UNICODE:
+            // like JSONTokener, read four characters before parsing them
+            if (c == 0) {
+                throw this.syntaxError("Substring bounds error");
+            }
+            this.hex[this.hexDigits] = c;
+            this.hexDigits += 1;
+            if (this.hexDigits == 4) {
+                try {
+                    this.text.append((char) Integer.parseInt(new String(this.hex), 16));
+                } catch (NumberFormatException e) {
+                    throw this.syntaxError("Illegal escape.");
+                }
+                this.token = STRING;
+            }
+            return;
+        default:
+            if (JSONTokener.isUnquotedChar(c)) {
+                this.text.append(c);
+                return;
+            }
+            // the character ends the text, and is parsed below
+            this.token = NONE;
+            this.completeUnquoted();
+        }
+        if (c > 0 && c <= ' ') {
+            return;
+        }
+        for (;;) {
+            switch (this.states[this.depth]) {
+            case TOP:
+            case OBJECT_VALUE:
+            case ARRAY_ELEMENT:
+                if (c == ',' && this.states[this.depth] == ARRAY_ELEMENT) {
+                    // a missing element is null
+                    this.complete(JSONObject.NULL, false);
+                    continue;
+                }
+                this.startValue(c);
+                return;
+            case DONE:
+                throw this.syntaxError("Unexpected text after the JSON value");
+            case OBJECT_KEY:
+                if (c == '}') {
+                    this.end();
+                } else {
+                    this.startValue(c);
+                }
+                return;
+            case OBJECT_COLON:
+                if (c != ':') {
+                    throw this.syntaxError("Expected a ':' after a key");
+                }
+                // like JSONReader, report a duplicate key after its ':'
+                String key = this.keys[this.depth - 1];
+                if (((JSONObject) this.containers[this.depth - 1]).has(key)) {
+                    throw this.syntaxError("Duplicate key \"" + key + "\"");
+                }
+                this.states[this.depth] = OBJECT_VALUE;
+                return;
+            case OBJECT_SEPARATOR:
+                if (c == ',' || c == ';') {
+                    this.states[this.depth] = OBJECT_KEY;
+                } else if (c == '}') {
+                    this.end();
+                } else {
+                    throw this.syntaxError("Expected a ',' or '}'");
+                }
+                return;
+            case ARRAY_FIRST:
+            case ARRAY_NEXT:
+                if (c == ']') {
+                    this.end();
+                    return;
+                }
+                this.states[this.depth] = ARRAY_ELEMENT;
+                continue;
+            case ARRAY_SEPARATOR:
+                if (c == ',') {
+                    this.states[this.depth] = ARRAY_NEXT;
+                } else if (c == ']') {
+                    this.end();
+                } else {
+                    throw this.syntaxError("Expected a ',' or ']'");
+                }
+                return;
+            default:
+                throw new JSONException("Invalid parser state.");
+            }
+        }
+    }
+
+    /**
+     * Start a value, or a key, whose first character has been read.
+     *
+     * @param c
+     *            The first character.
+     * @throws JSONException
+     *             If the character cannot start a value.
+     */
+    private void startValue(char c) throws JSONException {
+        switch (c) {
+        case '{':
+            this.push(new JSONObject(), OBJECT_KEY);
+            return;
+        case '[':
+            this.push(new JSONArray(), ARRAY_FIRST);
+            return;
+        case '"':
+        case '\'':
+            this.token = STRING;
+            this.quote = c;
+            this.text.setLength(0);
+            return;
+        default:
+            if (!JSONTokener.isUnquotedChar(c)) {
+                throw this.syntaxErrorBefore("Missing value");
+            }
+            this.token = UNQUOTED;
+            this.text.setLength(0);
+            this.text.append(c);
+        }
+    }
+
+    /**
+     * Complete the unquoted text that has been read.
+     *
+     * @throws JSONException
+     *             If the text is empty.
+     */
+    private void completeUnquoted() throws JSONException {
+        String string = this.text.toString().trim();
+        if ("".equals(string)) {
+            throw this.syntaxError("Missing value");
+        }
+        Object value = JSONObject.stringToValue(string);
+        if (this.decimalsAsDouble && this.states[this.depth] != OBJECT_KEY) {
+            value = JSONObject.decimalToDouble(value);
+        }
+        this.complete(value, false);
+    }
+
+    /**
+     * Complete a key or value.
+     *
+     * @param v
+     *            The key or value.
+     * @param quoted
+     *            true if the value is a quoted string.
+     */
+    private void complete(Object v, boolean quoted) {
+        int d = this.depth;
+        switch (this.states[d]) {
+        case TOP:
+            this.value = v;
+            this.states[d] = DONE;
+            return;
+        case OBJECT_KEY:
+            String key = quoted ? (String) v : v.toString();
+            if (this.keyTable != null) {
+                key = this.keyTable.intern(key);
+            }
+            this.keys[d - 1] = key;
+            this.states[d] = OBJECT_COLON;
+            return;
+        case OBJECT_VALUE:
+            ((JSONObject) this.containers[d - 1]).put(this.keys[d - 1], v);
+            this.keys[d - 1] = null;
+            this.states[d] = OBJECT_SEPARATOR;
+            return;
+        default:
+            ((JSONArray) this.containers[d - 1]).put(v);
+            this.states[d] = ARRAY_SEPARATOR;
+        }
+    }
+
+    /**
+     * Open an object or array.
+     *
+     * @param container
+     *            The new JSONObject or JSONArray.
+     * @param state
+     *            Its initial state.
+     */
+    private void push(Object container, int state) {
+        if (this.depth == this.containers.length) {
+            int length = this.containers.length * 2;
+            this.containers = Arrays.copyOf(this.containers, length);
+            this.keys = Arrays.copyOf(this.keys, length);
+            this.states = Arrays.copyOf(this.states, length + 1);
+        }
+        this.containers[this.depth] = container;
+        this.depth += 1;
+        this.states[this.depth] = state;
+    }
+
+    /**
+     * Close the innermost object or array, and complete it as a value of the
+     * enclosing one.
+     */
+    private void end() {
+        this.depth -= 1;
+        Object container = this.containers[this.depth];
+        this.containers[this.depth] = null;
+        this.complete(container, false);
+    }
+
+    /**
+     * Make a JSONException to signal a syntax error, with the position in
+     * the text as reported by JSONTokener.
+     *
+     * @param message
+     *            The error message.
+     * @return A JSONException object, suitable for throwing.
+     */
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at " + this.index + " [character "
+                + this.character + " line " + this.line + "]");
+    }
+
+    /**
+     * Make a JSONException to signal a syntax error, with the position
+     * before the last character read, as reported by JSONTokener after it
+     * has stepped back over that character. If nothing has been read, the
+     * position is the start of the text.
+     *
+     * @param message
+     *            The error message.
+     * @return A JSONException object, suitable for throwing.
+     */
+    private JSONException syntaxErrorBefore(String message) {
+        if (this.index == 0) {
+            return this.syntaxError(message);
+        }
+        long line = this.line;
+        long character = this.character;
+        if (this.previous == '\r' || this.previous == '\n') {
+            line -= 1;
+            character = this.characterPreviousLine;
+        } else if (character > 0) {
+            character -= 1;
+        }
+        return new JSONException(message + " at " + (this.index - 1) + " [character "
+                + character + " line " + line + "]");
+    }
+}
@@ -0,0 +1,562 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * JSONReader is a pull parser that reads a JSON text as a sequence of events
+ * without building a JSONObject or JSONArray tree, so that large texts can be
+ * processed in constant memory. It is the read-side companion of
+ * {@link JSONWriter}.
+ * <p>
+ * Each call to <code>next</code> returns the next {@link Event}. After a
+ * <code>KEY</code> event the name is available from <code>getKey</code>, and
+ * after a <code>VALUE</code> event the value (a Boolean, Number, String, or
+ * the <code>JSONObject.NULL</code> object) is available from
+ * <code>getValue</code>. The members of an object or array that are not of
+ * interest can be passed over with <code>skipChildren</code>, and a single
+ * member can be materialized with <code>readValue</code>. For example, <pre>
+ * JSONReader reader = new JSONReader(myReader);
+ * while (reader.hasNext()) {
+ *     if (reader.next() == JSONReader.Event.KEY
+ *             &amp;&amp; "id".equals(reader.getKey())) {
+ *         reader.next();
+ *         System.out.println(reader.readValue());
+ *     }
+ * }</pre>
+ * <p>
+ * JSONReader accepts the same texts as the JSONObject and JSONArray
+ * constructors, which are implemented on top of it.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+public class JSONReader {
+
+    /**
+     * The events produced by a JSONReader.
+     */
+    public enum Event {
+        /** The start of an object. */
+        START_OBJECT,
+        /** The end of an object. */
+        END_OBJECT,
+        /** The start of an array. */
+        START_ARRAY,
+        /** The end of an array. */
+        END_ARRAY,
+        /** The name of an object member. */
+        KEY,
+        /** A Boolean, Number, String, or JSONObject.NULL value. */
+        VALUE
+    }
+
+    /** A value is expected at the top level. */
+    private static final int TOP = 0;
+    /** The top level value has been read. */
+    private static final int DONE = 1;
+    /** A key or the end of an object is expected. */
+    private static final int OBJECT_KEY = 2;
+    /** The value of an object member is expected. */
+    private static final int OBJECT_VALUE = 3;
+    /** A separator or the end of an object is expected. */
+    private static final int OBJECT_SEPARATOR = 4;
+    /** The first element or the end of an array is expected. */
+    private static final int ARRAY_FIRST = 5;
+    /** An element of an array is expected. */
+    private static final int ARRAY_ELEMENT = 6;
+    /** A separator or the end of an array is expected. */
+    private static final int ARRAY_SEPARATOR = 7;
+
+    /** The tokener supplying the characters. */
+    private final JSONTokener x;
+
+    /** The state of each open object or array, and of the top level. */
+    private int[] stack;
+
+    /** The number of open objects and arrays. */
+    private int depth;
+
+    /** The last event returned by next, or null. */
+    private Event event;
+
+    /** The key of the last KEY event. */
+    private String key;
+
+    /** The value of the last VALUE event. */
+    private Object value;
+
+    /**
+     * Whether nested objects and arrays are read as placeholders, which is
+     * only done by readInto for a lazy tokener.
+     */
+    private boolean deferContainers;
+
+    /**
+     * Make a JSONReader that reads one JSON value from a tokener.
+     *
+     * @param x
+     *            A JSONTokener.
+     */
+    public JSONReader(JSONTokener x) {
+        this.x = x;
+        this.stack = new int[16];
+        this.stack[0] = TOP;
+        this.depth = 0;
+    }
+
+    /**
+     * Make a JSONReader that reads one JSON value from a reader. The caller
+     * must close the reader.
+     *
+     * @param reader
+     *            A reader.
+     */
+    public JSONReader(Reader reader) {
+        this(new JSONTokener(reader));
+    }
+
+    /**
+     * Make a JSONReader that reads one JSON value from a string.
+     *
+     * @param source
+     *            A JSON text.
+     */
+    public JSONReader(String source) {
+        this(new JSONTokener(source));
+    }
+
+    /**
+     * Make a JSONReader positioned just after the opening bracket of an
+     * object or array that has already been read from the tokener.
+     *
+     * @param x
+     *            A JSONTokener.
+     * @param object
+     *            true if an object was opened, false if an array was.
+     */
+    JSONReader(JSONTokener x, boolean object) {
+        this(x);
+        this.stack[0] = DONE;
+        this.push(object ? OBJECT_KEY : ARRAY_FIRST);
+    }
+
+    /**
+     * Determine if there are more events to read.
+     *
+     * @return true if the top level value has not been fully read.
+     */
+    public boolean hasNext() {
+        return this.depth > 0 || this.stack[0] == TOP;
+    }
+
+    /**
+     * Get the last event returned by <code>next</code>.
+     *
+     * @return The current event, or null if <code>next</code> has not been
+     *         called.
+     */
+    public Event getEvent() {
+        return this.event;
+    }
+
+    /**
+     * Get the number of objects and arrays that are open. The depth is 1
+     * after the START_OBJECT or START_ARRAY event of the top level value.
+     *
+     * @return The nesting depth.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Get the name of the current object member.
+     *
+     * @return The key of the last KEY event.
+     * @throws JSONException
+     *             If the current event is not a KEY.
+     */
+    public String getKey() throws JSONException {
+        if (this.event != Event.KEY) {
+            throw new JSONException("The current event is not a key.");
+        }
+        return this.key;
+    }
+
+    /**
+     * Get the current simple value.
+     *
+     * @return The Boolean, Number, String, or JSONObject.NULL of the last
+     *         VALUE event.
+     * @throws JSONException
+     *             If the current event is not a VALUE.
+     */
+    public Object getValue() throws JSONException {
+        if (this.event != Event.VALUE) {
+            throw new JSONException("The current event is not a value.");
+        }
+        return this.value;
+    }
+
+    /**
+     * Read the next event.
+     *
+     * @return The next event.
+     * @throws JSONException
+     *             If there is a syntax error, or if there are no more events.
+     */
+    public Event next() throws JSONException {
+        char c;
+        JSONTokener x = this.x;
+        for (;;) {
+            switch (this.stack[this.depth]) {
+            case TOP:
+                this.stack[this.depth] = DONE;
+                return this.readValue(x.nextClean());
+            case DONE:
+                throw new JSONException("No more events.");
+            case OBJECT_KEY:
+                c = x.nextClean();
+                switch (c) {
+                case 0:
+                    throw x.syntaxError("A JSONObject text must end with '}'");
+                case '}':
+                    return this.pop(Event.END_OBJECT);
+                case '{':
+                case '[':
+                    x.back();
+                    this.key = x.nextValue().toString();
+                    break;
+                default:
+                    this.key = x.nextKey(c);
+                }
+
+                // The key is followed by ':'.
+
+                if (x.nextClean() != ':') {
+                    throw x.syntaxError("Expected a ':' after a key");
+                }
+                this.stack[this.depth] = OBJECT_VALUE;
+                this.event = Event.KEY;
+                return Event.KEY;
+            case OBJECT_VALUE:
+                this.stack[this.depth] = OBJECT_SEPARATOR;
+                return this.readValue(x.nextClean());
+            case OBJECT_SEPARATOR:
+
+                // Pairs are separated by ','.
+
+                switch (x.nextClean()) {
+                case ';':
+                case ',':
+                    if (x.nextClean() == '}') {
+                        return this.pop(Event.END_OBJECT);
+                    }
+                    x.back();
+                    this.stack[this.depth] = OBJECT_KEY;
+                    break;
+                case '}':
+                    return this.pop(Event.END_OBJECT);
+                default:
+                    throw x.syntaxError("Expected a ',' or '}'");
+                }
+                break;
+            case ARRAY_FIRST:
+                c = x.nextClean();
+                if (c == 0) {
+                    // array is unclosed. No ']' found, instead EOF
+                    throw x.syntaxError("Expected a ',' or ']'");
+                }
+                if (c == ']') {
+                    return this.pop(Event.END_ARRAY);
+                }
+                x.back();
+                this.stack[this.depth] = ARRAY_ELEMENT;
+                break;
+            case ARRAY_ELEMENT:
+                c = x.nextClean();
+                if (c == 0) {
+                    // array is unclosed. No ']' found, instead EOF
+                    throw x.syntaxError("Expected a ',' or ']'");
+                }
+                this.stack[this.depth] = ARRAY_SEPARATOR;
+                if (c == ',') {
+                    x.back();
+                    return this.simpleValue(JSONObject.NULL);
+                }
+                return this.readValue(c);
+            case ARRAY_SEPARATOR:
+                switch (x.nextClean()) {
+                case 0:
+                    // array is unclosed. No ']' found, instead EOF
+                    throw x.syntaxError("Expected a ',' or ']'");
+                case ',':
+                    c = x.nextClean();
+                    if (c == 0) {
+                        // array is unclosed. No ']' found, instead EOF
+                        throw x.syntaxError("Expected a ',' or ']'");
+                    }
+                    if (c == ']') {
+                        return this.pop(Event.END_ARRAY);
+                    }
+                    x.back();
+                    this.stack[this.depth] = ARRAY_ELEMENT;
+                    break;
+                case ']':
+                    return this.pop(Event.END_ARRAY);
+                default:
+                    throw x.syntaxError("Expected a ',' or ']'");
+                }
+                break;
+            default:
+                throw new JSONException("Invalid reader state.");
+            }
+        }
+    }
+
+    /**
+     * Skip the members of the object or array started by the current event,
+     * up to and including its END_OBJECT or END_ARRAY event. Does nothing if
+     * the current event does not start an object or array.
+     *
+     * @throws JSONException
+     *             If there is a syntax error.
+     */
+    public void skipChildren() throws JSONException {
+        if (this.event != Event.START_OBJECT && this.event != Event.START_ARRAY) {
+            return;
+        }
+        int target = this.depth - 1;
+        while (this.depth > target) {
+            this.next();
+        }
+    }
+
+    /**
+     * Read the current value. After a START_OBJECT or START_ARRAY event the
+     * whole object or array is read, up to and including its END_OBJECT or
+     * END_ARRAY event, and returned as a JSONObject or JSONArray. After a
+     * VALUE event the simple value is returned.
+     *
+     * @return A JSONObject, JSONArray, Boolean, Number, String, or the
+     *         JSONObject.NULL object.
+     * @throws JSONException
+     *             If the current event does not start a value, or if there is
+     *             a syntax error.
+     */
+    public Object readValue() throws JSONException {
+        if (this.event == Event.START_OBJECT) {
+            JSONObject jo = new JSONObject();
+            this.readInto(jo);
+            return jo;
+        }
+        if (this.event == Event.START_ARRAY) {
+            JSONArray ja = new JSONArray();
+            this.readInto(ja);
+            return ja;
+        }
+        return this.getValue();
+    }
+
+    /**
+     * Read the current object into a bean, up to and including its END_OBJECT
+     * event, as by {@link JSONObject#toBean(Class)}. Nested objects and
+     * arrays are read directly into the properties, and the members that
+     * have no property are skipped, so a stream of records can be bound
+     * without making a JSONObject for each.
+     *
+     * @param <T>
+     *            The type of the bean.
+     * @param klass
+     *            The class of the bean.
+     * @return A new instance of the class.
+     * @throws JSONException
+     *             If the current event is not a START_OBJECT, if there is a
+     *             syntax error, if the class cannot be instantiated, if a value
+     *             cannot be converted, or if a setter throws.
+     */
+    public <T> T readBean(Class<T> klass) throws JSONException {
+        if (this.event != Event.START_OBJECT) {
+            throw new JSONException("The current event is not the start of an object.");
+        }
+        return klass.cast(JSONBeanBinder.forClass(klass).read(this));
+    }
+
+    /**
+     * Read the members of the innermost open object or array into a
+     * container, up to and including its END_OBJECT or END_ARRAY event.
+     *
+     * @param container
+     *            The JSONObject or JSONArray receiving the members.
+     * @throws JSONException
+     *             If there is a syntax error or a duplicated key.
+     */
+    void readInto(Object container) throws JSONException {
+        boolean defer = this.deferContainers;
+        this.deferContainers = this.x.isLazy();
+        try {
+            this.readMembers(container);
+        } finally {
+            this.deferContainers = defer;
+        }
+    }
+
+    /**
+     * Read the members of the innermost open object or array into a
+     * container, as by readInto.
+     *
+     * @param container
+     *            The JSONObject or JSONArray receiving the members.
+     * @throws JSONException
+     *             If there is a syntax error or a duplicated key.
+     */
+    private void readMembers(Object container) throws JSONException {
+        ArrayList<Object> parents = new ArrayList<Object>();
+        String name = null;
+        Object current = container;
+        for (;;) {
+            Object child;
+            switch (this.next()) {
+            case KEY:
+                name = this.key;
+                // Use syntaxError(..) to include error location
+                if (((JSONObject) current).has(name)) {
+                    // key already exists
+                    throw this.x.syntaxError("Duplicate key \"" + name + "\"");
+                }
+                continue;
+            case VALUE:
+                add(current, name, this.value);
+                continue;
+            case START_OBJECT:
+                child = new JSONObject();
+                break;
+            case START_ARRAY:
+                child = new JSONArray();
+                break;
+            default:
+                if (parents.isEmpty()) {
+                    return;
+                }
+                current = parents.remove(parents.size() - 1);
+                continue;
+            }
+            add(current, name, child);
+            parents.add(current);
+            current = child;
+        }
+    }
+
+    /**
+     * Add a value to a JSONObject or JSONArray.
+     *
+     * @param container
+     *            A JSONObject or JSONArray.
+     * @param name
+     *            The key, if the container is a JSONObject.
+     * @param value
+     *            The value to add.
+     */
+    private static void add(Object container, String name, Object value) {
+        if (container instanceof JSONObject) {
+            ((JSONObject) container).put(name, value);
+        } else {
+            ((JSONArray) container).put(value);
+        }
+    }
+
+    /**
+     * Read a value whose first character has already been read.
+     *
+     * @param c
+     *            The first character of the value.
+     * @return The event for the value.
+     * @throws JSONException
+     *             If there is a syntax error.
+     */
+    private Event readValue(char c) throws JSONException {
+        if (this.deferContainers && (c == '{' || c == '[')) {
+            JSONLazyValue lazy = this.x.nextLazyValue(c);
+            if (lazy != null) {
+                return this.simpleValue(lazy);
+            }
+        }
+        switch (c) {
+        case '{':
+            this.push(OBJECT_KEY);
+            this.event = Event.START_OBJECT;
+            return Event.START_OBJECT;
+        case '[':
+            this.push(ARRAY_FIRST);
+            this.event = Event.START_ARRAY;
+            return Event.START_ARRAY;
+        default:
+            return this.simpleValue(this.x.nextSimpleValue(c));
+        }
+    }
+
+    /**
+     * Make the VALUE event for a simple value.
+     *
+     * @param value
+     *            The value.
+     * @return The VALUE event.
+     */
+    private Event simpleValue(Object value) {
+        this.value = value;
+        this.event = Event.VALUE;
+        return Event.VALUE;
+    }
+
+    /**
+     * Open an object or array.
+     *
+     * @param state
+     *            The initial state of the object or array.
+     */
+    private void push(int state) {
+        this.depth += 1;
+        if (this.depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+        }
+        this.stack[this.depth] = state;
+    }
+
+    /**
+     * Close the innermost object or array.
+     *
+     * @param end
+     *            The END_OBJECT or END_ARRAY event.
+     * @return The end event.
+     */
+    private Event pop(Event end) {
+        this.depth -= 1;
+        this.event = end;
+        return end;
+    }
+}
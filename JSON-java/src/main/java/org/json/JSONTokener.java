@@ -1,11 +1,10 @@
 package org.json;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.util.Arrays;
 
 /*
 Copyright (c) 2002 JSON.org
@@ -35,10 +34,19 @@ SOFTWARE.
  * A JSONTokener takes a source string and extracts characters and tokens from
  * it. It is used by the JSONObject and JSONArray constructors to parse
  * JSON source strings.
+ * <p>
+ * Strings are scanned directly in memory. Readers and input streams are read
+ * ahead in chunks, so the tokener may consume more of the reader than the
+ * characters it has returned.
  * @author JSON.org
  * @version 2014-05-03
  */
 public class JSONTokener {
+    /** number of characters read from a Reader at a time. */
+    private static final int BUFFER_SIZE = 8192;
+    /** maximum number of characters skipTo can rewind when reading from a Reader. */
+    private static final int SKIP_LIMIT = 1000000;
+
     /** current read character position on the current line. */
     private long character;
     /** flag to indicate if the end of the input has been found. */
@@ -49,12 +57,26 @@ public class JSONTokener {
     private long line;
     /** previous character read from the input. */
     private char previous;
-    /** Reader for the input. */
+    /** Reader for the input, or null if the whole input is in the buffer. */
     private final Reader reader;
+    /** characters of the input: all of them for a string, the current chunk for a reader. */
+    private char[] buffer;
+    /** position in the buffer of the next character to read. */
+    private int position;
+    /** number of valid characters in the buffer. */
+    private int limit;
+    /** position in the buffer that must be kept when refilling, or -1. */
+    private int mark;
     /** flag to indicate that a previous character was requested. */
     private boolean usePrevious;
     /** the number of characters read in the previous line. */
     private long characterPreviousLine;
+    /** The symbol table for object keys, or null if keys are not interned. */
+    private final JSONKeyTable keyTable;
+    /** Whether nested objects and arrays are recorded as source ranges. */
+    private final boolean lazy;
+    /** Whether decimal values are parsed as Doubles rather than BigDecimals. */
+    private final boolean decimalsAsDouble;
 
 
     /**
@@ -63,16 +85,19 @@ public class JSONTokener {
      * @param reader     A reader.
      */
     public JSONTokener(Reader reader) {
-        this.reader = reader.markSupported()
-                ? reader
-                        : new BufferedReader(reader);
-        this.eof = false;
-        this.usePrevious = false;
-        this.previous = 0;
-        this.index = 0;
-        this.character = 1;
-        this.characterPreviousLine = 0;
-        this.line = 1;
+        this(reader, JSONParserConfiguration.ORIGINAL);
+    }
+
+
+    /**
+     * Construct a JSONTokener from a Reader with a parser configuration.
+     * The caller must close the Reader.
+     *
+     * @param reader     A reader.
+     * @param config     The parser configuration.
+     */
+    public JSONTokener(Reader reader, JSONParserConfiguration config) {
+        this(reader, new char[BUFFER_SIZE], 0, 0, config);
     }
 
 
@@ -85,13 +110,117 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Construct a JSONTokener from an InputStream with a parser configuration.
+     * The caller must close the input stream.
+     * @param inputStream The source.
+     * @param config The parser configuration.
+     */
+    public JSONTokener(InputStream inputStream, JSONParserConfiguration config) {
+        this(new InputStreamReader(inputStream), config);
+    }
+
+
     /**
      * Construct a JSONTokener from a string.
      *
      * @param s     A source string.
      */
     public JSONTokener(String s) {
-        this(new StringReader(s));
+        this(s, JSONParserConfiguration.ORIGINAL);
+    }
+
+
+    /**
+     * Construct a JSONTokener from a string with a parser configuration.
+     *
+     * @param s     A source string.
+     * @param config The parser configuration.
+     */
+    public JSONTokener(String s, JSONParserConfiguration config) {
+        this(null, s.toCharArray(), 0, s.length(), config);
+    }
+
+
+    /**
+     * Construct a JSONTokener over a range of a buffer that holds the whole
+     * input. The buffer is used in place.
+     *
+     * @param buffer The buffer.
+     * @param start  The index of the first character of the input.
+     * @param end    The index after the last character of the input.
+     * @param config The parser configuration.
+     */
+    JSONTokener(char[] buffer, int start, int end, JSONParserConfiguration config) {
+        this(null, buffer, start, end, config);
+    }
+
+
+    /**
+     * Construct a JSONTokener over a range of a buffer that holds a complete
+     * value, for a {@link JSONLazyValue}. The tokener is lazy and shares the
+     * symbol table of the tokener that recorded the range. It starts at the
+     * position the recording tokener had before the value, so that errors
+     * are reported at their place in the whole document.
+     *
+     * @param buffer    The buffer.
+     * @param start     The index of the first character of the value.
+     * @param end       The index after the last character of the value.
+     * @param keyTable  The symbol table for object keys, or null.
+     * @param decimalsAsDouble Whether decimals are parsed as Doubles.
+     * @param index     The index in the document of the first character.
+     * @param character The character count on its line before it.
+     * @param line      The line of the first character.
+     */
+    JSONTokener(char[] buffer, int start, int end, JSONKeyTable keyTable,
+            boolean decimalsAsDouble, long index, long character, long line) {
+        this.reader = null;
+        this.buffer = buffer;
+        this.position = start;
+        this.limit = end;
+        this.mark = -1;
+        this.eof = false;
+        this.usePrevious = false;
+        this.previous = 0;
+        this.index = index;
+        this.character = character;
+        this.characterPreviousLine = 0;
+        this.line = line;
+        this.keyTable = keyTable;
+        this.lazy = true;
+        this.decimalsAsDouble = decimalsAsDouble;
+    }
+
+
+    /**
+     * Construct a JSONTokener over a buffer.
+     *
+     * @param reader  The reader to refill the buffer from, or null if the
+     *                buffer holds the whole input.
+     * @param buffer  The buffer.
+     * @param start   The index of the first character in the buffer.
+     * @param limit   The index after the last character already in the buffer.
+     * @param config  The parser configuration.
+     */
+    private JSONTokener(Reader reader, char[] buffer, int start, int limit,
+            JSONParserConfiguration config) {
+        this.reader = reader;
+        this.buffer = buffer;
+        this.position = start;
+        this.limit = limit;
+        this.mark = -1;
+        this.eof = false;
+        this.usePrevious = false;
+        this.previous = 0;
+        this.index = 0;
+        this.character = 1;
+        this.characterPreviousLine = 0;
+        this.line = 1;
+        this.keyTable = config.isInternKeys()
+                ? new JSONKeyTable(config.getMaxInternedKeys()) : null;
+        // ranges can only be recorded when the whole source is in the buffer
+        this.lazy = config.isLazy() && reader == null;
+        this.decimalsAsDouble = config.isDecimalsAsDouble();
     }
 
 
@@ -153,6 +282,20 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Checks if every character of the input has been read. Unlike
+     * {@link #end()}, this is known before {@link #next()} has tried to read
+     * past the last character, and it is false after a '\0' that is followed
+     * by more characters. This is only meant for a tokener whose input is all
+     * in its buffer.
+     *
+     * @return true if there are no more characters to read.
+     */
+    boolean endOfInput() {
+        return !this.usePrevious && this.position >= this.limit;
+    }
+
+
     /**
      * Determine if the source string still contains characters that next()
      * can consume.
@@ -164,25 +307,92 @@ public class JSONTokener {
         if(this.usePrevious) {
             return true;
         }
-        try {
-            this.reader.mark(1);
-        } catch (IOException e) {
-            throw new JSONException("Unable to preserve stream position", e);
+        if (this.position >= this.limit && !this.fill()) {
+            this.eof = true;
+            return false;
         }
-        try {
-            // -1 is EOF, but next() can not consume the null character '\0'
-            if(this.reader.read() <= 0) {
-                this.eof = true;
-                return false;
+        // next() can not consume the null character '\0'
+        if (this.buffer[this.position] == 0) {
+            this.position++;
+            this.eof = true;
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Read the next chunk of the reader into the buffer. Characters before
+     * the current position are discarded, unless they are marked.
+     *
+     * @return true if at least one more character is available.
+     * @throws JSONException Thrown if there is an error reading the source.
+     */
+    private boolean fill() throws JSONException {
+        if (this.reader == null) {
+            return false;
+        }
+        int keep = this.mark >= 0 ? this.mark : this.position;
+        if (keep > 0) {
+            System.arraycopy(this.buffer, keep, this.buffer, 0, this.limit - keep);
+            this.limit -= keep;
+            this.position -= keep;
+            if (this.mark >= 0) {
+                this.mark = 0;
             }
-            this.reader.reset();
-        } catch (IOException e) {
-            throw new JSONException("Unable to read the next character from the stream", e);
         }
+        if (this.limit == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+        int n;
+        try {
+            do {
+                n = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+            } while (n == 0);
+        } catch (IOException exception) {
+            throw new JSONException(exception);
+        }
+        if (n < 0) {
+            return false;
+        }
+        this.limit += n;
         return true;
     }
 
 
+    /**
+     * Consume the buffered characters up to, but not including, the given
+     * buffer position, updating the indexes as next() would.
+     *
+     * @param end The buffer position to stop at.
+     */
+    private void consume(int end) {
+        for (int i = this.position; i < end; i++) {
+            this.incrementIndexes(this.buffer[i]);
+            this.previous = this.buffer[i];
+        }
+        this.position = end;
+    }
+
+
+    /**
+     * Consume the buffered characters up to, but not including, the given
+     * buffer position. The characters must not contain line breaks or the
+     * null character.
+     *
+     * @param end The buffer position to stop at.
+     */
+    private void consumeRun(int end) {
+        int n = end - this.position;
+        if (n > 0) {
+            this.index += n;
+            this.character += n;
+            this.previous = this.buffer[end - 1];
+            this.position = end;
+        }
+    }
+
+
     /**
      * Get the next character in the source string.
      *
@@ -194,12 +404,10 @@ public class JSONTokener {
         if (this.usePrevious) {
             this.usePrevious = false;
             c = this.previous;
+        } else if (this.position < this.limit || this.fill()) {
+            c = this.buffer[this.position++];
         } else {
-            try {
-                c = this.reader.read();
-            } catch (IOException exception) {
-                throw new JSONException(exception);
-            }
+            c = -1;
         }
         if (c <= 0) { // End of stream
             this.eof = true;
@@ -289,6 +497,13 @@ public class JSONTokener {
      */
     public char nextClean() throws JSONException {
         for (;;) {
+            if (!this.usePrevious) {
+                int end = this.position;
+                while (end < this.limit && this.buffer[end] > 0 && this.buffer[end] <= ' ') {
+                    end++;
+                }
+                this.consume(end);
+            }
             char c = this.next();
             if (c == 0 || c > ' ') {
                 return c;
@@ -310,8 +525,37 @@ public class JSONTokener {
      */
     public String nextString(char quote) throws JSONException {
         char c;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = null;
         for (;;) {
+            if (!this.usePrevious) {
+                // take the run of plain characters straight from the buffer
+                int start = this.position;
+                int end = start;
+                while (end < this.limit) {
+                    c = this.buffer[end];
+                    if (c == 0 || c == '\n' || c == '\r' || c == '\\') {
+                        break;
+                    }
+                    if (c == quote) {
+                        String string = sb == null
+                                ? new String(this.buffer, start, end - start)
+                                : sb.append(this.buffer, start, end - start).toString();
+                        this.consumeRun(end + 1);
+                        return string;
+                    }
+                    end++;
+                }
+                if (end > start) {
+                    if (sb == null) {
+                        sb = new StringBuilder(end - start + 16);
+                    }
+                    sb.append(this.buffer, start, end - start);
+                    this.consumeRun(end);
+                }
+            }
+            if (sb == null) {
+                sb = new StringBuilder();
+            }
             c = this.next();
             switch (c) {
             case 0:
@@ -420,12 +664,8 @@ public class JSONTokener {
      */
     public Object nextValue() throws JSONException {
         char c = this.nextClean();
-        String string;
 
         switch (c) {
-        case '"':
-        case '\'':
-            return this.nextString(c);
         case '{':
             this.back();
             return new JSONObject(this);
@@ -433,6 +673,158 @@ public class JSONTokener {
             this.back();
             return new JSONArray(this);
         }
+        return this.nextSimpleValue(c);
+    }
+
+
+    /**
+     * Determine if nested objects and arrays should be recorded as source
+     * ranges instead of being parsed.
+     * @return true if the tokener is lazy.
+     */
+    boolean isLazy() {
+        return this.lazy;
+    }
+
+
+    /**
+     * Record the object or array that starts with the character just read as
+     * a range of the source, and skip past it. Only the brackets, separators
+     * and quotes are examined, so syntax errors inside the range are reported
+     * when the value is materialized. As in the parser, a quote only starts a
+     * string at the start of a key or value, so unquoted text such as
+     * <code>don't</code> does not hide the brackets that follow it.
+     * @param c The '{' or '[' that was just read.
+     * @return The value, or null if the tokener is not lazy or the value is
+     *  not closed, in which case nothing has been consumed.
+     */
+    JSONLazyValue nextLazyValue(char c) {
+        int start = this.position - 1;
+        if (!this.lazy || this.usePrevious || start < 0 || this.buffer[start] != c) {
+            return null;
+        }
+        char[] b = this.buffer;
+        int depth = 0;
+        boolean valueStart = true;
+        int i = start;
+        while (i < this.limit) {
+            char d = b[i];
+            switch (d) {
+            case 0:
+                return null;
+            case '{':
+            case '[':
+                depth += 1;
+                valueStart = true;
+                break;
+            case '}':
+            case ']':
+                depth -= 1;
+                valueStart = false;
+                if (depth == 0) {
+                    // the position before the bracket that was just read
+                    JSONLazyValue value = new JSONLazyValue(b, start, i + 1, this.keyTable,
+                            this.decimalsAsDouble, this.index - 1, this.character - 1, this.line);
+                    this.consume(i + 1);
+                    return value;
+                }
+                break;
+            case ',':
+            case ':':
+            case ';':
+                valueStart = true;
+                break;
+            case '"':
+            case '\'':
+                if (!valueStart) {
+                    // part of unquoted text
+                    break;
+                }
+                valueStart = false;
+                for (i += 1; i < this.limit && b[i] != d; i += 1) {
+                    char e = b[i];
+                    if (e == 0 || e == '\n' || e == '\r') {
+                        // leave the error to the parser
+                        return null;
+                    }
+                    if (e == '\\') {
+                        i += 1;
+                    }
+                }
+                break;
+            default:
+                if (d > ' ') {
+                    valueStart = false;
+                }
+            }
+            i += 1;
+        }
+        return null;
+    }
+
+
+    /**
+     * Get the next object key. If the tokener interns keys, the key is looked
+     * up in its symbol table, straight from the buffer when possible.
+     * @param c The first character of the key, already read.
+     * @throws JSONException If syntax error.
+     *
+     * @return The key.
+     */
+    String nextKey(char c) throws JSONException {
+        JSONKeyTable table = this.keyTable;
+        if (table == null) {
+            return this.nextText(c).toString();
+        }
+        if ((c == '"' || c == '\'') && !this.usePrevious) {
+            int start = this.position;
+            for (int end = start; end < this.limit; end++) {
+                char d = this.buffer[end];
+                if (d == c) {
+                    String key = table.intern(this.buffer, start, end - start);
+                    this.consumeRun(end + 1);
+                    return key;
+                }
+                if (d == 0 || d == '\n' || d == '\r' || d == '\\') {
+                    break;
+                }
+            }
+        }
+        return table.intern(this.nextText(c).toString());
+    }
+
+
+    /**
+     * Get the next simple value: a Boolean, Double, Integer, Long, String, or
+     * the JSONObject.NULL object. Decimals are Doubles if the parser
+     * configuration asks for them.
+     * @param c The first character of the value, already read.
+     * @throws JSONException If syntax error.
+     *
+     * @return An object.
+     */
+    Object nextSimpleValue(char c) throws JSONException {
+        Object value = this.nextText(c);
+        return this.decimalsAsDouble ? JSONObject.decimalToDouble(value) : value;
+    }
+
+
+    /**
+     * Get the next simple value or key, as {@link JSONObject#stringToValue(String)}
+     * converts it.
+     * @param c The first character of the value, already read.
+     * @throws JSONException If syntax error.
+     *
+     * @return An object.
+     */
+    private Object nextText(char c) throws JSONException {
+        String string;
+
+        switch (c) {
+        case '"':
+        case '\'':
+            return this.nextString(c);
+        }
 
         /*
          * Handle unquoted text. This could be the values true, false, or
@@ -443,9 +835,36 @@ public class JSONTokener {
          * formatting character.
          */
 
+        if (isUnquotedChar(c) && this.position > 0 && this.buffer[this.position - 1] == c) {
+            // the first character is still in the buffer
+            int start = this.position - 1;
+            int end = this.position;
+            while (end < this.limit && isUnquotedChar(this.buffer[end])) {
+                end++;
+            }
+            int last = end;
+            while (last > start && this.buffer[last - 1] == ' ') {
+                last--;
+            }
+            if (last > start && (end < this.limit || this.reader == null)) {
+                // the whole text is in the buffer, convert it in place
+                Object value = JSONObject.stringToValue(this.buffer, start, last - start);
+                this.consumeRun(end);
+                this.next();
+                this.back();
+                return value;
+            }
+        }
+
         StringBuilder sb = new StringBuilder();
-        while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
+        while (isUnquotedChar(c)) {
             sb.append(c);
+            int end = this.position;
+            while (end < this.limit && isUnquotedChar(this.buffer[end])) {
+                end++;
+            }
+            sb.append(this.buffer, this.position, end - this.position);
+            this.consumeRun(end);
             c = this.next();
         }
         this.back();
@@ -458,6 +877,36 @@ public class JSONTokener {
     }
 
 
+    /**
+     * Determine if a character can be part of unquoted text.
+     *
+     * @param c A character.
+     * @return true if c is not a control or formatting character.
+     */
+    static boolean isUnquotedChar(char c) {
+        if (c < ' ') {
+            return false;
+        }
+        switch (c) {
+        case ',':
+        case ':':
+        case ']':
+        case '}':
+        case '/':
+        case '\\':
+        case '"':
+        case '[':
+        case '{':
+        case ';':
+        case '=':
+        case '#':
+            return false;
+        default:
+            return true;
+        }
+    }
+
+
     /**
      * Skip characters until the next character is the requested character.
      * If the requested character is not found, no characters are skipped.
@@ -469,27 +918,39 @@ public class JSONTokener {
      */
     public char skipTo(char to) throws JSONException {
         char c;
+        long startIndex = this.index;
+        long startCharacter = this.character;
+        long startLine = this.line;
+        this.mark = this.position;
         try {
-            long startIndex = this.index;
-            long startCharacter = this.character;
-            long startLine = this.line;
-            this.reader.mark(1000000);
             do {
+                if (!this.usePrevious) {
+                    int end = this.position;
+                    while (end < this.limit && this.buffer[end] != to && this.buffer[end] > 0) {
+                        end++;
+                    }
+                    this.consume(end);
+                    // when reading from a Reader, only the last SKIP_LIMIT
+                    // characters are kept for going back
+                    if (this.reader != null && this.mark >= 0
+                            && this.position - this.mark > SKIP_LIMIT) {
+                        this.mark = -1;
+                    }
+                }
                 c = this.next();
                 if (c == 0) {
-                    // in some readers, reset() may throw an exception if
-                    // the remaining portion of the input is greater than
-                    // the mark size (1,000,000 above).
-                    this.reader.reset();
+                    if (this.mark < 0) {
+                        throw new JSONException("Mark invalid");
+                    }
+                    this.position = this.mark;
                     this.index = startIndex;
                     this.character = startCharacter;
                     this.line = startLine;
                     return 0;
                 }
             } while (c != to);
-            this.reader.mark(1);
-        } catch (IOException exception) {
-            throw new JSONException(exception);
+        } finally {
+            this.mark = -1;
         }
         this.back();
         return c;
@@ -1,7 +1,12 @@
 package org.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 
 /*
@@ -53,6 +58,15 @@ SOFTWARE.
  * There are no methods for adding commas or colons. JSONWriter adds them for
  * you. Objects and arrays can be nested up to 200 levels deep.
  * <p>
+ * By default a JSONWriter rejects a key that is repeated within an object.
+ * The keys of each open object are kept in a set that is reused for the next
+ * object at the same depth. A writer that is known to produce distinct keys
+ * can skip the check with the <code>checkKeys</code> constructor parameter.
+ * <p>
+ * A JSONWriter can also encode its text as UTF-8 directly into an
+ * OutputStream through an internal byte buffer, which is flushed to the
+ * stream when the outermost array or object is ended.
+ * <p>
  * This can sometimes be easier than using a JSONObject to build a string.
  * @author JSON.org
  * @version 2016-08-08
@@ -77,9 +91,16 @@ public class JSONWriter {
     protected char mode;
 
     /**
-     * The object/array stack.
+     * The object/array stack: true for an object, false for an array.
+     */
+    private boolean stack[];
+
+    /**
+     * The keys of the open objects by depth, or null if keys are not
+     * checked. The set of a depth is cleared and reused for each object
+     * opened at that depth.
      */
-    private final JSONObject stack[];
+    private final ArrayList<HashSet<String>> keys;
 
     /**
      * The stack top index. A value of 0 indicates that the stack is empty.
@@ -96,11 +117,44 @@ public class JSONWriter {
      * @param w an appendable object
      */
     public JSONWriter(Appendable w) {
+        this(w, true);
+    }
+
+    /**
+     * Make a fresh JSONWriter. It can be used to build one JSON text.
+     * @param w an appendable object
+     * @param checkKeys true to reject a key that is repeated within an
+     *  object, false to skip the check
+     */
+    public JSONWriter(Appendable w, boolean checkKeys) {
         this.comma = false;
         this.mode = 'i';
-        this.stack = new JSONObject[maxdepth];
+        this.stack = new boolean[16];
         this.top = 0;
         this.writer = w;
+        this.keys = checkKeys ? new ArrayList<HashSet<String>>() : null;
+    }
+
+    /**
+     * Make a fresh JSONWriter that writes UTF-8 to a stream. It can be used to
+     * build one JSON text. The text is buffered, and the buffer is flushed to
+     * the stream when the outermost array or object is ended. The caller must
+     * close the stream.
+     * @param out an output stream
+     */
+    public JSONWriter(OutputStream out) {
+        this(out, true);
+    }
+
+    /**
+     * Make a fresh JSONWriter that writes UTF-8 to a stream, as by
+     * {@link #JSONWriter(OutputStream)}.
+     * @param out an output stream
+     * @param checkKeys true to reject a key that is repeated within an
+     *  object, false to skip the check
+     */
+    public JSONWriter(OutputStream out, boolean checkKeys) {
+        this(new UTF8Writer(out), checkKeys);
     }
 
     /**
@@ -110,6 +164,18 @@ public class JSONWriter {
      * @throws JSONException If the value is out of sequence.
      */
     private JSONWriter append(String string) throws JSONException {
+        return this.append(string, false);
+    }
+
+    /**
+     * Append a value.
+     * @param string A string value.
+     * @param quoted true to append the string as a quoted JSON string, false
+     *  to append it as it is.
+     * @return this
+     * @throws JSONException If the value is out of sequence.
+     */
+    private JSONWriter append(String string, boolean quoted) throws JSONException {
         if (string == null) {
             throw new JSONException("Null pointer");
         }
@@ -118,7 +184,11 @@ public class JSONWriter {
                 if (this.comma && this.mode == 'a') {
                     this.writer.append(',');
                 }
-                this.writer.append(string);
+                if (quoted) {
+                    this.quote(string);
+                } else {
+                    this.writer.append(string);
+                }
             } catch (IOException e) {
             	// Android as of API 25 does not support this exception constructor
             	// however we won't worry about it. If an exception is happening here
@@ -145,7 +215,7 @@ public class JSONWriter {
      */
     public JSONWriter array() throws JSONException {
         if (this.mode == 'i' || this.mode == 'o' || this.mode == 'a') {
-            this.push(null);
+            this.push(false);
             this.append("[");
             this.comma = false;
             return this;
@@ -169,6 +239,9 @@ public class JSONWriter {
         this.pop(m);
         try {
             this.writer.append(c);
+            if (this.top == 0 && this.writer instanceof UTF8Writer) {
+                ((UTF8Writer) this.writer).flush();
+            }
         } catch (IOException e) {
         	// Android as of API 25 does not support this exception constructor
         	// however we won't worry about it. If an exception is happening here
@@ -213,16 +286,13 @@ public class JSONWriter {
         }
         if (this.mode == 'k') {
             try {
-                JSONObject topObject = this.stack[this.top - 1];
-                // don't use the built in putOnce method to maintain Android support
-				if(topObject.has(string)) {
-					throw new JSONException("Duplicate key \"" + string + "\"");
-				}
-                topObject.put(string, true);
+                if (this.keys != null && !this.keys.get(this.top - 1).add(string)) {
+                    throw new JSONException("Duplicate key \"" + string + "\"");
+                }
                 if (this.comma) {
                     this.writer.append(',');
                 }
-                this.writer.append(JSONObject.quote(string));
+                this.quote(string);
                 this.writer.append(':');
                 this.comma = false;
                 this.mode = 'o';
@@ -253,7 +323,7 @@ public class JSONWriter {
         }
         if (this.mode == 'o' || this.mode == 'a') {
             this.append("{");
-            this.push(new JSONObject());
+            this.push(true);
             this.comma = false;
             return this;
         }
@@ -271,32 +341,57 @@ public class JSONWriter {
         if (this.top <= 0) {
             throw new JSONException("Nesting error.");
         }
-        char m = this.stack[this.top - 1] == null ? 'a' : 'k';
+        char m = this.stack[this.top - 1] ? 'k' : 'a';
         if (m != c) {
             throw new JSONException("Nesting error.");
         }
         this.top -= 1;
         this.mode = this.top == 0
             ? 'd'
-            : this.stack[this.top - 1] == null
-            ? 'a'
-            : 'k';
+            : this.stack[this.top - 1]
+            ? 'k'
+            : 'a';
     }
 
     /**
      * Push an array or object scope.
-     * @param jo The scope to open.
+     * @param object true to open an object, false to open an array.
      * @throws JSONException If nesting is too deep.
      */
-    private void push(JSONObject jo) throws JSONException {
+    private void push(boolean object) throws JSONException {
         if (this.top >= maxdepth) {
             throw new JSONException("Nesting too deep.");
         }
-        this.stack[this.top] = jo;
-        this.mode = jo == null ? 'a' : 'k';
+        if (this.top == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, Math.min(this.top * 2, maxdepth));
+        }
+        this.stack[this.top] = object;
+        if (object && this.keys != null) {
+            if (this.top < this.keys.size()) {
+                this.keys.get(this.top).clear();
+            } else {
+                while (this.keys.size() <= this.top) {
+                    this.keys.add(new HashSet<String>());
+                }
+            }
+        }
+        this.mode = object ? 'k' : 'a';
         this.top += 1;
     }
 
+    /**
+     * Write a quoted string, directly if the destination is a Writer.
+     * @param string The string.
+     * @throws IOException If the string could not be written.
+     */
+    private void quote(String string) throws IOException {
+        if (this.writer instanceof Writer) {
+            JSONObject.quote(string, (Writer) this.writer);
+        } else {
+            this.writer.append(JSONObject.quote(string));
+        }
+    }
+
     /**
      * Make a JSON text of an Object value. If the object has an
      * value.toJSONString() method, then that method will be used to produce the
@@ -406,6 +501,9 @@ public class JSONWriter {
      * @throws JSONException If the value is out of sequence.
      */
     public JSONWriter value(Object object) throws JSONException {
+        if (object instanceof String) {
+            return this.append((String) object, true);
+        }
         return this.append(valueToString(object));
     }
 }
@@ -0,0 +1,170 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.Writer;
+
+/**
+ * A Writer that appends to a StringBuilder. Unlike StringWriter, it does not
+ * synchronize on every write.
+ * <p>
+ * Each thread keeps one StringBuilder for the <code>toString</code> methods
+ * of JSONObject and JSONArray, which is taken with {@link #acquire(int)} and
+ * given back with {@link #release()}, so that the buffer is not grown again
+ * for every call. A buffer that has grown beyond {@link #MAX_POOLED_CAPACITY}
+ * characters is dropped instead of being kept. The thread keeps a plain
+ * StringBuilder rather than a class of this library, so that a pooled thread
+ * does not keep the class loader of the library reachable.
+ * This class is not thread safe.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class StringBuilderWriter extends Writer {
+
+    /** The largest capacity of a buffer that is kept for reuse. */
+    static final int MAX_POOLED_CAPACITY = 1 << 17;
+
+    /** The buffer of each thread, or null while it is taken. */
+    private static final ThreadLocal<StringBuilder> POOL = new ThreadLocal<StringBuilder>();
+
+    /** The builder that receives the characters. */
+    private final StringBuilder builder;
+
+    /** Whether the builder is given back to the thread on release. */
+    private final boolean pooled;
+
+    /**
+     * Construct a StringBuilderWriter that appends to a builder.
+     * @param builder The builder.
+     */
+    StringBuilderWriter(StringBuilder builder) {
+        this(builder, false);
+    }
+
+    /**
+     * Construct a StringBuilderWriter with a new builder.
+     * @param capacity The initial capacity of the builder.
+     */
+    StringBuilderWriter(int capacity) {
+        this(new StringBuilder(capacity), false);
+    }
+
+    private StringBuilderWriter(StringBuilder builder, boolean pooled) {
+        this.builder = builder;
+        this.pooled = pooled;
+    }
+
+    /**
+     * Take the empty buffer of the current thread. If the buffer is already
+     * taken, as when a toString method is called while writing a value, a
+     * new buffer is made.
+     * @param capacity The estimated number of characters to be written.
+     * @return A StringBuilderWriter that must be given back with release.
+     */
+    static StringBuilderWriter acquire(int capacity) {
+        StringBuilder builder = POOL.get();
+        if (builder == null) {
+            builder = new StringBuilder(Math.max(16, Math.min(capacity, MAX_POOLED_CAPACITY)));
+        } else {
+            POOL.set(null);
+        }
+        return new StringBuilderWriter(builder, true);
+    }
+
+    /**
+     * Give back a buffer taken with acquire. Its contents are discarded.
+     */
+    void release() {
+        if (this.pooled && this.builder.capacity() <= MAX_POOLED_CAPACITY) {
+            this.builder.setLength(0);
+            POOL.set(this.builder);
+        }
+    }
+
+    /**
+     * Get the builder that receives the characters.
+     * @return The builder.
+     */
+    StringBuilder getBuilder() {
+        return this.builder;
+    }
+
+    @Override
+    public void write(int c) {
+        this.builder.append((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        this.builder.append(cbuf, off, len);
+    }
+
+    @Override
+    public void write(String str) {
+        this.builder.append(str);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        this.builder.append(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(char c) {
+        this.builder.append(c);
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq) {
+        this.builder.append(csq);
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) {
+        this.builder.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // nothing is buffered
+    }
+
+    @Override
+    public void close() {
+        // nothing to close
+    }
+
+    /**
+     * Get the characters written so far.
+     * @return The contents of the builder.
+     */
+    @Override
+    public String toString() {
+        return this.builder.toString();
+    }
+}
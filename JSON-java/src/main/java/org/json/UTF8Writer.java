@@ -0,0 +1,164 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A Writer that encodes characters as UTF-8 directly into a byte buffer and
+ * hands the buffer to an OutputStream when it fills up, so that JSON text can
+ * be written to a stream without a String or an OutputStreamWriter in between.
+ * <p>
+ * Unpaired surrogates are encoded as '?', as {@link String#getBytes} does.
+ * This class is not thread safe.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class UTF8Writer extends Writer {
+
+    /** The size of the byte buffer. */
+    private static final int BUFFER_SIZE = 8192;
+
+    /** The stream that receives the encoded bytes. */
+    private final OutputStream out;
+
+    /** The encoded bytes that have not been written to the stream yet. */
+    private final byte[] buffer;
+
+    /** The number of bytes in the buffer. */
+    private int count;
+
+    /** A high surrogate waiting for its low surrogate, or 0. */
+    private char highSurrogate;
+
+    /**
+     * Construct a UTF8Writer.
+     * @param out The stream that receives the encoded bytes.
+     */
+    UTF8Writer(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        this.encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        int end = off + len;
+        for (int i = off; i < end; i += 1) {
+            this.encode(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        for (int i = off; i < end; i += 1) {
+            this.encode(str.charAt(i));
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the stream and flush it. A pending high
+     * surrogate is kept until the next character arrives.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.flushBuffer();
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.highSurrogate != 0) {
+            this.highSurrogate = 0;
+            this.buffer[this.count++] = '?';
+        }
+        this.flushBuffer();
+        this.out.close();
+    }
+
+    /**
+     * Encode one character into the buffer.
+     * @param c The character.
+     * @throws IOException If the buffer could not be written to the stream.
+     */
+    private void encode(char c) throws IOException {
+        byte[] b = this.buffer;
+        if (this.count > b.length - 4) {
+            this.flushBuffer();
+        }
+        if (c < 0x80 && this.highSurrogate == 0) {
+            b[this.count++] = (byte) c;
+            return;
+        }
+        if (this.highSurrogate != 0) {
+            char high = this.highSurrogate;
+            this.highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                b[this.count++] = (byte) (0xF0 | (codePoint >> 18));
+                b[this.count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                b[this.count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                b[this.count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            b[this.count++] = '?';
+            if (this.count > b.length - 4) {
+                this.flushBuffer();
+            }
+        }
+        if (c < 0x80) {
+            b[this.count++] = (byte) c;
+        } else if (c < 0x800) {
+            b[this.count++] = (byte) (0xC0 | (c >> 6));
+            b[this.count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            this.highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            b[this.count++] = '?';
+        } else {
+            b[this.count++] = (byte) (0xE0 | (c >> 12));
+            b[this.count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            b[this.count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * Write the buffered bytes to the stream.
+     * @throws IOException If the stream could not be written.
+     */
+    private void flushBuffer() throws IOException {
+        if (this.count > 0) {
+            this.out.write(this.buffer, 0, this.count);
+            this.count = 0;
+        }
+    }
+}
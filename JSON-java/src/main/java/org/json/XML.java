@@ -24,8 +24,10 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -76,46 +78,6 @@ public class XML {
 
     public static final String TYPE_ATTR = "xsi:type";
 
-    /**
-     * Creates an iterator for navigating Code Points in a string instead of
-     * characters. Once Java7 support is dropped, this can be replaced with
-     * <code>
-     * string.codePoints()
-     * </code>
-     * which is available in Java8 and above.
-     *
-     * @see <a href=
-     *      "http://stackoverflow.com/a/21791059/6030888">http://stackoverflow.com/a/21791059/6030888</a>
-     */
-    private static Iterable<Integer> codePointIterator(final String string) {
-        return new Iterable<Integer>() {
-            @Override
-            public Iterator<Integer> iterator() {
-                return new Iterator<Integer>() {
-                    private int nextIndex = 0;
-                    private int length = string.length();
-
-                    @Override
-                    public boolean hasNext() {
-                        return this.nextIndex < this.length;
-                    }
-
-                    @Override
-                    public Integer next() {
-                        int result = string.codePointAt(this.nextIndex);
-                        this.nextIndex += Character.charCount(result);
-                        return result;
-                    }
-
-                    @Override
-                    public void remove() {
-                        throw new UnsupportedOperationException();
-                    }
-                };
-            }
-        };
-    }
-
     /**
      * Replace special characters with XML escapes:
      *
@@ -133,34 +95,61 @@ public class XML {
      */
     public static String escape(String string) {
         StringBuilder sb = new StringBuilder(string.length());
-        for (final int cp : codePointIterator(string)) {
+        try {
+            escape(string, sb);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new JSONException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append a string to a sink, replacing special characters with XML
+     * escapes as {@link #escape(String)} does. Runs of characters that need
+     * no escaping are appended as a single range.
+     *
+     * @param string
+     *            The string to be escaped.
+     * @param out
+     *            The sink to receive the escaped text.
+     * @throws IOException Thrown if the sink fails
+     */
+    static void escape(String string, Appendable out) throws IOException {
+        final int length = string.length();
+        int start = 0;
+        int i = 0;
+        while (i < length) {
+            final int cp = string.codePointAt(i);
+            final int count = Character.charCount(cp);
+            String replacement;
             switch (cp) {
             case '&':
-                sb.append("&amp;");
+                replacement = "&amp;";
                 break;
             case '<':
-                sb.append("&lt;");
+                replacement = "&lt;";
                 break;
             case '>':
-                sb.append("&gt;");
+                replacement = "&gt;";
                 break;
             case '"':
-                sb.append("&quot;");
+                replacement = "&quot;";
                 break;
             case '\'':
-                sb.append("&apos;");
+                replacement = "&apos;";
                 break;
             default:
-                if (mustEscape(cp)) {
-                    sb.append("&#x");
-                    sb.append(Integer.toHexString(cp));
-                    sb.append(';');
-                } else {
-                    sb.appendCodePoint(cp);
-                }
+                replacement = mustEscape(cp) ? "&#x" + Integer.toHexString(cp) + ';' : null;
+            }
+            if (replacement != null) {
+                out.append(string, start, i);
+                out.append(replacement);
+                start = i + count;
             }
+            i += count;
         }
-        return sb.toString();
+        out.append(string, start, length);
     }
 
     /**
@@ -255,13 +244,7 @@ public class XML {
      */
     private static boolean parse(XMLTokener x, JSONObject context, String name, XMLParserConfiguration config)
             throws JSONException {
-        char c;
-        int i;
-        JSONObject jsonObject = null;
-        String string;
-        String tagName;
         Object token;
-        XMLXsiTypeConverter<?> xmlXsiTypeConverter;
 
         // Test for and skip past these forms:
         // <!-- ... -->
@@ -278,37 +261,7 @@ public class XML {
         // <!
 
         if (token == BANG) {
-            c = x.next();
-            if (c == '-') {
-                if (x.next() == '-') {
-                    x.skipPast("-->");
-                    return false;
-                }
-                x.back();
-            } else if (c == '[') {
-                token = x.nextToken();
-                if ("CDATA".equals(token)) {
-                    if (x.next() == '[') {
-                        string = x.nextCDATA();
-                        if (string.length() > 0) {
-                            context.accumulate(config.getcDataTagName(), string);
-                        }
-                        return false;
-                    }
-                }
-                throw x.syntaxError("Expected 'CDATA['");
-            }
-            i = 1;
-            do {
-                token = x.nextMeta();
-                if (token == null) {
-                    throw x.syntaxError("Missing '>' after '<!'.");
-                } else if (token == LT) {
-                    i += 1;
-                } else if (token == GT) {
-                    i -= 1;
-                }
-            } while (i > 0);
+            parseBang(x, context, config);
             return false;
         } else if (token == QUEST) {
 
@@ -337,97 +290,169 @@ public class XML {
             // Open tag <
 
         } else {
-            tagName = (String) token;
-            token = null;
-            jsonObject = new JSONObject();
-            boolean nilAttributeFound = false;
-            xmlXsiTypeConverter = null;
-            for (;;) {
-                if (token == null) {
-                    token = x.nextToken();
-                }
-                // attribute = value
-                if (token instanceof String) {
-                    string = (String) token;
-                    token = x.nextToken();
-                    if (token == EQ) {
-                        token = x.nextToken();
-                        if (!(token instanceof String)) {
-                            throw x.syntaxError("Missing value");
-                        }
+            return parseElement(x, context, (String) token, config);
+        }
+    }
 
-                        if (config.isConvertNilAttributeToNull()
-                                && NULL_ATTR.equals(string)
-                                && Boolean.parseBoolean((String) token)) {
-                            nilAttributeFound = true;
-                        } else if(config.getXsiTypeMap() != null && !config.getXsiTypeMap().isEmpty()
-                                && TYPE_ATTR.equals(string)) {
-                            xmlXsiTypeConverter = config.getXsiTypeMap().get(token);
-                        } else if (!nilAttributeFound) {
-                            jsonObject.accumulate(string,
-                                    config.isKeepStrings()
-                                            ? ((String) token)
-                                            : stringToValue((String) token));
-                        }
-                        token = null;
-                    } else {
-                        jsonObject.accumulate(string, "");
+    /**
+     * Skip past a comment, CDATA section or declaration whose opening
+     * <code>&lt;!</code> has been read. CDATA text is attached to the context.
+     *
+     * @param x
+     *            The XMLTokener containing the source string.
+     * @param context
+     *            The JSONObject that will include CDATA text, or null to
+     *            discard it.
+     * @throws JSONException
+     */
+    static void parseBang(XMLTokener x, JSONObject context, XMLParserConfiguration config)
+            throws JSONException {
+        char c;
+        int i;
+        String string;
+        Object token;
+
+        c = x.next();
+        if (c == '-') {
+            if (x.next() == '-') {
+                x.skipPast("-->");
+                return;
+            }
+            x.back();
+        } else if (c == '[') {
+            token = x.nextToken();
+            if ("CDATA".equals(token)) {
+                if (x.next() == '[') {
+                    string = x.nextCDATA();
+                    if (context != null && string.length() > 0) {
+                        context.accumulate(config.getcDataTagName(), string);
                     }
+                    return;
+                }
+            }
+            throw x.syntaxError("Expected 'CDATA['");
+        }
+        i = 1;
+        do {
+            token = x.nextMeta();
+            if (token == null) {
+                throw x.syntaxError("Missing '>' after '<!'.");
+            } else if (token == LT) {
+                i += 1;
+            } else if (token == GT) {
+                i -= 1;
+            }
+        } while (i > 0);
+    }
 
+    /**
+     * Scan an element whose opening <code>&lt;</code> and tag name have been
+     * read, attaching it to the context.
+     *
+     * @param x
+     *            The XMLTokener containing the source string.
+     * @param context
+     *            The JSONObject that will include the new material.
+     * @param tagName
+     *            The tag name.
+     * @return false, as the element is not a close tag.
+     * @throws JSONException
+     */
+    static boolean parseElement(XMLTokener x, JSONObject context, String tagName,
+            XMLParserConfiguration config) throws JSONException {
+        JSONObject jsonObject;
+        String string;
+        XMLXsiTypeConverter<?> xmlXsiTypeConverter;
 
-                } else if (token == SLASH) {
-                    // Empty tag <.../>
-                    if (x.nextToken() != GT) {
-                        throw x.syntaxError("Misshaped tag");
+        Object token = null;
+        jsonObject = new JSONObject();
+        boolean nilAttributeFound = false;
+        xmlXsiTypeConverter = null;
+        for (;;) {
+            if (token == null) {
+                token = x.nextToken();
+            }
+            // attribute = value
+            if (token instanceof String) {
+                string = (String) token;
+                token = x.nextToken();
+                if (token == EQ) {
+                    token = x.nextToken();
+                    if (!(token instanceof String)) {
+                        throw x.syntaxError("Missing value");
                     }
-                    if (nilAttributeFound) {
-                        context.accumulate(tagName, JSONObject.NULL);
-                    } else if (jsonObject.length() > 0) {
-                        context.accumulate(tagName, jsonObject);
-                    } else {
-                        context.accumulate(tagName, "");
+
+                    if (config.isConvertNilAttributeToNull()
+                            && NULL_ATTR.equals(string)
+                            && Boolean.parseBoolean((String) token)) {
+                        nilAttributeFound = true;
+                    } else if(config.getXsiTypeMap() != null && !config.getXsiTypeMap().isEmpty()
+                            && TYPE_ATTR.equals(string)) {
+                        xmlXsiTypeConverter = config.getXsiTypeMap().get(token);
+                    } else if (!nilAttributeFound) {
+                        jsonObject.accumulate(string,
+                                config.isKeepStrings()
+                                        ? ((String) token)
+                                        : stringToValue((String) token));
                     }
-                    return false;
-
-                } else if (token == GT) {
-                    // Content, between <...> and </...>
-                    for (;;) {
-                        token = x.nextContent();
-                        if (token == null) {
-                            if (tagName != null) {
-                                throw x.syntaxError("Unclosed tag " + tagName);
-                            }
-                            return false;
-                        } else if (token instanceof String) {
-                            string = (String) token;
-                            if (string.length() > 0) {
-                                if(xmlXsiTypeConverter != null) {
-                                    jsonObject.accumulate(config.getcDataTagName(),
-                                            stringToValue(string, xmlXsiTypeConverter));
-                                } else {
-                                    jsonObject.accumulate(config.getcDataTagName(),
-                                            config.isKeepStrings() ? string : stringToValue(string));
-                                }
+                    token = null;
+                } else {
+                    jsonObject.accumulate(string, "");
+                }
+
+
+            } else if (token == SLASH) {
+                // Empty tag <.../>
+                if (x.nextToken() != GT) {
+                    throw x.syntaxError("Misshaped tag");
+                }
+                if (nilAttributeFound) {
+                    context.accumulate(tagName, JSONObject.NULL);
+                } else if (jsonObject.length() > 0) {
+                    context.accumulate(tagName, jsonObject);
+                } else {
+                    context.accumulate(tagName, "");
+                }
+                return false;
+
+            } else if (token == GT) {
+                // Content, between <...> and </...>
+                for (;;) {
+                    token = x.nextContent();
+                    if (token == null) {
+                        if (tagName != null) {
+                            throw x.syntaxError("Unclosed tag " + tagName);
+                        }
+                        return false;
+                    } else if (token instanceof String) {
+                        string = (String) token;
+                        if (string.length() > 0) {
+                            if(xmlXsiTypeConverter != null) {
+                                jsonObject.accumulate(config.getcDataTagName(),
+                                        stringToValue(string, xmlXsiTypeConverter));
+                            } else {
+                                jsonObject.accumulate(config.getcDataTagName(),
+                                        config.isKeepStrings() ? string : stringToValue(string));
                             }
+                        }
 
-                        } else if (token == LT) {
-                            // Nested element
-                            if (parse(x, jsonObject, tagName, config)) {
-                                if (jsonObject.length() == 0) {
-                                    context.accumulate(tagName, "");
-                                } else if (jsonObject.length() == 1
-                                        && jsonObject.opt(config.getcDataTagName()) != null) {
-                                    context.accumulate(tagName, jsonObject.opt(config.getcDataTagName()));
-                                } else {
-                                    context.accumulate(tagName, jsonObject);
-                                }
-                                return false;
+                    } else if (token == LT) {
+                        // Nested element
+                        if (parse(x, jsonObject, tagName, config)) {
+                            if (jsonObject.length() == 0) {
+                                context.accumulate(tagName, "");
+                            } else if (jsonObject.length() == 1
+                                    && jsonObject.opt(config.getcDataTagName()) != null) {
+                                context.accumulate(tagName, jsonObject.opt(config.getcDataTagName()));
+                            } else {
+                                context.accumulate(tagName, jsonObject);
                             }
+                            return false;
                         }
                     }
-                } else {
-                    throw x.syntaxError("Misshaped tag");
                 }
+            } else {
+                throw x.syntaxError("Misshaped tag");
             }
         }
     }
@@ -531,6 +556,16 @@ public class XML {
             // integer representation.
             // This will narrow any values to the smallest reasonable Object representation
             // (Integer, Long, or BigInteger)
+
+            // Up to 18 characters always fit in a long, so there is no need
+            // for a BigInteger.
+            if (val.length() <= 18) {
+                long l = Long.parseLong(val);
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+                    return Integer.valueOf((int) l);
+                }
+                return Long.valueOf(l);
+            }
             
             // BigInteger down conversion: We use a similar bitLength compare as
             // BigInteger#intValueExact uses. Increases GC, but objects hold
@@ -709,6 +744,47 @@ public class XML {
         return toJSONObject(new StringReader(string), config);
     }
 
+    /**
+     * Convert the elements at a path of a well-formed (but not necessarily
+     * valid) XML document into JSONObjects, one at a time. The path names the
+     * tag of each element from the root element down, as in
+     * <code>/feed/item</code>. Each matching element is converted as
+     * {@link #toJSONObject(Reader, XMLParserConfiguration)} would convert it
+     * on its own, so <code>&lt;item&gt;...&lt;/item&gt;</code> becomes
+     * <code>{"item":...}</code>. The rest of the document is checked and
+     * skipped but not converted.
+     *
+     * The document is read as the iterator advances, and nothing is kept of
+     * the elements already returned, so a large document can be converted in
+     * bounded memory. The iterator throws a JSONException if the document is
+     * not well formed. The caller must close the reader.
+     *
+     * @param reader The XML source reader.
+     * @param path The path of the elements to convert.
+     * @param config Configuration options for the parser.
+     * @return An iterator of the converted elements, in document order.
+     * @throws JSONException Thrown if the path is empty or has an empty step
+     */
+    public static Iterator<JSONObject> toJSONObjects(Reader reader, String path,
+            XMLParserConfiguration config) throws JSONException {
+        return new XMLElementIterator(new XMLTokener(reader), path, config);
+    }
+
+    /**
+     * Convert the elements at a path of a well-formed (but not necessarily
+     * valid) XML document into JSONObjects, one at a time, as by
+     * {@link #toJSONObjects(Reader, String, XMLParserConfiguration)} with the
+     * original configuration.
+     *
+     * @param reader The XML source reader.
+     * @param path The path of the elements to convert, such as <code>/feed/item</code>.
+     * @return An iterator of the converted elements, in document order.
+     * @throws JSONException Thrown if the path is empty or has an empty step
+     */
+    public static Iterator<JSONObject> toJSONObjects(Reader reader, String path) throws JSONException {
+        return toJSONObjects(reader, path, XMLParserConfiguration.ORIGINAL);
+    }
+
     /**
      * Convert a JSONObject into a well-formed, element-normal XML string.
      *
@@ -750,17 +826,98 @@ public class XML {
     public static String toString(final Object object, final String tagName, final XMLParserConfiguration config)
             throws JSONException {
         StringBuilder sb = new StringBuilder();
+        try {
+            append(object, sb, tagName, config);
+        } catch (IOException e) {
+            // a StringBuilder never throws
+            throw new JSONException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Write a JSONObject to a writer as well-formed, element-normal XML.
+     *
+     * @param object
+     *            A JSONObject.
+     * @param writer
+     *            The writer to receive the XML text.
+     * @return The writer.
+     * @throws JSONException Thrown if the writer fails
+     */
+    public static Writer write(Object object, Writer writer) throws JSONException {
+        return write(object, writer, null, XMLParserConfiguration.ORIGINAL);
+    }
+
+    /**
+     * Write a JSONObject to a writer as well-formed, element-normal XML.
+     *
+     * @param object
+     *            A JSONObject.
+     * @param writer
+     *            The writer to receive the XML text.
+     * @param tagName
+     *            The optional name of the enclosing tag.
+     * @return The writer.
+     * @throws JSONException Thrown if the writer fails
+     */
+    public static Writer write(Object object, Writer writer, String tagName) throws JSONException {
+        return write(object, writer, tagName, XMLParserConfiguration.ORIGINAL);
+    }
+
+    /**
+     * Write a JSONObject to a writer as well-formed, element-normal XML.
+     * Elements are written as the object is walked and text is escaped
+     * straight into the writer, so the document is never held in memory.
+     * The text written is the same as that returned by
+     * {@link #toString(Object, String, XMLParserConfiguration)}.
+     *
+     * @param object
+     *            A JSONObject.
+     * @param writer
+     *            The writer to receive the XML text.
+     * @param tagName
+     *            The optional name of the enclosing tag.
+     * @param config
+     *            Configuration that can control output to XML.
+     * @return The writer.
+     * @throws JSONException Thrown if the writer fails
+     */
+    public static Writer write(Object object, Writer writer, String tagName, XMLParserConfiguration config)
+            throws JSONException {
+        try {
+            append(object, writer, tagName, config);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        return writer;
+    }
+
+    /**
+     * Append the XML text for an object to a sink.
+     *
+     * @param object
+     *            A JSONObject, JSONArray, array or value.
+     * @param out
+     *            The sink to receive the XML text.
+     * @param tagName
+     *            The optional name of the enclosing tag.
+     * @param config
+     *            Configuration that can control output to XML.
+     * @throws IOException Thrown if the sink fails
+     */
+    private static void append(final Object object, final Appendable out, final String tagName,
+            final XMLParserConfiguration config) throws IOException {
         JSONArray ja;
         JSONObject jo;
-        String string;
 
         if (object instanceof JSONObject) {
 
             // Emit <tagName>
             if (tagName != null) {
-                sb.append('<');
-                sb.append(tagName);
-                sb.append('>');
+                out.append('<');
+                out.append(tagName);
+                out.append('>');
             }
 
             // Loop thru the keys.
@@ -780,15 +937,15 @@ public class XML {
                         ja = (JSONArray) value;
                         int jaLength = ja.length();
                         // don't use the new iterator API to maintain support for Android
-						for (int i = 0; i < jaLength; i++) {
+                        for (int i = 0; i < jaLength; i++) {
                             if (i > 0) {
-                                sb.append('\n');
+                                out.append('\n');
                             }
                             Object val = ja.opt(i);
-                            sb.append(escape(val.toString()));
+                            escape(val.toString(), out);
                         }
                     } else {
-                        sb.append(escape(value.toString()));
+                        escape(value.toString(), out);
                     }
 
                     // Emit an array of similar keys
@@ -797,39 +954,39 @@ public class XML {
                     ja = (JSONArray) value;
                     int jaLength = ja.length();
                     // don't use the new iterator API to maintain support for Android
-					for (int i = 0; i < jaLength; i++) {
+                    for (int i = 0; i < jaLength; i++) {
                         Object val = ja.opt(i);
                         if (val instanceof JSONArray) {
-                            sb.append('<');
-                            sb.append(key);
-                            sb.append('>');
-                            sb.append(toString(val, null, config));
-                            sb.append("</");
-                            sb.append(key);
-                            sb.append('>');
+                            out.append('<');
+                            out.append(key);
+                            out.append('>');
+                            append(val, out, null, config);
+                            out.append("</");
+                            out.append(key);
+                            out.append('>');
                         } else {
-                            sb.append(toString(val, key, config));
+                            append(val, out, key, config);
                         }
                     }
                 } else if ("".equals(value)) {
-                    sb.append('<');
-                    sb.append(key);
-                    sb.append("/>");
+                    out.append('<');
+                    out.append(key);
+                    out.append("/>");
 
                     // Emit a new tag <k>
 
                 } else {
-                    sb.append(toString(value, key, config));
+                    append(value, out, key, config);
                 }
             }
             if (tagName != null) {
 
                 // Emit the </tagName> close tag
-                sb.append("</");
-                sb.append(tagName);
-                sb.append('>');
+                out.append("</");
+                out.append(tagName);
+                out.append('>');
             }
-            return sb.toString();
+            return;
 
         }
 
@@ -841,20 +998,34 @@ public class XML {
             }
             int jaLength = ja.length();
             // don't use the new iterator API to maintain support for Android
-			for (int i = 0; i < jaLength; i++) {
+            for (int i = 0; i < jaLength; i++) {
                 Object val = ja.opt(i);
                 // XML does not have good support for arrays. If an array
                 // appears in a place where XML is lacking, synthesize an
                 // <array> element.
-                sb.append(toString(val, tagName == null ? "array" : tagName, config));
+                append(val, out, tagName == null ? "array" : tagName, config);
             }
-            return sb.toString();
+            return;
         }
 
-        string = (object == null) ? "null" : escape(object.toString());
-        return (tagName == null) ? "\"" + string + "\""
-                : (string.length() == 0) ? "<" + tagName + "/>" : "<" + tagName
-                        + ">" + string + "</" + tagName + ">";
-
+        // escaping never turns a non-empty string into an empty one
+        String string = (object == null) ? "null" : object.toString();
+        if (tagName == null) {
+            out.append('"');
+            escape(string, out);
+            out.append('"');
+        } else if (string.length() == 0) {
+            out.append('<');
+            out.append(tagName);
+            out.append("/>");
+        } else {
+            out.append('<');
+            out.append(tagName);
+            out.append('>');
+            escape(string, out);
+            out.append("</");
+            out.append(tagName);
+            out.append('>');
+        }
     }
 }
@@ -0,0 +1,207 @@
+package org.json;
+
+/*
+Copyright (c) 2002 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates the elements at one path of an XML document, converting each to a
+ * JSONObject as {@link XML#toJSONObject(java.io.Reader, XMLParserConfiguration)}
+ * would convert the element on its own. The rest of the document is read
+ * through without being converted, and nothing is kept of elements that have
+ * already been returned, so the memory used depends on the size of the
+ * largest matching element rather than on the size of the document.
+ * @author JSON.org
+ * @version 2026-10-18
+ */
+final class XMLElementIterator implements Iterator<JSONObject> {
+
+    /** The source. */
+    private final XMLTokener x;
+
+    /** The tag names of the path, from the root element. */
+    private final String[] path;
+
+    /** The configuration for converting the elements. */
+    private final XMLParserConfiguration config;
+
+    /** The tag names of the open elements. */
+    private final ArrayList<String> open = new ArrayList<String>();
+
+    /** The next element, or null if it has not been read. */
+    private JSONObject next;
+
+    /** Whether the end of the document has been reached. */
+    private boolean done;
+
+    /**
+     * Construct an iterator.
+     * @param x The source.
+     * @param path The path of the elements, such as <code>/feed/item</code>.
+     * @param config The configuration for converting the elements.
+     * @throws JSONException If the path is empty or has an empty step.
+     */
+    XMLElementIterator(XMLTokener x, String path, XMLParserConfiguration config)
+            throws JSONException {
+        String steps = path.startsWith("/") ? path.substring(1) : path;
+        this.path = steps.split("/", -1);
+        for (String step : this.path) {
+            if (step.length() == 0) {
+                throw new JSONException("Invalid element path: " + path);
+            }
+        }
+        this.x = x;
+        this.config = config;
+    }
+
+    @Override
+    public boolean hasNext() throws JSONException {
+        if (this.next == null && !this.done) {
+            this.next = this.read();
+            this.done = this.next == null;
+        }
+        return this.next != null;
+    }
+
+    @Override
+    public JSONObject next() throws JSONException {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JSONObject element = this.next;
+        this.next = null;
+        return element;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read up to and including the next matching element.
+     * @return The element, or null at the end of the document.
+     * @throws JSONException If the document is not well formed.
+     */
+    private JSONObject read() throws JSONException {
+        XMLTokener x = this.x;
+        ArrayList<String> open = this.open;
+        for (;;) {
+            Object token = x.nextContent();
+            if (token == null) {
+                if (!open.isEmpty()) {
+                    throw x.syntaxError("Unclosed tag " + open.get(open.size() - 1));
+                }
+                return null;
+            }
+            if (token != XML.LT) {
+                // text outside the matching elements
+                continue;
+            }
+            token = x.nextToken();
+            if (token == XML.BANG) {
+                XML.parseBang(x, null, this.config);
+            } else if (token == XML.QUEST) {
+                x.skipPast("?>");
+            } else if (token == XML.SLASH) {
+                token = x.nextToken();
+                if (open.isEmpty()) {
+                    throw x.syntaxError("Mismatched close tag " + token);
+                }
+                String name = open.get(open.size() - 1);
+                if (!token.equals(name)) {
+                    throw x.syntaxError("Mismatched " + name + " and " + token);
+                }
+                if (x.nextToken() != XML.GT) {
+                    throw x.syntaxError("Misshaped close tag");
+                }
+                open.remove(open.size() - 1);
+            } else if (token instanceof Character) {
+                throw x.syntaxError("Misshaped tag");
+            } else {
+                String tagName = (String) token;
+                if (this.matches(tagName)) {
+                    JSONObject element = new JSONObject();
+                    XML.parseElement(x, element, tagName, this.config);
+                    return element;
+                }
+                if (this.skipAttributes()) {
+                    open.add(tagName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Determine if an element that opens now is at the path.
+     * @param tagName The tag name of the element.
+     * @return true if the element is to be converted.
+     */
+    private boolean matches(String tagName) {
+        int depth = this.open.size();
+        if (depth != this.path.length - 1 || !this.path[depth].equals(tagName)) {
+            return false;
+        }
+        for (int i = 0; i < depth; i += 1) {
+            if (!this.path[i].equals(this.open.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skip the attributes of an element that is not converted.
+     * @return true if the element has content, false if it is an empty tag.
+     * @throws JSONException If the tag is misshaped.
+     */
+    private boolean skipAttributes() throws JSONException {
+        XMLTokener x = this.x;
+        Object token = x.nextToken();
+        for (;;) {
+            if (token instanceof String) {
+                // attribute name, possibly followed by = value
+                token = x.nextToken();
+                if (token == XML.EQ) {
+                    if (!(x.nextToken() instanceof String)) {
+                        throw x.syntaxError("Missing value");
+                    }
+                    token = x.nextToken();
+                }
+            } else if (token == XML.SLASH) {
+                if (x.nextToken() != XML.GT) {
+                    throw x.syntaxError("Misshaped tag");
+                }
+                return false;
+            } else if (token == XML.GT) {
+                return true;
+            } else {
+                throw x.syntaxError("Misshaped tag");
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.json;
+
+/*
+Copyright (c) 2026 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Date;
+
+import org.json.junit.data.MyBean;
+import org.json.junit.data.MyBeanTarget;
+import org.junit.Test;
+
+/**
+ * Tests for the per-class cache of bean properties. The test is in the
+ * org.json package, as the cache is not public.
+ */
+public class JSONBeanInfoTest {
+
+    /**
+     * Verify that a class is examined once, and that later lookups return
+     * the same properties.
+     */
+    @Test
+    public void repeatedLookups() {
+        JSONBeanInfo info = JSONBeanInfo.forClass(MyBean.class);
+        assertSame(info, JSONBeanInfo.forClass(MyBean.class));
+        assertSame(JSONBeanInfo.forClass(Date.class), JSONBeanInfo.forClass(Date.class));
+        assertSame(JSONBeanBinder.forClass(MyBean.class), JSONBeanBinder.forClass(MyBean.class));
+    }
+
+    /**
+     * Verify that the cached properties of a class do not keep its class
+     * loader from being collected.
+     */
+    @Test
+    public void cacheDoesNotKeepClassLoaders() throws Exception {
+        WeakReference<ClassLoader> loader = useThrowawayLoader();
+        for (int i = 0; i < 100 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("class loader was not collected", loader.get());
+    }
+
+    /**
+     * Read and write a bean whose class is loaded by a new class loader.
+     *
+     * @return A weak reference to the class loader, which is no longer used.
+     */
+    private static WeakReference<ClassLoader> useThrowawayLoader() throws Exception {
+        URL classes = MyBeanTarget.class.getProtectionDomain().getCodeSource().getLocation();
+        DataLoader loader = new DataLoader(classes);
+        Class<?> klass = loader.loadClass(MyBeanTarget.class.getName());
+        assertNotSame(MyBeanTarget.class, klass);
+        Object bean = new JSONObject("{\"count\":3}").toBean(klass);
+        assertEquals(3, new JSONObject(bean).getInt("count"));
+        loader.close();
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    /**
+     * Loads the classes of the test data itself, and everything else from
+     * the class loader of the test.
+     */
+    private static final class DataLoader extends URLClassLoader {
+
+        DataLoader(URL classes) {
+            super(new URL[] { classes }, JSONBeanInfoTest.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            if (!name.startsWith("org.json.junit.data.")) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> klass = this.findLoadedClass(name);
+            if (klass == null) {
+                klass = this.findClass(name);
+            }
+            if (resolve) {
+                this.resolveClass(klass);
+            }
+            return klass;
+        }
+    }
+}
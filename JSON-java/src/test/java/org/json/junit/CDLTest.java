@@ -27,6 +27,13 @@ SOFTWARE.
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONArray;
@@ -319,6 +326,154 @@ public class CDLTest {
         JSONArray expectedJsonArray = new JSONArray(this.expectedLines);
         Util.compareActualVsExpectedJsonArrays(finalJsonArray, expectedJsonArray);
     }
-    
 
-}
\ No newline at end of file
+    /**
+     * Iterate the rows of comma delimited text from a reader
+     */
+    @Test
+    public void iterateRowsFromReader() {
+        JSONArray expected = CDL.toJSONArray(this.lines);
+        Iterator<JSONObject> objects = CDL.toJSONObjects(new StringReader(this.lines));
+        for (int i = 0; i < expected.length(); i += 1) {
+            assertTrue(objects.hasNext());
+            assertTrue(expected.getJSONObject(i).similar(objects.next()));
+        }
+        assertFalse(objects.hasNext());
+
+        Iterator<JSONArray> rows = CDL.toJSONArrays(new StringReader("a, b\n'c',d\n\ne\n"));
+        assertEquals("[\"a\",\"b\"]", rows.next().toString());
+        assertEquals("[\"c\",\"d\"]", rows.next().toString());
+        assertFalse("an empty row ends the rows", rows.hasNext());
+
+        objects = CDL.toJSONObjects(new JSONArray(), new StringReader(this.lines));
+        assertFalse(objects.hasNext());
+    }
+
+    /**
+     * Parse chunks of comma delimited text in parallel
+     */
+    @Test
+    public void parallelToJSONArray() {
+        StringBuilder sb = new StringBuilder("id,name,note\n");
+        for (int i = 0; i < 20000; i += 1) {
+            sb.append(i).append(",\"name, ").append(i).append("\",note ").append(i)
+                    .append(i % 2 == 0 ? "\n" : "\r");
+        }
+        String text = sb.toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            JSONArray expected = CDL.toJSONArray(text);
+            JSONArray actual = CDL.toJSONArray(text, pool);
+            assertEquals(20000, actual.length());
+            assertTrue(expected.similar(actual));
+
+            String stopped = text.replace("\n1001,", "\n\n1001,");
+            actual = CDL.toJSONArray(stopped, pool);
+            assertEquals(1001, actual.length());
+            assertTrue(CDL.toJSONArray(stopped).similar(actual));
+
+            String bad = text.replace("\"name, 15000\"", "\"name, 15000\"x");
+            String message = null;
+            try {
+                CDL.toJSONArray(bad);
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                message = e.getMessage();
+            }
+            try {
+                CDL.toJSONArray(bad, pool);
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertEquals(message, e.getMessage());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Iterate the rows of comma delimited text from a reader, parsing
+     * chunks of them in parallel
+     */
+    @Test
+    public void parallelRowsFromReader() {
+        StringBuilder sb = new StringBuilder("id,name,note\n");
+        for (int i = 0; i < 20000; i += 1) {
+            sb.append(i).append(",\"name, ").append(i).append("\",note ").append(i)
+                    .append(i % 2 == 0 ? "\n" : "\r");
+        }
+        String text = sb.toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Iterator<JSONArray> expected = CDL.toJSONArrays(new StringReader(text));
+            Iterator<JSONArray> rows = CDL.toJSONArrays(new StringReader(text), pool);
+            int count = 0;
+            while (expected.hasNext()) {
+                assertTrue(rows.hasNext());
+                assertTrue(expected.next().similar(rows.next()));
+                count += 1;
+            }
+            assertFalse(rows.hasNext());
+            assertEquals(20001, count);
+
+            String stopped = text.replace("\n1001,", "\n\n1001,");
+            rows = CDL.toJSONArrays(new StringReader(stopped), pool);
+            count = 0;
+            while (rows.hasNext()) {
+                rows.next();
+                count += 1;
+            }
+            assertEquals("an empty row ends the rows", 1002, count);
+
+            JSONArray names = new JSONArray("[\"id\",\"name\",\"note\"]");
+            Iterator<JSONObject> objects = CDL.toJSONObjects(names,
+                    new StringReader("1,a,b\n2,c,d"), pool);
+            assertTrue(new JSONObject("{\"id\":\"1\",\"name\":\"a\",\"note\":\"b\"}")
+                    .similar(objects.next()));
+            assertTrue(new JSONObject("{\"id\":\"2\",\"name\":\"c\",\"note\":\"d\"}")
+                    .similar(objects.next()));
+            assertFalse(objects.hasNext());
+
+            String bad = text.replace("\"name, 15000\"", "\"name, 15000\"x");
+            rows = CDL.toJSONArrays(new StringReader(bad), pool);
+            count = 0;
+            try {
+                while (rows.hasNext()) {
+                    rows.next();
+                    count += 1;
+                }
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertEquals(15001, count);
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid row on line 7502: "));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Write comma delimited text to a writer
+     */
+    @Test
+    public void writeToWriter() {
+        JSONArray jsonArray = CDL.toJSONArray(this.lines);
+        StringWriter writer = new StringWriter();
+        assertSame(writer, CDL.write(jsonArray, writer));
+        assertEquals(CDL.toString(jsonArray), writer.toString());
+
+        JSONArray names = new JSONArray().put("b").put("a");
+        List<Object> rows = new ArrayList<Object>();
+        rows.add(new JSONObject().put("a", "x,\"y\"\tz").put("b", "\"q"));
+        rows.add("not a row");
+        rows.add(new JSONObject().put("a", ""));
+        writer = new StringWriter();
+        CDL.write(names, rows, writer);
+        assertEquals("\"q\",\"x,yz\"\n,\n", writer.toString());
+        assertEquals(writer.toString(), CDL.toString(names, new JSONArray(rows)));
+
+        writer = new StringWriter();
+        CDL.write(new JSONArray(), rows, writer);
+        assertEquals("", writer.toString());
+    }
+}
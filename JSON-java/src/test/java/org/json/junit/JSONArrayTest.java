@@ -28,9 +28,13 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -42,11 +46,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONParserConfiguration;
 import org.json.JSONPointerException;
+import org.json.JSONPushParser;
+import org.json.JSONString;
+import org.json.JSONTokener;
 import org.junit.Test;
 
 import com.jayway.jsonpath.Configuration;
@@ -1009,6 +1018,29 @@ public class JSONArrayTest {
         }
     }
 
+    /**
+     * Exercise the JSONArray write() method to an OutputStream: the
+     * bytes are the UTF-8 encoding of toString()
+     */
+    @Test
+    public void writeOutputStream() throws IOException {
+        JSONArray jsonArray = new JSONArray();
+        jsonArray.put("value \"quoted\" </tag>\t\n");
+        jsonArray.put("café 中文 😀");
+        jsonArray.put(-42);
+        jsonArray.put(3.25);
+        jsonArray.put(new BigDecimal("-0.50"));
+        jsonArray.put(new JSONArray().put(true).put(JSONObject.NULL));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue("write returns the stream", jsonArray.write(out) == out);
+        assertEquals("compact text", jsonArray.toString(),
+                new String(out.toByteArray(), "UTF-8"));
+        out.reset();
+        jsonArray.write(out, 3, 0);
+        assertEquals("indented text", jsonArray.toString(3),
+                new String(out.toByteArray(), "UTF-8"));
+    }
+
     /**
      * Exercise the JSONArray write() method using Appendable.
      */
@@ -1282,4 +1314,206 @@ public class JSONArrayTest {
 		assertTrue("expected jsonArray.length() == 0", jsonArray.length() == 0); //Check if its length is 0
 		jsonArray.getInt(0); //Should throws org.json.JSONException: JSONArray[0] not found
 	}
+
+    /**
+     * Verify that homogeneous numeric arrays return the same values, of the
+     * same classes, before and after a value of another type is added.
+     */
+    @Test
+    public void homogeneousNumbers() {
+        JSONArray doubles = new JSONArray();
+        JSONArray longs = new JSONArray(2);
+        JSONArray ints = new JSONArray(new int[] {-1, 2, -3});
+        for (int i = 0; i < 100; i++) {
+            doubles.put(i + 0.25);
+            longs.put(-10000000000L * i);
+        }
+        assertEquals(Double.valueOf(99.25), doubles.get(99));
+        assertEquals(99.25, doubles.getDouble(99), 0);
+        assertEquals(99, doubles.getInt(99));
+        assertEquals(Long.valueOf(-990000000000L), longs.get(99));
+        assertEquals(-990000000000L, longs.getLong(99));
+        assertEquals(-990000000000L, longs.optLong(99, 0), 0);
+        assertEquals(Integer.valueOf(-3), ints.get(2));
+        assertEquals(-3.0, ints.optDouble(2, 0), 0);
+        assertEquals(7, ints.optInt(3, 7));
+
+        doubles.put(1, "one");
+        longs.put(7);
+        ints.remove(0);
+        ints.put(0, -2L);
+        assertEquals("one", doubles.get(1));
+        assertEquals(Double.valueOf(99.25), doubles.get(99));
+        assertEquals(Double.valueOf(0.25), doubles.get(0));
+        assertEquals(Long.valueOf(-990000000000L), longs.get(99));
+        assertEquals(Integer.valueOf(7), longs.get(100));
+        assertEquals(Long.valueOf(-2L), ints.get(0));
+        assertEquals(Integer.valueOf(-3), ints.get(1));
+
+        JSONArray copy = new JSONArray(new JSONArray("[-1, -2, -3]"));
+        copy.putAll(copy);
+        assertEquals(6, copy.length());
+        assertEquals("[-1,-2,-3,-1,-2,-3]", copy.toString());
+        assertTrue(copy.similar(new JSONArray("[-1,-2,-3,-1,-2,-3]")));
+
+        JSONArray parsedInts = new JSONArray("[0, 1, 2147483647, -5]");
+        assertEquals(Integer.valueOf(2147483647), parsedInts.get(2));
+        assertEquals(1, parsedInts.getInt(1));
+        assertEquals(2147483647L, parsedInts.getLong(2));
+        assertEquals("[0,1,2147483647,-5]", parsedInts.toString());
+        JSONArray parsedLongs = new JSONArray("[2147483648, 10000000000]");
+        assertEquals(Long.valueOf(10000000000L), parsedLongs.get(1));
+        assertEquals(2147483648L, parsedLongs.getLong(0));
+        JSONArray parsedDecimals = new JSONArray("[0.5, 2.25]");
+        assertEquals(new BigDecimal("2.25"), parsedDecimals.get(1));
+        assertEquals(2.25, parsedDecimals.getDouble(1), 0);
+        JSONArray mixed = new JSONArray("[1, 2147483648, 2.5]");
+        assertEquals(Integer.valueOf(1), mixed.get(0));
+        assertEquals(Long.valueOf(2147483648L), mixed.get(1));
+        assertEquals(new BigDecimal("2.5"), mixed.get(2));
+    }
+
+    /**
+     * Verify that decimals are parsed as Doubles only when the parser is
+     * configured so, including in lazily parsed and pushed text, and that
+     * keys and integers are not affected.
+     */
+    @Test
+    public void decimalsAsDouble() {
+        String text = "[0.5, -1.25, 1e2, 3.0, 1e400]";
+        JSONParserConfiguration doubles = new JSONParserConfiguration().withDecimalsAsDouble(true);
+        assertTrue(new JSONArray(text).get(0) instanceof BigDecimal);
+        JSONArray ja = new JSONArray(new JSONTokener(text, doubles));
+        assertEquals(Double.valueOf(0.5), ja.get(0));
+        assertEquals(Double.valueOf(-1.25), ja.get(1));
+        assertEquals(Double.valueOf(100), ja.get(2));
+        assertEquals(Double.valueOf(3), ja.get(3));
+        // beyond the range of a double
+        assertEquals(new BigDecimal("1e400"), ja.get(4));
+        assertEquals("[0.5,-1.25,100,3,1E+400]", ja.toString());
+
+        String object = "{1.50: [2, 2.5], \"n\": {\"d\": [-0.0, 0.1]}}";
+        JSONObject jo = new JSONObject(new JSONTokener(object, doubles.withLazy(true)));
+        assertTrue(jo.has("1.50"));
+        assertEquals(Integer.valueOf(2), jo.getJSONArray("1.50").get(0));
+        assertEquals(Double.valueOf(2.5), jo.getJSONArray("1.50").get(1));
+        assertEquals(Double.valueOf(0.1), jo.getJSONObject("n").getJSONArray("d").get(1));
+
+        JSONPushParser parser = new JSONPushParser(doubles);
+        char[] chars = object.toCharArray();
+        parser.feed(chars, 0, chars.length);
+        JSONObject pushed = (JSONObject) parser.endOfInput();
+        assertTrue(pushed.has("1.50"));
+        assertEquals(Double.valueOf(2.5), pushed.getJSONArray("1.50").get(1));
+        assertTrue(jo.similar(pushed));
+    }
+
+    /**
+     * toString appends to a caller's StringBuilder, and a value whose
+     * JSON text is made with toString while the array is being written gets
+     * a buffer of its own.
+     */
+    @Test
+    public void toStringIntoBuilder() {
+        final JSONArray inner = new JSONArray().put(-1).put("a");
+        JSONArray ja = new JSONArray().put(true).put(new JSONString() {
+            @Override
+            public String toJSONString() {
+                return inner.toString();
+            }
+        }).put(inner);
+        String expected = "[true,[-1,\"a\"],[-1,\"a\"]]";
+        assertEquals(expected, ja.toString());
+        StringBuilder sb = new StringBuilder("x=");
+        assertSame(sb, ja.toString(sb));
+        assertEquals("x=" + expected, sb.toString());
+        assertEquals("[\n  -1,\n  \"a\"\n]", inner.toString(new StringBuilder(), 2).toString());
+        assertEquals(expected, ja.toString());
+    }
+
+    /**
+     * A large array written in parallel, with large nested arrays and
+     * objects, is the same text as when it is written sequentially.
+     */
+    @Test
+    public void writeInParallel() {
+        JSONArray ja = new JSONArray();
+        JSONObject wide = new JSONObject();
+        for (int i = 0; i < 20000; i += 1) {
+            ja.put(i % 3 == 0 ? new JSONArray().put(-i).put("s" + i) : "v" + i);
+            wide.put("k" + i, -i);
+        }
+        ja.put(wide);
+        ja.put(new JSONArray().put(new JSONArray(ja.toList())));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int indentFactor = 0; indentFactor <= 2; indentFactor += 2) {
+                String expected = ja.toString(indentFactor);
+                assertEquals(expected, ja.write(new StringWriter(), indentFactor, pool).toString());
+            }
+            JSONArray small = new JSONArray().put(-1).put("a");
+            assertEquals(small.toString(), small.write(new StringWriter(), 0, pool).toString());
+            assertEquals(wide.toString(2), wide.write(new StringWriter(), 2, pool).toString());
+        } finally {
+            pool.shutdown();
+        }
+        // a pool with one thread runs no chunk beside the one being copied
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            assertEquals(ja.toString(), ja.write(new StringWriter(), 0, single).toString());
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    /**
+     * A large array parsed on a pool has the same elements as one parsed
+     * sequentially, and a syntax error in a late chunk is reported.
+     */
+    @Test
+    public void parseInParallel() {
+        StringBuilder sb = new StringBuilder(" [");
+        for (int i = 0; i < 30000; i += 1) {
+            switch (i % 5) {
+            case 0:
+                sb.append("{\"a\":[-1,\"x,]}\"],\"b\":'q\\\"[,'},\n");
+                break;
+            case 1:
+                sb.append("it's, ");
+                break;
+            case 2:
+                sb.append(",");
+                break;
+            case 3:
+                sb.append("[[-2],{}],");
+                break;
+            default:
+                sb.append("\"\\u0041\\\\\",");
+            }
+        }
+        sb.append("-3,]");
+        String text = sb.toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            JSONArray expected = new JSONArray(text);
+            JSONArray actual = new JSONArray(new StringReader(text), pool);
+            assertEquals(expected.length(), actual.length());
+            assertEquals(expected.toString(), actual.toString());
+            assertEquals(1, new JSONArray(new StringReader("[-1]"), pool).length());
+            try {
+                new JSONArray(new StringReader(text.substring(0, text.length() - 1) + "}"), pool);
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertTrue(e.getMessage().startsWith("Expected a ',' or ']'"));
+            }
+            try {
+                new JSONArray(new StringReader(text.replace("-3,", "{-3},")), pool);
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertTrue(e.getMessage().startsWith("Invalid JSONArray element from index "));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package org.json.junit;
+
+/*
+Copyright (c) 2020 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONLines;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Tests for JSONLines.java.
+ */
+public class JSONLinesTest {
+
+    /**
+     * Read values, skipping blank lines and white space around them
+     */
+    @Test
+    public void readValues() {
+        String text = "{\"a\":\"x\"}\r\n\n  [true,null]  \n\"s\"\n\n";
+        Iterator<Object> values = JSONLines.read(new StringReader(text));
+        assertEquals("x", ((JSONObject) values.next()).getString("a"));
+        assertEquals("[true,null]", values.next().toString());
+        assertEquals("s", values.next());
+        assertFalse(values.hasNext());
+        assertFalse(JSONLines.read(new StringReader("")).hasNext());
+    }
+
+    /**
+     * Read chunks of records on a pool, in order and out of order
+     */
+    @Test
+    public void readInParallel() {
+        StringBuilder sb = new StringBuilder();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 20000; i += 1) {
+            String record = new JSONArray().put("r" + i).put(new JSONArray().put("t")).toString();
+            expected.add(record);
+            sb.append(record).append('\n');
+        }
+        char[] padding = new char[200000];
+        Arrays.fill(padding, 'p');
+        String longRecord = new JSONArray().put("long").put(new String(padding)).toString();
+        expected.add(longRecord);
+        sb.append(longRecord);
+        String text = sb.toString();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(expected, readAll(JSONLines.read(new StringReader(text))));
+            assertEquals(expected, readAll(JSONLines.read(new StringReader(text), pool, true)));
+            List<String> unordered = readAll(JSONLines.read(new StringReader(text), pool, false));
+            Collections.sort(unordered);
+            List<String> sorted = new ArrayList<String>(expected);
+            Collections.sort(sorted);
+            assertEquals(sorted, unordered);
+
+            String bad = text.replace("[\"r15000\"", "[\"r15000\"]");
+            Iterator<Object> values = JSONLines.read(new StringReader(bad), pool, true);
+            int read = 0;
+            try {
+                while (values.hasNext()) {
+                    values.next();
+                    read += 1;
+                }
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid record on line 15001: "));
+            }
+            assertEquals(15000, read);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Write values one to a line and read them back
+     */
+    @Test
+    public void writeValues() {
+        List<Object> values = new ArrayList<Object>();
+        values.add(new JSONArray().put("x\ny"));
+        values.add(new JSONArray().put(new JSONArray().put("b")));
+        values.add("c");
+        values.add(null);
+        StringWriter writer = new StringWriter();
+        JSONLines.write(values, writer);
+        assertEquals("[\"x\\ny\"]\n[[\"b\"]]\n\"c\"\nnull\n", writer.toString());
+        assertEquals(Arrays.asList("[\"x\\ny\"]", "[[\"b\"]]", "c", "null"),
+                readAll(JSONLines.read(new StringReader(writer.toString()))));
+    }
+
+    private static List<String> readAll(Iterator<Object> values) {
+        List<String> strings = new ArrayList<String>();
+        while (values.hasNext()) {
+            strings.add(String.valueOf(values.next()));
+        }
+        return strings;
+    }
+}
@@ -29,11 +29,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
@@ -44,7 +46,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -55,10 +59,14 @@ import org.json.CDL;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONParserConfiguration;
+import org.json.JSONPersistentArray;
+import org.json.JSONPersistentObject;
 import org.json.JSONPointerException;
 import org.json.JSONTokener;
 import org.json.XML;
 import org.json.junit.data.BrokenToString;
+import org.json.junit.data.CallerBean;
 import org.json.junit.data.ExceptionalBean;
 import org.json.junit.data.Fraction;
 import org.json.junit.data.GenericBean;
@@ -66,6 +74,7 @@ import org.json.junit.data.GenericBeanInt;
 import org.json.junit.data.MyBean;
 import org.json.junit.data.MyBeanCustomName;
 import org.json.junit.data.MyBeanCustomNameSubClass;
+import org.json.junit.data.MyBeanTarget;
 import org.json.junit.data.MyBigNumberBean;
 import org.json.junit.data.MyEnum;
 import org.json.junit.data.MyEnumField;
@@ -2642,6 +2651,35 @@ public class JSONObjectTest {
                 null == new JSONObject().toJSONArray(null));
     }
 
+    /**
+     * Exercise the JSONObject write() method to an OutputStream: the
+     * bytes are the UTF-8 encoding of toString()
+     */
+    @Test
+    public void writeOutputStream() throws IOException {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("ascii", "value \"quoted\" </tag>\t\n");
+        jsonObject.put("latin", "café \u0085");
+        jsonObject.put("cjk", "中文  ");
+        jsonObject.put("astral", "😀 \ud800");
+        jsonObject.put("numbers", new JSONArray(Arrays.asList(
+                1, 2L, 3.5, 1.0e-10f, new BigDecimal("1.20"),
+                new BigInteger("123456789012345678901234567890"))));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("é😀");
+        }
+        jsonObject.put("long", sb.toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue("write returns the stream", jsonObject.write(out) == out);
+        assertTrue("compact bytes",
+                Arrays.equals(jsonObject.toString().getBytes("UTF-8"), out.toByteArray()));
+        out.reset();
+        jsonObject.write(out, 2, 0);
+        assertTrue("indented bytes",
+                Arrays.equals(jsonObject.toString(2).getBytes("UTF-8"), out.toByteArray()));
+    }
+
     /**
      * Exercise the JSONObject write() method
      */
@@ -3084,6 +3122,32 @@ public class JSONObjectTest {
         assertEquals(null, jo.opt("someString"));
     }
     
+    /**
+     * Getters of a public bean are called once each, and not through
+     * reflection where the runtime can generate accessors.
+     */
+    @Test
+    public void beanGettersAreCalledDirectly() {
+        CallerBean bean = new CallerBean();
+        JSONObject jo = new JSONObject(bean);
+        assertEquals(jo.keySet().toString(), 1, jo.length());
+        assertEquals(1, jo.get("calls"));
+        assertEquals(1, bean.getCounter);
+        boolean generated;
+        try {
+            Class.forName("java.lang.invoke.LambdaMetafactory");
+            generated = true;
+        } catch (ClassNotFoundException e) {
+            generated = false;
+        }
+        assertEquals(!generated, bean.calledByReflection);
+
+        // the same getters are used for the next bean of the class
+        CallerBean next = new CallerBean();
+        assertEquals(1, new JSONObject(next).get("calls"));
+        assertEquals(!generated, next.calledByReflection);
+    }
+
     /**
      * Test to validate that a generic class can be serialized as a bean.
      */
@@ -3190,7 +3254,8 @@ public class JSONObjectTest {
      }
     
     /**
-     * Tests the exception portions of populateMap.
+     * Tests the exception portions of populateMap. A getter that throws,
+     * even an error, is skipped.
      */
     @Test
     public void testExceptionalBean() {
@@ -3281,4 +3346,379 @@ public class JSONObjectTest {
         assertTrue("expected jsonObject.length() == 0", jsonObject.length() == 0); //Check if its length is 0
         jsonObject.getInt("key1"); //Should throws org.json.JSONException: JSONObject["asd"] not found
     }
+
+    /**
+     * Verify that numbers parsed directly from the tokener buffer are the
+     * same as the ones produced by stringToValue.
+     */
+    @Test
+    public void parsedNumbersMatchStringToValue() {
+        String[] values = {"-1", "-2147483648", "-2147483649", "-123456789012345678",
+                "-1234567890123456789", "-1.50", "-0", "-0.0", "-1e5", "-1.5E-3",
+                "-01", "-1.", "-1e", "-1x", "-", "1", "1.5", "-123456789.123456789",
+                "0", "0.0", "01", "2147483647", "2147483648", "123456789012345678",
+                "1234567890123456789", "1e5", "1.5E-3", "1.", "1x", "123456789.123456789"};
+        for (String value : values) {
+            Object expected = JSONObject.stringToValue(value);
+            Object fromString = new JSONObject("{\"a\":" + value + "}").get("a");
+            Object fromReader = new JSONObject(new JSONTokener(
+                    new StringReader("{\"a\":" + value + " }"))).get("a");
+            assertEquals(value, expected, fromString);
+            assertEquals(value, expected.getClass(), fromString.getClass());
+            assertEquals(value, expected, fromReader);
+            assertEquals(value, expected.getClass(), fromReader.getClass());
+        }
+        JSONObject jo = new JSONObject("{\"a\":1,\"b\":2147483648,\"c\":1.5,\"d\":01}");
+        assertEquals(Integer.valueOf(1), jo.get("a"));
+        assertEquals(Long.valueOf(2147483648L), jo.get("b"));
+        assertEquals(new BigDecimal("1.5"), jo.get("c"));
+        assertEquals("01", jo.get("d"));
+    }
+
+    /**
+     * Verify that the map views behave the same while an object is small and
+     * after it has grown past the compact representation.
+     */
+    @Test
+    public void mapViewsAcrossGrowth() {
+        JSONObject jsonObject = new JSONObject();
+        Map<String, Object> expected = new HashMap<String, Object>();
+        for (int i = 0; i < 20; i++) {
+            jsonObject.put("key" + i, i);
+            expected.put("key" + i, i);
+            assertEquals(expected.size(), jsonObject.length());
+            assertEquals(expected, jsonObject.toMap());
+            assertEquals(expected.keySet(), jsonObject.keySet());
+            assertEquals(Integer.valueOf(i), jsonObject.opt("key" + i));
+        }
+
+        JSONObject small = new JSONObject().put("a", 1).put("b", 2).put("c", 3);
+        small.put("b", "two");
+        assertEquals("two", small.get("b"));
+        Iterator<String> keys = small.keySet().iterator();
+        while (keys.hasNext()) {
+            if ("a".equals(keys.next())) {
+                keys.remove();
+            }
+        }
+        assertFalse(small.has("a"));
+        assertEquals(3, small.getInt("c"));
+        assertEquals(2, small.length());
+        assertEquals(3, small.put("d", 4).length());
+        small.remove("c");
+        small.remove("b");
+        small.remove("d");
+        assertTrue(small.isEmpty());
+        assertEquals(0, small.keySet().size());
+
+        // growing past the flat arrays while iterating is reported
+        JSONObject full = new JSONObject();
+        for (int i = 0; i < 8; i++) {
+            full.put("key" + i, i);
+        }
+        Iterator<String> growing = full.keySet().iterator();
+        growing.next();
+        full.put("key8", 8);
+        assertTrue(growing.hasNext());
+        try {
+            growing.next();
+            fail("Expected an exception");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Verify that a lazily parsed object reads the same values as an eagerly
+     * parsed one, writes untouched nested values as their source text, and
+     * reports syntax errors in nested values when they are read.
+     */
+    @Test
+    public void lazyParsing() {
+        String text = "{\"a\": {\"b\": [-1, -2, {\"c\": \"x]}\\\"'\"}]},"
+                + " \"d\" : [ -3 ,-4 ], \"e\": -5, \"f\": 'y'}";
+        JSONParserConfiguration lazy = new JSONParserConfiguration().withLazy(true);
+        JSONObject eager = new JSONObject(text);
+        JSONObject jsonObject = new JSONObject(new JSONTokener(text, lazy));
+        assertTrue(jsonObject.toString().contains("[ -3 ,-4 ]"));
+        assertEquals(Integer.valueOf(-5), jsonObject.get("e"));
+        assertEquals("x]}\"'", jsonObject.getJSONObject("a").getJSONArray("b")
+                .getJSONObject(2).getString("c"));
+        assertSame(jsonObject.get("a"), jsonObject.get("a"));
+        assertTrue(jsonObject.similar(eager));
+        assertEquals(eager.toString(2), jsonObject.toString(2));
+        assertFalse(jsonObject.toString().contains("[ -3 ,-4 ]"));
+
+        JSONArray array = new JSONArray(new JSONTokener("[[-1], {\"k\": -2}]", lazy));
+        JSONArray copy = new JSONArray(array);
+        assertEquals("[[-1],{\"k\": -2}]", array.toString());
+        assertSame(array.get(1), copy.get(1));
+        assertSame(array.getJSONArray(0), copy.getJSONArray(0));
+
+        JSONObject broken = new JSONObject(new JSONTokener("{\"a\": [-1 : -2], \"b\": -1}", lazy));
+        assertEquals(-1, broken.getInt("b"));
+        try {
+            broken.getJSONArray("a");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertTrue(e.getMessage().startsWith("Expected a ',' or ']'"));
+        }
+        try {
+            new JSONObject(new JSONTokener("{\"a\": [-1, -2}", lazy));
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertTrue(e.getMessage().endsWith("at 14 [character 15 line 1]"));
+        }
+    }
+
+    /**
+     * Verify that a quote inside unquoted text does not start a string when
+     * a nested value is skipped lazily, so no member is lost.
+     */
+    @Test
+    public void lazyParsingUnquotedApostrophe() {
+        String text = "{\"a\":[don't], \"b\":[it's]}";
+        JSONObject eager = new JSONObject(text);
+        JSONObject jsonObject = new JSONObject(new JSONTokener(text,
+                new JSONParserConfiguration().withLazy(true)));
+        assertEquals(eager.keySet(), jsonObject.keySet());
+        assertEquals("it's", jsonObject.getJSONArray("b").getString(0));
+        assertTrue(jsonObject.similar(eager));
+    }
+
+    /**
+     * Verify that a lazily parsed value is only written as its source text
+     * when that text is strict JSON, that deferred errors are reported at
+     * their place in the document, and that concurrent reads parse a value
+     * once.
+     */
+    @Test
+    public void lazyParsingIsStrictAndShared() throws Exception {
+        final JSONParserConfiguration lazy = new JSONParserConfiguration().withLazy(true);
+        String loose = "{\"a\":{ b : 'x' }}";
+        JSONObject eager = new JSONObject(loose);
+        assertEquals(eager.toString(), new JSONObject(new JSONTokener(loose, lazy)).toString());
+
+        String[] invalid = {"{\"a\":{\"b\":}}", "{\"a\":{\"b\":-1,\"b\":-2}}",
+            "{\"a\":\n [-1 : -2], \"b\": -1}"};
+        for (String text : invalid) {
+            String expected = null;
+            try {
+                new JSONObject(text);
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                expected = e.getMessage();
+            }
+            JSONObject jsonObject = new JSONObject(new JSONTokener(text, lazy));
+            try {
+                jsonObject.write(new StringWriter());
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertEquals(text, expected, e.getMessage());
+            }
+        }
+
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < 64; i++) {
+            sb.append("\"k").append(i).append("\":{\"v\":[").append(-i).append("]},");
+        }
+        sb.append("\"last\":-1}");
+        final JSONObject shared = new JSONObject(new JSONTokener(sb.toString(),
+                JSONParserConfiguration.INTERN_KEYS.withLazy(true)));
+        final Object[][] seen = new Object[4][64];
+        Thread[] threads = new Thread[seen.length];
+        for (int t = 0; t < threads.length; t++) {
+            final Object[] mine = seen[t];
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < mine.length; i++) {
+                        mine[i] = shared.getJSONObject("k" + i).getJSONArray("v");
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int i = 0; i < 64; i++) {
+            for (int t = 1; t < seen.length; t++) {
+                assertSame(seen[0][i], seen[t][i]);
+            }
+            assertEquals(-i, ((JSONArray) seen[0][i]).getInt(0));
+        }
+    }
+
+    /**
+     * Similar objects have equal similarity hashes, and the hashes follow
+     * changes to nested values.
+     */
+    @Test
+    public void similarityHash() {
+        JSONObject a = new JSONObject()
+                .put("name", "x")
+                .put("tags", new JSONArray().put(1).put(2.0).put(new BigDecimal("3.00")))
+                .put("child", new JSONObject().put("k", "v").put("none", JSONObject.NULL));
+        JSONObject b = new JSONObject()
+                .put("child", new JSONObject().put("none", JSONObject.NULL).put("k", "v"))
+                .put("tags", new JSONArray().put(1L).put(2).put(BigInteger.valueOf(3)))
+                .put("name", "x");
+        assertTrue(a.similar(b));
+        assertEquals(a.similarityHash(), b.similarityHash());
+        assertEquals(a.getJSONArray("tags").similarityHash(),
+                b.getJSONArray("tags").similarityHash());
+
+        JSONObject c = new JSONObject(a.toMap());
+        c.put("name", "y");
+        assertNotEquals(a.similarityHash(), c.similarityHash());
+        assertFalse(a.similar(c));
+
+        b.getJSONObject("child").put("k", "w");
+        assertFalse(a.similar(b));
+        assertNotEquals(a.similarityHash(), b.similarityHash());
+        b.getJSONObject("child").put("k", "v");
+        assertTrue(a.similar(b));
+        assertEquals(a.similarityHash(), b.similarityHash());
+
+        b.getJSONArray("tags").put(4);
+        assertFalse(a.similar(b));
+        b.getJSONArray("tags").remove(3);
+        assertTrue(a.similar(b));
+        assertEquals(a.similarityHash(), b.similarityHash());
+
+        // a change to another document leaves these hashes alone
+        int hash = a.similarityHash();
+        JSONObject other = new JSONObject().put("list", new JSONArray().put(new JSONObject()));
+        int otherHash = other.similarityHash();
+        other.getJSONArray("list").getJSONObject(0).put("k", "v");
+        assertNotEquals(otherHash, other.similarityHash());
+        assertEquals(hash, a.similarityHash());
+
+        // a change two levels down reaches the outermost document
+        JSONObject outer = new JSONObject().put("a", a);
+        JSONObject outerCopy = new JSONObject().put("a", b);
+        assertEquals(outer.similarityHash(), outerCopy.similarityHash());
+        a.getJSONObject("child").put("k", "w");
+        assertNotEquals(outer.similarityHash(), outerCopy.similarityHash());
+        assertFalse(outer.similar(outerCopy));
+        a.getJSONObject("child").put("k", "v");
+        assertEquals(outer.similarityHash(), outerCopy.similarityHash());
+        assertTrue(outer.similar(outerCopy));
+    }
+
+    /**
+     * An exception thrown by a setter is wrapped in a JSONException, while
+     * an error passes through unchanged.
+     */
+    @Test
+    public void toBeanSetterThrows() {
+        assertEquals(5, new JSONObject("{\"calls\":5}").toBean(CallerBean.class).getCounter);
+        try {
+            new JSONObject("{\"calls\":-1}").toBean(CallerBean.class);
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Unable to set JSONObject[\"calls\"]", e.getMessage());
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        try {
+            new JSONObject("{\"calls\":0}").toBean(CallerBean.class);
+            fail("Expected an error");
+        } catch (AssertionError e) {
+            assertEquals("zero", e.getMessage());
+        }
+    }
+
+    /**
+     * Beans are made from a JSONObject and directly from a tokener, with
+     * the same results.
+     */
+    @Test
+    public void toBean() {
+        String text = "{\"count\":3,\"full_name\":\"Larry\",\"secret\":\"x\","
+                + "\"kind\":\"VAL2\",\"scores\":[1,-2,\"3\"],\"ratio\":-0.5,"
+                + "\"ids\":[7,8],\"unknown\":{\"a\":[1,{}]},"
+                + "\"parent\":{\"full_name\":\"Moe\",\"count\":null},"
+                + "\"children\":{\"c\":{\"count\":-1}}}";
+        MyBeanTarget[] beans = {
+            new JSONObject(text).toBean(MyBeanTarget.class),
+            JSONObject.toBean(new JSONTokener(text), MyBeanTarget.class)
+        };
+        for (MyBeanTarget bean : beans) {
+            assertEquals(3, bean.getCount());
+            assertEquals("Larry", bean.getName());
+            assertEquals("unchanged", bean.getSecret());
+            assertEquals(MyEnum.VAL2, bean.getKind());
+            assertEquals(Arrays.asList(1, -2, 3), bean.getScores());
+            assertEquals(-0.5, bean.ratio, 0.0);
+            assertTrue(Arrays.equals(new long[] {7, 8}, bean.getIds()));
+            assertEquals("Moe", bean.getParent().getName());
+            assertEquals(0, bean.getParent().getCount());
+            assertEquals(-1, bean.getChildren().get("c").getCount());
+        }
+        try {
+            new JSONObject("{\"kind\":\"VAL9\"}").toBean(MyBeanTarget.class);
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("JSONObject[\"kind\"] is not convertible to "
+                    + MyEnum.class.getName() + " (VAL9).", e.getMessage());
+        }
+    }
+
+    /**
+     * Versions of a persistent object share structure and do not see each
+     * other's changes.
+     */
+    @Test
+    public void persistentVersions() {
+        JSONObject jo = new JSONObject();
+        for (int i = 0; i < 1000; i += 1) {
+            jo.put("k" + i, "v" + i);
+        }
+        jo.put("server", new JSONObject().put("host", "a").put("ports", new JSONArray().put(-1)));
+        JSONPersistentObject first = new JSONPersistentObject(jo);
+        assertEquals(1001, first.length());
+        assertSame(first, first.with("k1", first.get("k1")));
+
+        JSONPersistentObject server = (JSONPersistentObject) first.get("server");
+        JSONPersistentArray ports = (JSONPersistentArray) server.get("ports");
+        JSONPersistentObject second = first
+                .with("server", server.with("ports", ports.append(-2)))
+                .with("Aa", "x").with("BB", "y")
+                .without("k0");
+        assertEquals(1002, second.length());
+        assertEquals("x", second.get("Aa"));
+        assertEquals("y", second.get("BB"));
+        assertFalse(second.has("k0"));
+        assertEquals("v0", first.get("k0"));
+        assertFalse(first.has("Aa"));
+        assertEquals(1, ports.length());
+        assertSame(server.get("host"), ((JSONPersistentObject) second.get("server")).get("host"));
+        assertEquals(1001, second.without("Aa").length());
+        assertSame(second, second.without("missing"));
+
+        JSONObject copy = second.toJSONObject();
+        assertEquals(1002, copy.length());
+        JSONArray copiedPorts = copy.getJSONObject("server").getJSONArray("ports");
+        assertEquals(Arrays.asList((Object) (-1), -2), copiedPorts.toList());
+        assertEquals(JSONObject.NULL, first.with("n", JSONObject.NULL).get("n"));
+        try {
+            first.get("Aa");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("JSONObject[\"Aa\"] not found.", e.getMessage());
+        }
+
+        JSONPersistentArray array = JSONPersistentArray.EMPTY;
+        for (int i = 0; i < 5000; i += 1) {
+            array = array.append(-i);
+        }
+        JSONPersistentArray changed = array.with(40, "x").with(4999, "y");
+        assertEquals(-40, array.get(40));
+        assertEquals("x", changed.get(40));
+        assertEquals("y", changed.get(4999));
+        assertEquals(-4998, changed.get(4998));
+        assertEquals(5000, changed.toJSONArray().length());
+        assertNull(changed.opt(5000));
+    }
 }
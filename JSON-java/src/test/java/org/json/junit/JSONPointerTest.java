@@ -391,4 +391,48 @@ public class JSONPointerTest {
         obj = jsonArray.optQuery(new JSONPointer("/a/b/c"));
         assertTrue("Expected null", obj == null);
     }
+
+    /**
+     * A batch returns the same results as the pointers queried one by one
+     */
+    @Test
+    public void batchQuery() {
+        String[] pointers = {"", "/foo", "/foo/0", "/foo/1", "/obj/key",
+                "/obj/other~0key/another~1key/0", "/obj//", "/obj//subKey",
+                "/obj/missing", "#/c%25d", "/foo/1"};
+        JSONPointer[] compiled = new JSONPointer[pointers.length];
+        for (int i = 0; i < pointers.length; i++) {
+            compiled[i] = new JSONPointer(pointers[i]);
+        }
+        Object[] results = JSONPointer.batch(compiled).queryFrom(document);
+        assertEquals(pointers.length, results.length);
+        for (int i = 0; i < pointers.length; i++) {
+            assertSame(pointers[i], query(pointers[i]), results[i]);
+        }
+        assertEquals(0, JSONPointer.batch().queryFrom(document).length);
+    }
+
+    /**
+     * A batch reports the error of the first pointer that fails
+     */
+    @Test
+    public void batchQueryFailure() {
+        JSONPointer.Batch batch = JSONPointer.batch(new JSONPointer("/obj/key"),
+                new JSONPointer("/foo/a"), new JSONPointer("/foo/2"),
+                new JSONPointer("/obj/key/x"));
+        try {
+            batch.queryFrom(document);
+            fail("Expected JSONPointerException");
+        } catch (JSONPointerException e) {
+            assertEquals("a is not an array index", e.getMessage());
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        batch = JSONPointer.batch(new JSONPointer("/foo/2"), new JSONPointer("/foo/a"));
+        try {
+            batch.queryFrom(document);
+            fail("Expected JSONPointerException");
+        } catch (JSONPointerException e) {
+            assertEquals("index 2 is out of bounds - the array has 2 elements", e.getMessage());
+        }
+    }
 }
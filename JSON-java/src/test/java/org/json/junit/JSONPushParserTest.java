@@ -0,0 +1,142 @@
+package org.json.junit;
+
+/*
+Copyright (c) 2020 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONPushParser;
+import org.json.JSONReader;
+import org.junit.Test;
+
+/**
+ * Tests for JSONPushParser.
+ */
+public class JSONPushParserTest {
+
+    private static final String TEXT = "[-1, -2.5, \"a\\u00e9\\n\\\"\", {\"k\": [true, null, {}],"
+            + " 'q': x y }, [,], [-3,], \"中😀\"]";
+
+    /**
+     * A text fed one byte at a time, splitting every token and character,
+     * makes the same value as the JSONArray constructor.
+     */
+    @Test
+    public void feedBytes() throws Exception {
+        byte[] bytes = TEXT.getBytes("UTF-8");
+        JSONPushParser parser = new JSONPushParser();
+        for (int i = 0; i < bytes.length; i += 1) {
+            assertFalse(parser.isComplete());
+            parser.feed(ByteBuffer.wrap(bytes, i, 1));
+        }
+        assertTrue(parser.isComplete());
+        assertEquals(new JSONArray(TEXT).toString(), parser.endOfInput().toString());
+    }
+
+    /**
+     * A text fed in chunks of characters makes the same value as the
+     * JSONArray constructor.
+     */
+    @Test
+    public void feedChars() {
+        char[] chars = TEXT.toCharArray();
+        JSONPushParser parser = new JSONPushParser();
+        for (int i = 0; i < chars.length; i += 3) {
+            parser.feed(chars, i, Math.min(3, chars.length - i));
+        }
+        assertEquals(new JSONArray(TEXT).toString(), parser.endOfInput().toString());
+
+        parser = new JSONPushParser();
+        parser.feed("{\"a\":\"b\"}  ".toCharArray(), 0, 11);
+        JSONObject jo = (JSONObject) parser.endOfInput();
+        assertEquals("b", jo.getString("a"));
+
+        // a number at the top level ends with the input
+        parser = new JSONPushParser();
+        assertFalse(parser.feed("-12".toCharArray(), 0, 3));
+        assertEquals(Integer.valueOf(-12), parser.endOfInput());
+    }
+
+    /**
+     * Syntax errors are reported when the character is fed, and incomplete
+     * texts at the end of the input.
+     */
+    @Test
+    public void syntaxErrors() {
+        assertError("{\"a\" 1}", "Expected a ':' after a key at 6 [character 7 line 1]");
+        assertError("[\"a\\x\"]", "Illegal escape. at 5 [character 6 line 1]");
+        assertError("[\"a\nb\"]", "Unterminated string at 4 [character 0 line 2]");
+        assertError("{\"a\":-1} x", "Unexpected text after the JSON value at 10 [character 11 line 1]");
+        assertError("[-1, -2", "Expected a ',' or ']' at 7 [character 8 line 1]");
+        assertError("{\"a\":-1", "Expected a ',' or '}' at 7 [character 8 line 1]");
+        assertError("", "Missing value at 0 [character 1 line 1]");
+    }
+
+    /**
+     * Syntax errors have the messages and positions that JSONReader reports
+     * for the same text.
+     */
+    @Test
+    public void syntaxErrorsAsJSONReader() {
+        String[] texts = {
+            "[", "[1,", "{\"a\":[}", "{\"a\":1,\"a\":2}", "{\"a\":1,\"a\"\n:2}",
+            "{\"a\":1,", "{\"a\":1, ", "{\"a\":", "}", " \n}", "[\"a\\", "[\"\\u12",
+            "[\"\\u1x23\"]", "{:1}"
+        };
+        for (String text : texts) {
+            String message = null;
+            try {
+                JSONReader reader = new JSONReader(text);
+                reader.next();
+                reader.readValue();
+                fail("Expected an exception for " + text);
+            } catch (JSONException e) {
+                message = e.getMessage();
+            }
+            assertError(text, message);
+        }
+        assertError("[", "Expected a ',' or ']' at 1 [character 2 line 1]");
+        assertError("{\"a\":[}", "Missing value at 6 [character 7 line 1]");
+        assertError("{\"a\":1,\"a\":2}", "Duplicate key \"a\" at 11 [character 12 line 1]");
+    }
+
+    private static void assertError(String text, String message) {
+        JSONPushParser parser = new JSONPushParser();
+        try {
+            parser.feed(text.toCharArray(), 0, text.length());
+            parser.endOfInput();
+            fail("Expected an exception for " + text);
+        } catch (JSONException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.json.junit;
+
+/*
+Copyright (c) 2020 JSON.org
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+The Software shall be used for Good, not Evil.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONReader;
+import org.json.JSONReader.Event;
+import org.json.JSONTokener;
+import org.json.junit.data.MyBeanTarget;
+import org.junit.Test;
+
+/**
+ * Tests for the {@link org.json.JSONReader} pull parser.
+ */
+public class JSONReaderTest {
+
+    /**
+     * Verify the sequence of events for a nested document.
+     */
+    @Test
+    public void events() {
+        JSONReader reader = new JSONReader(
+                "{\"a\":[true,null,\"x\"],'b':{},c:[,]}");
+        assertEquals(Event.START_OBJECT, reader.next());
+        assertEquals(1, reader.getDepth());
+        assertEquals(Event.KEY, reader.next());
+        assertEquals("a", reader.getKey());
+        assertEquals(Event.START_ARRAY, reader.next());
+        assertEquals(Event.VALUE, reader.next());
+        assertEquals(Boolean.TRUE, reader.getValue());
+        assertEquals(Event.VALUE, reader.next());
+        assertEquals(JSONObject.NULL, reader.getValue());
+        assertEquals(Event.VALUE, reader.next());
+        assertEquals("x", reader.getValue());
+        assertEquals(Event.END_ARRAY, reader.next());
+        assertEquals(Event.KEY, reader.next());
+        assertEquals("b", reader.getKey());
+        assertEquals(Event.START_OBJECT, reader.next());
+        assertEquals(2, reader.getDepth());
+        assertEquals(Event.END_OBJECT, reader.next());
+        assertEquals(Event.KEY, reader.next());
+        assertEquals("c", reader.getKey());
+        assertEquals(Event.START_ARRAY, reader.next());
+        assertEquals(Event.VALUE, reader.next());
+        assertEquals(JSONObject.NULL, reader.getValue());
+        assertEquals(Event.END_ARRAY, reader.next());
+        assertTrue(reader.hasNext());
+        assertEquals(Event.END_OBJECT, reader.next());
+        assertEquals(0, reader.getDepth());
+        assertFalse(reader.hasNext());
+    }
+
+    /**
+     * Verify that skipChildren passes over a whole subtree and readValue
+     * materializes one.
+     */
+    @Test
+    public void skipChildrenAndReadValue() {
+        JSONReader reader = new JSONReader(new StringReader(
+                "[{\"skip\":[[\"deep\"],{\"x\":\"y\"}]},{\"keep\":[\"v\"]},\"last\"]"));
+        assertEquals(Event.START_ARRAY, reader.next());
+        assertEquals(Event.START_OBJECT, reader.next());
+        reader.skipChildren();
+        assertEquals(Event.END_OBJECT, reader.getEvent());
+        assertEquals(1, reader.getDepth());
+        assertEquals(Event.START_OBJECT, reader.next());
+        Object value = reader.readValue();
+        assertTrue(value instanceof JSONObject);
+        assertEquals("v", ((JSONObject) value).getJSONArray("keep").getString(0));
+        assertEquals(Event.VALUE, reader.next());
+        assertEquals("last", reader.readValue());
+        assertEquals(Event.END_ARRAY, reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    /**
+     * Verify that the JSONObject and JSONArray constructors built on the
+     * reader report the same errors as before.
+     */
+    @Test
+    public void errors() {
+        try {
+            new JSONObject("{\"a\":\"b\",\"a\":\"c\"}");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Duplicate key \"a\" at 13 [character 14 line 1]", e.getMessage());
+        }
+        try {
+            new JSONArray("[\"a\" \"b\"]");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Expected a ',' or ']' at 6 [character 7 line 1]", e.getMessage());
+        }
+        JSONReader reader = new JSONReader("{\"a\" \"b\"}");
+        reader.next();
+        try {
+            reader.next();
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Expected a ':' after a key at 6 [character 7 line 1]", e.getMessage());
+        }
+    }
+
+    /**
+     * Verify that arrays left open at the end of the input are syntax
+     * errors, rather than read as endless elements.
+     */
+    @Test
+    public void unclosedArrays() {
+        String[] texts = { "[", "[[", "[1,", "{\"a\":[" };
+        String[] messages = {
+                "Expected a ',' or ']' at 1 [character 2 line 1]",
+                "Expected a ',' or ']' at 2 [character 3 line 1]",
+                "Expected a ',' or ']' at 3 [character 4 line 1]",
+                "Expected a ',' or ']' at 6 [character 7 line 1]" };
+        for (int i = 0; i < texts.length; i++) {
+            JSONReader reader = new JSONReader(texts[i]);
+            reader.next();
+            try {
+                reader.readValue();
+                fail("Expected an exception");
+            } catch (JSONException e) {
+                assertEquals(messages[i], e.getMessage());
+            }
+        }
+        try {
+            new JSONObject("{\"a\":[");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals(messages[3], e.getMessage());
+        }
+        try {
+            JSONObject.toBean(new JSONTokener("{\"a\":["), MyBeanTarget.class);
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals(messages[3], e.getMessage());
+        }
+        JSONReader reader = new JSONReader("{\"a\":[");
+        reader.next();
+        try {
+            reader.readBean(MyBeanTarget.class);
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals(messages[3], e.getMessage());
+        }
+    }
+}
@@ -26,6 +26,7 @@ SOFTWARE.
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.util.*;
 
@@ -374,4 +375,51 @@ public class JSONStringerTest {
         assertTrue("expected 4", Integer.valueOf(4).equals(jsonObject.query("/object2/array1/4")));
     }
 
+    /**
+     * Sibling objects may use the same keys, and the key check can be turned
+     * off.
+     */
+    @Test
+    public void duplicateKeysAreCheckedPerObject() {
+        JSONStringer jsonStringer = new JSONStringer();
+        jsonStringer.array()
+            .object().key("k").value("a").endObject()
+            .object().key("k").value("b").key("o").object().key("k").value("c").endObject().endObject()
+            .endArray();
+        assertEquals("[{\"k\":\"a\"},{\"k\":\"b\",\"o\":{\"k\":\"c\"}}]",
+                jsonStringer.toString());
+        jsonStringer = new JSONStringer();
+        jsonStringer.object().key("k").value("a").key("j");
+        try {
+            jsonStringer.key("k");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Misplaced key.", e.getMessage());
+        }
+        jsonStringer.object().key("k").value(1).endObject();
+        try {
+            jsonStringer.key("k");
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Duplicate key \"k\"", e.getMessage());
+        }
+        jsonStringer = new JSONStringer(false);
+        jsonStringer.object().key("k").value("a").key("k").value("b").endObject();
+        assertEquals("{\"k\":\"a\",\"k\":\"b\"}", jsonStringer.toString());
+    }
+
+    /**
+     * A JSONWriter writes UTF-8 to a stream and flushes it at the end.
+     */
+    @Test
+    public void writeToOutputStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new JSONWriter(out)
+            .object()
+                .key("caf\u00e9").value("\u4e2d \ud83d\ude00 </")
+                .key("list").array().value(-1).value(true).value(null).endArray()
+            .endObject();
+        assertEquals("{\"caf\u00e9\":\"\u4e2d \ud83d\ude00 <\\/\",\"list\":[-1,true,null]}",
+                new String(out.toByteArray(), "UTF-8"));
+    }
 }
@@ -39,6 +39,7 @@ import java.io.StringReader;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONParserConfiguration;
 import org.json.JSONTokener;
 import org.junit.Test;
 
@@ -333,4 +334,96 @@ public class JSONTokenerTest {
         assertEquals(0, t2.next());
         assertFalse(t2.more());
    }
+
+    /**
+     * Verify that values spanning the chunks read from a Reader are parsed
+     * the same way as the in-memory string, with the same error positions.
+     */
+    @Test
+    public void testReaderChunkBoundaries() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 3000; i++) {
+            sb.append("\n {\"key").append(i).append("\" : \"va\\\"lue\\u0041\", \"n\":")
+                    .append(i).append(".5}, ");
+        }
+        sb.append("true]");
+        final String json = sb.toString();
+        final JSONArray fromString = new JSONArray(new JSONTokener(json));
+        final JSONArray fromReader = new JSONArray(new JSONTokener(new StringReader(json)));
+        assertEquals(3001, fromReader.length());
+        assertEquals("va\"lueA", fromReader.getJSONObject(2999).getString("key2999"));
+        assertTrue(fromString.similar(fromReader));
+
+        final String broken = json.substring(0, json.length() - 1) + "}";
+        String stringError = null;
+        String readerError = null;
+        try {
+            new JSONArray(new JSONTokener(broken));
+        } catch (JSONException e) {
+            stringError = e.getMessage();
+        }
+        try {
+            new JSONArray(new JSONTokener(new StringReader(broken)));
+        } catch (JSONException e) {
+            readerError = e.getMessage();
+        }
+        assertTrue(stringError != null);
+        assertEquals(stringError, readerError);
+    }
+
+    /**
+     * Verify that a tokener configured to intern keys shares one String per
+     * distinct key, up to the configured maximum, and parses the same values.
+     */
+    @Test
+    public void testInternKeys() {
+        final StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("{\"id\":").append(i).append(",'name':\"n").append(i)
+                    .append("\",\"esc\\u0061ped\":true,\"k").append(i % 3).append("\":null},");
+        }
+        sb.append("{}]");
+        final String json = sb.toString();
+        final JSONArray plain = new JSONArray(new JSONTokener(json));
+        final JSONArray interned = new JSONArray(new JSONTokener(new StringReader(json),
+                JSONParserConfiguration.INTERN_KEYS));
+        assertTrue(plain.similar(interned));
+        assertFalse(key(plain, 0, "id") == key(plain, 1, "id"));
+        for (String name : new String[] {"id", "name", "escaped", "k1"}) {
+            assertTrue(name, key(interned, 1, name) == key(interned, 1999, name));
+        }
+
+        final JSONArray bounded = new JSONArray(new JSONTokener(json,
+                JSONParserConfiguration.INTERN_KEYS.withMaxInternedKeys(1)));
+        assertTrue(plain.similar(bounded));
+        assertTrue(key(bounded, 0, "id") == key(bounded, 1, "id"));
+        assertFalse(key(bounded, 0, "name") == key(bounded, 1, "name"));
+
+        // the table grows as keys are added, whatever the maximum
+        final StringBuilder wide = new StringBuilder("{");
+        for (int i = 0; i < 5000; i++) {
+            wide.append("\"w").append(i).append("\":-1,");
+        }
+        wide.append("\"last\":-1}");
+        final String wideJson = "[" + wide + "," + wide + "]";
+        for (int max : new int[] {(1 << 29) + 1, Integer.MAX_VALUE}) {
+            final JSONArray unbounded = new JSONArray(new JSONTokener(wideJson,
+                    JSONParserConfiguration.INTERN_KEYS.withMaxInternedKeys(max)));
+            assertEquals(5001, unbounded.getJSONObject(1).length());
+            assertTrue(key(unbounded, 0, "w4999") == key(unbounded, 1, "w4999"));
+            assertTrue(key(unbounded, 0, "last") == key(unbounded, 1, "last"));
+        }
+    }
+
+    /**
+     * Find the key instance used by an object of an array.
+     */
+    private static String key(JSONArray array, int index, String name) {
+        for (String key : array.getJSONObject(index).keySet()) {
+            if (key.equals(name)) {
+                return key;
+            }
+        }
+        throw new AssertionError(name);
+    }
 }
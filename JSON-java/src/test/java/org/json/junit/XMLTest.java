@@ -38,7 +38,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 
 import org.json.JSONArray;
@@ -1069,4 +1071,69 @@ public class XMLTest {
             fail("Expected to be unable to modify the config");
         } catch (Exception ignored) { }
     }
+
+    /**
+     * Elements at a path are converted one at a time, each as it would be
+     * converted on its own, and the rest of the document is skipped.
+     */
+    @Test
+    public void testToJSONObjectsStreamsPath() {
+        String[] items = {
+            "<item id=\"-1\"><title>First</title><tag>a</tag><tag>b</tag></item>",
+            "<item/>",
+            "<item><![CDATA[<raw>]]><title>Third &amp; last</title></item>"
+        };
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE feed><feed version=\"2\">"
+                + "<meta><item>not at the path</item></meta><!-- comment -->"
+                + items[0] + "text" + items[1] + "<extra flag/>" + items[2]
+                + "</feed>";
+        Iterator<JSONObject> elements = XML.toJSONObjects(new StringReader(xml), "/feed/item");
+        for (String item : items) {
+            assertTrue(elements.hasNext());
+            JSONObject element = elements.next();
+            assertTrue(element.toString(), XML.toJSONObject(item).similar(element));
+        }
+        assertFalse(elements.hasNext());
+
+        elements = XML.toJSONObjects(new StringReader(xml), "feed/meta/item",
+                XMLParserConfiguration.KEEP_STRINGS);
+        assertEquals("not at the path", elements.next().getString("item"));
+        assertFalse(elements.hasNext());
+
+        elements = XML.toJSONObjects(new StringReader("<feed><item/></fed>"), "/feed/item");
+        elements.next();
+        try {
+            elements.hasNext();
+            fail("Expected an exception");
+        } catch (JSONException e) {
+            assertEquals("Mismatched feed and fed at 18 [character 19 line 1]", e.getMessage());
+        }
+    }
+
+    /**
+     * XML.write() streams the same text as XML.toString().
+     */
+    @Test
+    public void testWriteStreamsToWriter() {
+        JSONObject jo = new JSONObject()
+                .put("title", "Tom & \"Jerry\" <\u0001>")
+                .put("content", new JSONArray().put("a<b").put("c"))
+                .put("empty", "")
+                .put("tag", new JSONArray().put("x").put(new JSONArray().put(1).put(2)))
+                .put("item", new JSONObject().put("name", "it's 😀"));
+        String expected = "<doc><title>Tom &amp; &quot;Jerry&quot; &lt;&#x1;&gt;</title>"
+                + "a&lt;b\nc<empty/><tag>x</tag><tag><array>1</array><array>2</array></tag>"
+                + "<item><name>it&apos;s 😀</name></item></doc>";
+        StringWriter writer = new StringWriter();
+        assertTrue(writer == XML.write(jo, writer, "doc"));
+        assertEquals(expected, writer.toString());
+        assertEquals(expected, XML.toString(jo, "doc"));
+
+        writer = new StringWriter();
+        XML.write(new JSONArray().put("a").put(""), writer);
+        assertEquals("<array>a</array><array/>", writer.toString());
+        writer = new StringWriter();
+        XML.write("<\ud800>", writer);
+        assertEquals("\"&lt;&#xd800;&gt;\"", writer.toString());
+    }
 }
@@ -0,0 +1,46 @@
+package org.json.junit.data;
+
+/**
+ * Bean whose getter records how it was called, and whose setter throws.
+ */
+public class CallerBean {
+    /** to be used by the calling test to see how often the getter is called */
+    public int getCounter;
+    /** to be used by the calling test to see if the getter was called through reflection */
+    public boolean calledByReflection;
+
+    /** @return the number of calls so far, including this one */
+    public int getCalls() {
+        this.getCounter++;
+        // reflection leaves its own frames between the getter and the library
+        String caller = new Throwable().getStackTrace()[1].getClassName();
+        if (!caller.startsWith("org.json.")) {
+            this.calledByReflection = true;
+        }
+        return this.getCounter;
+    }
+
+    /**
+     * @param calls the number of calls so far
+     * @throws IllegalArgumentException if calls is negative
+     * @throws AssertionError if calls is zero
+     */
+    public void setCalls(int calls) {
+        if (calls < 0) {
+            throw new IllegalArgumentException("negative");
+        }
+        if (calls == 0) {
+            throw new AssertionError("zero");
+        }
+        this.getCounter = calls;
+    }
+
+    /** not a getter, as it takes a parameter */
+    public int getTwice(int value) {
+        return value * 2;
+    }
+
+    /** not a getter, as it returns nothing */
+    public void getNothing() {
+    }
+}
@@ -48,6 +48,15 @@ public class ExceptionalBean {
         throw new InvocationTargetException(new Exception("Yup, it's illegal"));
     }
 
+    /**
+     * @return Nothing really. Just can't be void.
+     * @throws AssertionError
+     *             always thrown
+     */
+    public int getAssertionError() {
+        throw new AssertionError("Yup, it's an error");
+    }
+
     /** My closeable class. */
     public static final class MyCloseable implements Closeable {
 
@@ -0,0 +1,90 @@
+package org.json.junit.data;
+
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONPropertyIgnore;
+import org.json.JSONPropertyName;
+
+/**
+ * Used in testing when a bean is made from a JSONObject.
+ */
+public class MyBeanTarget {
+    private int count;
+    private String name;
+    private String secret = "unchanged";
+    private MyEnum kind;
+    private List<Integer> scores;
+    private Map<String, MyBeanTarget> children;
+    private MyBeanTarget parent;
+    private long[] ids;
+
+    /** Set through the field rather than a setter. */
+    public double ratio;
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    @JSONPropertyName("full_name")
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSecret() {
+        return this.secret;
+    }
+
+    @JSONPropertyIgnore
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public MyEnum getKind() {
+        return this.kind;
+    }
+
+    public void setKind(MyEnum kind) {
+        this.kind = kind;
+    }
+
+    public List<Integer> getScores() {
+        return this.scores;
+    }
+
+    public void setScores(List<Integer> scores) {
+        this.scores = scores;
+    }
+
+    public Map<String, MyBeanTarget> getChildren() {
+        return this.children;
+    }
+
+    public void setChildren(Map<String, MyBeanTarget> children) {
+        this.children = children;
+    }
+
+    public MyBeanTarget getParent() {
+        return this.parent;
+    }
+
+    public void setParent(MyBeanTarget parent) {
+        this.parent = parent;
+    }
+
+    public long[] getIds() {
+        return this.ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+}